@@ -0,0 +1,13 @@
+// Booking ids are created in the browser, so the static export cannot pre-render them.
+// The placeholder only satisfies the export build; it finds no booking and goes home
+export function generateStaticParams() {
+  return [{ id: 'none' }];
+}
+
+export default function ConfirmationLayout({
+  children,
+}: {
+  children: React.ReactNode;
+}) {
+  return children;
+}
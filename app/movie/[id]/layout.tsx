@@ -0,0 +1,14 @@
+import { mockMovies } from '@/data/mockData';
+
+// Pre-render every fixture movie, and its theaters, seats and payment pages, for the static export
+export function generateStaticParams() {
+  return mockMovies.map((movie) => ({ id: movie.id }));
+}
+
+export default function MovieLayout({
+  children,
+}: {
+  children: React.ReactNode;
+}) {
+  return children;
+}
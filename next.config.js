@@ -1,5 +1,7 @@
 /** @type {import('next').NextConfig} */
 const nextConfig = {
+  // NEXT_OUTPUT=export next build writes the static export served by StaticAppServer (npm run export)
+  output: process.env.NEXT_OUTPUT === 'export' ? 'export' : undefined,
   optimizeFonts: false,
   eslint: {
     ignoreDuringBuilds: true,
@@ -0,0 +1,63 @@
+package com.cinemabook.benchmarks;
+
+import com.cinemabook.utils.ConfigReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ConfigReaderBenchmark class measures configuration lookups
+ * Every BasePage constructor creates a ConfigReader, which re-reads
+ * config.properties from disk; compared here with a lookup on a loaded reader
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ConfigReaderBenchmark {
+    
+    private ConfigReader loadedReader;
+    
+    @Setup
+    public void setUp() {
+        loadedReader = new ConfigReader();
+    }
+    
+    /**
+     * What a page object construction pays: load the file, then look up a key
+     * @return Base URL
+     */
+    @Benchmark
+    public String newReaderPerPage() {
+        return new ConfigReader().getBaseUrl();
+    }
+    
+    /**
+     * Lookup on a reader that is already loaded
+     * @return Base URL
+     */
+    @Benchmark
+    public String loadedReaderLookup() {
+        return loadedReader.getBaseUrl();
+    }
+    
+    /**
+     * Typed lookup with a default and the system property override check
+     * @return Step duration of the throughput test in seconds
+     */
+    @Benchmark
+    public long loadedReaderTypedLookup() {
+        return loadedReader.getLongProperty("perf.throughput.step.duration.s", 120);
+    }
+}
@@ -0,0 +1,112 @@
+package com.cinemabook.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataParsingBenchmark class measures decoding of seat and booking data
+ * Script results come back from the driver as JSON; the payloads here have the
+ * shape of SeatSelectionPage.getSeatInventory, dispatchSeatClicks and the
+ * booking history SessionSeeder writes to localStorage
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DataParsingBenchmark {
+    
+    private static final Json JSON = new Json();
+    
+    @Param({"100", "10000"})
+    public int bookings;
+    
+    private String seatInventory;
+    private String clickObservations;
+    private String bookingHistory;
+    
+    /**
+     * Build payloads matching the largest screen (10 x 18 seats) and the booking history size
+     */
+    @Setup
+    public void setUp() {
+        List<Map<String, Object>> seats = new ArrayList<>();
+        for (int row = 0; row < 10; row++) {
+            for (int number = 1; number <= 18; number++) {
+                seats.add(Map.of("label", (char) ('A' + row) + String.valueOf(number),
+                    "premium", row < 3, "booked", (row * 18 + number) % 10 < 3));
+            }
+        }
+        seatInventory = JSON.toJson(seats);
+        
+        List<List<Integer>> observations = new ArrayList<>();
+        for (int click = 0; click < 30; click++) {
+            observations.add(List.of(Math.min(click, 10), Math.min(click, 10) * 320, Math.max(0, click - 10)));
+        }
+        clickObservations = JSON.toJson(observations);
+        
+        List<Map<String, Object>> history = new ArrayList<>();
+        for (int booking = 0; booking < bookings; booking++) {
+            boolean premium = booking % 3 == 0;
+            List<Map<String, Object>> bookedSeats = new ArrayList<>();
+            for (int seat = 1; seat <= 2; seat++) {
+                bookedSeats.add(Map.of("id", (premium ? "A" : "E") + seat, "row", premium ? "A" : "E", "number", seat,
+                    "type", premium ? "premium" : "regular", "status", "selected", "price", premium ? 300 : 200));
+            }
+            history.add(Map.of("id", "BKSEED" + booking, "movieId", String.valueOf(booking % 6 + 1),
+                "movieTitle", "Avengers: Endgame", "theaterName", "PVR Cinemas Phoenix", "showtime", "8:00 PM",
+                "date", "2026-01-01T18:00:00.000Z", "seats", bookedSeats, "totalAmount", premium ? 640 : 440,
+                "status", "confirmed"));
+        }
+        bookingHistory = JSON.toJson(history);
+    }
+    
+    /**
+     * Decode the seat inventory script result
+     * @return Seats
+     */
+    @Benchmark
+    public List<Map<String, Object>> seatInventory() {
+        return JSON.toType(seatInventory, Json.LIST_OF_MAPS_TYPE);
+    }
+    
+    /**
+     * Decode and convert the per-click observations of a batched seat dispatch
+     * @return Count, total and alerts per click
+     */
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<int[]> clickObservations() {
+        List<List<Number>> raw = (List<List<Number>>) JSON.toType(clickObservations, List.class);
+        List<int[]> converted = new ArrayList<>();
+        for (List<Number> step : raw) {
+            converted.add(new int[] {step.get(0).intValue(), step.get(1).intValue(), step.get(2).intValue()});
+        }
+        return converted;
+    }
+    
+    /**
+     * Decode the booking history stored in localStorage
+     * @return Bookings
+     */
+    @Benchmark
+    public List<Map<String, Object>> bookingHistory() {
+        return JSON.toType(bookingHistory, Json.LIST_OF_MAPS_TYPE);
+    }
+}
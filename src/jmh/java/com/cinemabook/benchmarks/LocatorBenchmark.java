@@ -0,0 +1,57 @@
+package com.cinemabook.benchmarks;
+
+import com.cinemabook.pages.HomePage;
+import com.cinemabook.pages.SeatSelectionPage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LocatorBenchmark class measures dynamic locator construction
+ * Covers the XPath locators built on every selectSeat and clickMovieCardByTitle call
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocatorBenchmark {
+    
+    private static final String[] ROWS = {"A", "B", "C", "D", "E", "F", "G", "H", "I", "J"};
+    private static final String[] TITLES = {
+        "Avengers: Endgame", "The Batman", "Top Gun: Maverick",
+        "Doctor Strange: Multiverse", "Black Panther: Forever", "Spider-Man: New Universe"
+    };
+    
+    private int call;
+    
+    /**
+     * Seat locator for a varying row and seat number
+     * @return Seat locator
+     */
+    @Benchmark
+    public By seatLocator() {
+        call++;
+        return SeatSelectionPage.seatLocator(ROWS[call % ROWS.length], call % 18 + 1);
+    }
+    
+    /**
+     * Movie card locator for a varying title
+     * @return Movie card locator
+     */
+    @Benchmark
+    public By movieCardLocator() {
+        call++;
+        return HomePage.movieCardLocator(TITLES[call % TITLES.length]);
+    }
+}
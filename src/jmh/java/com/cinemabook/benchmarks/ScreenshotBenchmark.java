@@ -0,0 +1,106 @@
+package com.cinemabook.benchmarks;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.OutputType;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScreenshotBenchmark class measures what happens to a screenshot after the browser returns it
+ * The driver answers with a base64 PNG; ScreenshotUtils decodes it to a temporary file
+ * and copies that file into test-output, compared here with writing the decoded bytes once
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ScreenshotBenchmark {
+    
+    private String base64Png;
+    private File targetDir;
+    private int screenshot;
+    
+    /**
+     * Render a maximized-window sized page with some detail so PNG compression has work to do
+     */
+    @Setup
+    public void setUp() throws IOException {
+        BufferedImage page = new BufferedImage(1366, 768, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = page.createGraphics();
+        Random random = new Random(42);
+        graphics.setColor(Color.WHITE);
+        graphics.fillRect(0, 0, 1366, 768);
+        for (int card = 0; card < 400; card++) {
+            graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+            graphics.fillRect(random.nextInt(1366), random.nextInt(768), 20 + random.nextInt(200), 10 + random.nextInt(120));
+        }
+        graphics.dispose();
+        ByteArrayOutputStream png = new ByteArrayOutputStream();
+        ImageIO.write(page, "png", png);
+        base64Png = Base64.getEncoder().encodeToString(png.toByteArray());
+        targetDir = Files.createTempDirectory("screenshot-benchmark").toFile();
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        FileUtils.deleteDirectory(targetDir);
+    }
+    
+    /**
+     * Current path: decode to a temporary file, then copy it to the screenshot directory
+     * @return Saved screenshot
+     */
+    @Benchmark
+    public File decodeToTempFileAndCopy() throws IOException {
+        File source = OutputType.FILE.convertFromBase64Png(base64Png);
+        File target = new File(targetDir, "copy-" + (screenshot++ % 16) + ".png");
+        FileUtils.copyFile(source, target);
+        Files.delete(source.toPath());
+        return target;
+    }
+    
+    /**
+     * Decode to bytes and write the screenshot file directly
+     * @return Saved screenshot
+     */
+    @Benchmark
+    public File decodeToBytesAndWrite() throws IOException {
+        byte[] png = OutputType.BYTES.convertFromBase64Png(base64Png);
+        File target = new File(targetDir, "write-" + (screenshot++ % 16) + ".png");
+        Files.write(target.toPath(), png);
+        return target;
+    }
+    
+    /**
+     * Decode only, the part every path shares
+     * @return Decoded PNG
+     */
+    @Benchmark
+    public byte[] decodeOnly() {
+        return OutputType.BYTES.convertFromBase64Png(base64Png);
+    }
+}
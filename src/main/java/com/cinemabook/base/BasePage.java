@@ -1,9 +1,20 @@
 package com.cinemabook.base;
 
+import com.cinemabook.performance.AppRoutes;
+import com.cinemabook.performance.CoverageCollector;
+import com.cinemabook.performance.PerformanceBudget;
+import com.cinemabook.performance.ResourceAuditor;
+import com.cinemabook.performance.SoftNavigationTimer;
+import com.cinemabook.performance.WebVitalsCollector;
+import com.cinemabook.utils.CdpUtils;
 import com.cinemabook.utils.ConfigReader;
 import com.cinemabook.utils.WaitUtils;
+import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 
+import java.util.List;
+import java.util.Map;
+
 /**
  * BasePage class provides common functionality for all page classes
  * Contains shared elements and methods used across different pages
@@ -78,4 +89,92 @@ public class BasePage {
     public void waitForPageToLoad() {
         waitUtils.waitForTitleToContain("CinemaBook");
     }
+    
+    /**
+     * Navigate to a URL and wait for the page to be ready
+     * Its metrics are recorded by PageMetricsListener when the session leaves it
+     * @param url URL to open
+     * @param readyLocator Element that marks the page as ready
+     */
+    protected void navigateTo(String url, By readyLocator) {
+        driver.get(url);
+        waitUtils.waitForElementToBeVisible(readyLocator);
+    }
+    
+    /**
+     * Collect web vitals, resource weight and JavaScript coverage for the current document
+     * and check them against the route budget
+     * Coverage goes to the route the session is on, since it holds the code run since the last take
+     * Throws AssertionError when a budget is exceeded and enforcement is enabled
+     * @param route Route pattern of the URL the document was loaded from
+     */
+    public void recordPageMetrics(String route) {
+        PerformanceBudget budget = PerformanceBudget.forFile(config.getPerformanceBudgetFile(), config.getDeviceProfile());
+        
+        if (config.isResourceAuditEnabled()) {
+            recordResourceWeight(route, budget);
+        }
+        if (config.isCoverageEnabled() && CdpUtils.isCdpAvailable(driver)) {
+            try {
+                CoverageCollector.take(driver, AppRoutes.resolve(getCurrentUrl()));
+            } catch (Exception e) {
+                System.err.println("Failed to take JavaScript coverage: " + e.getMessage());
+            }
+        }
+        if (!config.isWebVitalsEnabled()) {
+            return;
+        }
+        
+        Map<String, Double> metrics;
+        try {
+            metrics = WebVitalsCollector.collect(driver);
+        } catch (Exception e) {
+            System.err.println("Failed to collect web vitals: " + e.getMessage());
+            return;
+        }
+        
+        WebVitalsCollector.record(route, metrics);
+        
+        List<String> violations = budget.check(route, metrics);
+        if (!violations.isEmpty() && config.isPerformanceBudgetEnforced()) {
+            throw new AssertionError("Performance budget exceeded: " + String.join("; ", violations));
+        }
+        violations.forEach(violation -> System.out.println("Performance budget warning: " + violation));
+    }
+    
+    /**
+     * Audit the requests of the current page and check their totals against the route budget
+     * @param route Route pattern of the current page
+     * @param budget Budget holding the weight limits
+     */
+    private void recordResourceWeight(String route, PerformanceBudget budget) {
+        List<ResourceAuditor.Resource> resources;
+        try {
+            resources = ResourceAuditor.collect(driver);
+        } catch (Exception e) {
+            System.err.println("Failed to audit page resources: " + e.getMessage());
+            return;
+        }
+        ResourceAuditor.record(route, resources);
+        
+        List<String> violations = budget.check(route, ResourceAuditor.totals(resources));
+        if (!violations.isEmpty() && config.isResourceBudgetEnforced()) {
+            throw new AssertionError("Resource budget exceeded: " + String.join("; ", violations));
+        }
+        violations.forEach(violation -> System.out.println("Resource budget warning: " + violation));
+    }
+    
+    /**
+     * Run an action that triggers a client-side route change
+     * Times the transition when soft navigation timing is enabled
+     * @param transition Transition name used in the report, e.g. "seats -> payment"
+     * @param action Action triggering the route change
+     */
+    protected void performSoftNavigation(String transition, Runnable action) {
+        if (!config.isSoftNavigationTimingEnabled()) {
+            action.run();
+            return;
+        }
+        SoftNavigationTimer.measure(driver, transition, action, config.getSoftNavigationTimeout());
+    }
 }
\ No newline at end of file
@@ -3,21 +3,42 @@ package com.cinemabook.base;
 import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.cinemabook.performance.AppRoutes;
+import com.cinemabook.performance.BookingFlow;
+import com.cinemabook.performance.CoverageCollector;
+import com.cinemabook.performance.DeviceProfile;
+import com.cinemabook.performance.ExternalRequestBlocker;
+import com.cinemabook.performance.PerformanceBudget;
+import com.cinemabook.performance.ResourceAuditor;
+import com.cinemabook.performance.SoftNavigationTimer;
+import com.cinemabook.performance.WebVitalsCollector;
+import com.cinemabook.pages.LoginPage;
+import com.cinemabook.utils.AppServerManager;
+import com.cinemabook.utils.AssetCacheProxy;
 import com.cinemabook.utils.ConfigReader;
+import com.cinemabook.utils.FailureBundleUtils;
 import com.cinemabook.utils.ScreenshotUtils;
-import io.github.bonigarcia.wdm.WebDriverManager;
+import com.cinemabook.utils.SessionSeeder;
+import com.cinemabook.utils.StaticAppServer;
 import org.apache.commons.io.FileUtils;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.chrome.ChromeDriver;
-import org.openqa.selenium.chrome.ChromeOptions;
-import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.ITestContext;
 import org.testng.ITestResult;
 import org.testng.annotations.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Paths;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.concurrent.TimeUnit;
 
 /**
@@ -30,13 +51,20 @@ public class BaseTest {
     protected static WebDriverWait wait;
     protected static ExtentReports extent;
     protected static ExtentTest test;
+    protected static ExternalRequestBlocker requestBlocker;
+    private static boolean coverageStarted;
+    private static StaticAppServer appServer;
+    private static AppServerManager managedAppServer;
+    private static AssetCacheProxy assetCacheProxy;
+    private static BrowserProfileTemplate profileTemplate;
+    private static TestImpactMap impactMap;
     protected ConfigReader config;
     
     /**
      * Suite level setup - initializes ExtentReports
      */
     @BeforeSuite
-    public void suiteSetup() {
+    public void suiteSetup(ITestContext context) {
         // Initialize ExtentReports
         ExtentSparkReporter sparkReporter = new ExtentSparkReporter("test-output/reports/ExtentReport.html");
         sparkReporter.config().setDocumentTitle("CinemaBook Test Report");
@@ -47,34 +75,94 @@ public class BaseTest {
         extent.setSystemInfo("OS", System.getProperty("os.name"));
         extent.setSystemInfo("Java Version", System.getProperty("java.version"));
         extent.setSystemInfo("Browser", "Chrome");
+        extent.setSystemInfo("Device Profile", new ConfigReader().getDeviceProfile());
         
         // Create directories for screenshots and reports
         createDirectories();
+        
+        // Serve the prebuilt app from this JVM or launch it, instead of using an already running server
+        ConfigReader suiteConfig = new ConfigReader();
+        if (suiteConfig.getBooleanProperty("impact.record", false)) {
+            // The impact map is built from the coverage of every test
+            System.setProperty("perf.coverage.enabled", "true");
+            impactMap = new TestImpactMap();
+        }
+        if (suiteConfig.isStaticAppServerEnabled()) {
+            startStaticAppServer();
+        } else if (suiteConfig.isManagedAppServerEnabled()) {
+            startManagedAppServer();
+        }
+        if (suiteConfig.isAssetCacheProxyEnabled()) {
+            startAssetCacheProxy();
+        }
+        if (suiteConfig.isProfileTemplateEnabled()) {
+            buildProfileTemplate();
+        }
+        
+        // Parallel data provider rows get as many threads as the grid has slots
+        if (suiteConfig.isGridEnabled()) {
+            int slots = SeleniumGrid.getSlots(suiteConfig.getBrowser());
+            context.getSuite().getXmlSuite().setDataProviderThreadCount(slots);
+            extent.setSystemInfo("Selenium Grid", SeleniumGrid.getUrl() + " (" + slots + " " + suiteConfig.getBrowser() + " slots)");
+        }
     }
     
     /**
      * Test level setup - initializes WebDriver and configuration
      */
     @BeforeMethod
-    @Parameters({"browser"})
-    public void setUp(@Optional("chrome") String browser) {
+    @Parameters({"browser", "allowedHosts"})
+    public void setUp(@Optional("chrome") String browser, @Optional("") String allowedHosts) {
         // Initialize configuration
         config = new ConfigReader();
+        // Leave out budget violations of whatever ran on this thread before
+        PageMetricsListener.drainViolations();
+        if (!usesSharedBrowser()) {
+            return;
+        }
         
-        // Setup WebDriver based on browser parameter
-        setupWebDriver(browser);
-        
-        // Configure WebDriver settings
-        driver.manage().window().maximize();
-        driver.manage().timeouts().implicitlyWait(
-            Duration.ofSeconds(config.getImplicitWait())
-        );
-        driver.manage().timeouts().pageLoadTimeout(
-            Duration.ofSeconds(config.getPageLoadTimeout())
-        );
+        // A pooled browser keeps the scripts installed when it was started
+        boolean reused = config.isBrowserReuseEnabled() && driver != null && resetBrowserState();
+        if (!reused) {
+            // Setup WebDriver based on browser parameter
+            setupWebDriver(browser);
+            
+            // Configure WebDriver settings
+            driver.manage().window().maximize();
+            driver.manage().timeouts().implicitlyWait(
+                Duration.ofSeconds(config.getImplicitWait())
+            );
+            driver.manage().timeouts().pageLoadTimeout(
+                Duration.ofSeconds(config.getPageLoadTimeout())
+            );
+            
+            // Initialize WebDriverWait
+            wait = new WebDriverWait(driver, Duration.ofSeconds(config.getExplicitWait()));
+            
+            // Emulate the configured device before the first navigation
+            DeviceProfile.forName(config.getDeviceProfile()).apply(driver);
+            
+            // Observe web vitals from the first navigation onwards
+            if (config.isWebVitalsEnabled()) {
+                WebVitalsCollector.install(driver);
+            }
+            if (config.isResourceAuditEnabled()) {
+                ResourceAuditor.install(driver);
+            }
+        }
         
-        // Initialize WebDriverWait
-        wait = new WebDriverWait(driver, Duration.ofSeconds(config.getExplicitWait()));
+        // Keep the browser off hosts outside the allow-list, for suites that pass one or when enabled for all
+        if (config.isExternalRequestBlockingEnabled() || !allowedHosts.trim().isEmpty()) {
+            startRequestBlocker(allowedHosts);
+        }
+        if (config.isCoverageEnabled()) {
+            coverageStarted = startCoverage();
+        }
+        if (impactMap != null) {
+            // Leave out what ran before this test
+            CoverageCollector.drainRoutes();
+            CoverageCollector.drainExecutedScripts();
+        }
         
         // Navigate to base URL
         driver.get(config.getBaseUrl());
@@ -85,10 +173,34 @@ public class BaseTest {
      */
     @AfterMethod
     public void tearDown(ITestResult result) {
+        // The page the test ended on is recorded like every page it left
+        if (usesSharedBrowser() && driver != null) {
+            PageMetricsListener.record(driver);
+        }
+        List<String> budgetViolations = PageMetricsListener.drainViolations();
+        if (!budgetViolations.isEmpty() && result.getStatus() == ITestResult.SUCCESS) {
+            result.setStatus(ITestResult.FAILURE);
+            result.setThrowable(new AssertionError(String.join("; ", budgetViolations)));
+        }
+        if (config.getBooleanProperty("result.cache.enabled", false)) {
+            TestResultCache.recordOutcome(result.getMethod(), result.getStatus() == ITestResult.SUCCESS, config);
+        }
+        if (!usesSharedBrowser()) {
+            return;
+        }
+        
         if (result.getStatus() == ITestResult.FAILURE) {
             // Capture screenshot for failed tests
             String screenshotPath = ScreenshotUtils.captureScreenshot(driver, result.getName());
             test.addScreenCaptureFromPath(screenshotPath);
+            
+            // Capture failure bundle before the browser is closed
+            if (config.isFailureBundleEnabled()) {
+                String bundlePath = FailureBundleUtils.captureFailureBundle(
+                    driver, result.getName(), screenshotPath, config.getFailureBundleTimeout());
+                String bundleName = new File(bundlePath).getName();
+                test.info("Failure bundle: <a href='../failure-bundles/" + bundleName + "'>" + bundleName + "</a>");
+            }
             test.fail("Test Failed: " + result.getThrowable().getMessage());
         } else if (result.getStatus() == ITestResult.SUCCESS) {
             test.pass("Test Passed Successfully");
@@ -96,9 +208,31 @@ public class BaseTest {
             test.skip("Test Skipped: " + result.getThrowable().getMessage());
         }
         
-        // Close browser
-        if (driver != null) {
+        if (requestBlocker != null) {
+            test.info("Blocked external requests: " + requestBlocker.getBlockedCount());
+            requestBlocker.stop();
+            requestBlocker = null;
+        }
+        
+        // Code run since the last recorded page belongs to the page the test ended on
+        if (coverageStarted) {
+            try {
+                CoverageCollector.take(driver, AppRoutes.resolve(driver.getCurrentUrl()));
+            } catch (RuntimeException e) {
+                System.err.println("Failed to take JavaScript coverage: " + e.getMessage());
+            }
+            CoverageCollector.stop(driver);
+            coverageStarted = false;
+        }
+        if (impactMap != null) {
+            impactMap.record(result.getMethod().getQualifiedName(), CoverageCollector.drainRoutes(),
+                CoverageCollector.drainExecutedScripts());
+        }
+        
+        // Close browser, a pooled one only after a failure since its state is unknown
+        if (driver != null && (!config.isBrowserReuseEnabled() || result.getStatus() == ITestResult.FAILURE)) {
             driver.quit();
+            driver = null;
         }
     }
     
@@ -107,9 +241,173 @@ public class BaseTest {
      */
     @AfterSuite
     public void suiteTearDown() {
+        // Close the pooled browser
+        if (driver != null) {
+            driver.quit();
+            driver = null;
+        }
+        
+        if (appServer != null) {
+            System.out.println("Static app server: " + appServer.getRequestCount() + " requests, "
+                + appServer.getNotModifiedCount() + " not modified, " + appServer.getBytesSent() / 1024 + " KB sent");
+            appServer.stop();
+            appServer = null;
+            System.clearProperty("base.url");
+        }
+        if (managedAppServer != null) {
+            managedAppServer.stop();
+            managedAppServer = null;
+            System.clearProperty("base.url");
+        }
+        if (profileTemplate != null) {
+            profileTemplate.delete();
+            profileTemplate = null;
+            System.clearProperty("browser.profile.template");
+        }
+        if (assetCacheProxy != null) {
+            System.out.println(String.format(Locale.ROOT, "Asset cache proxy: %d of %d static asset requests from cache (%.1f%%), %d KB saved",
+                assetCacheProxy.getHitCount(), assetCacheProxy.getCacheableRequestCount(), assetCacheProxy.getHitRate() * 100,
+                assetCacheProxy.getBytesSaved() / 1024));
+            assetCacheProxy.writeReport("test-output/reports/asset-cache-proxy.csv");
+            assetCacheProxy.stop();
+            assetCacheProxy = null;
+            System.clearProperty("asset.proxy.address");
+        }
+        
+        // Make sure failure bundles linked from the report exist on disk
+        FailureBundleUtils.awaitPendingBundles(30000);
+        
+        // Write web vitals aggregated by route across the run
+        ConfigReader suiteConfig = new ConfigReader();
+        PerformanceBudget budget = PerformanceBudget.forFile(suiteConfig.getPerformanceBudgetFile(), suiteConfig.getDeviceProfile());
+        WebVitalsCollector.writeSummary("test-output/reports/web-vitals-summary.csv", budget);
+        ResourceAuditor.writeSummary("test-output/reports/", budget,
+            (int) suiteConfig.getLongProperty("perf.resources.top.growers", 10));
+        ExternalRequestBlocker.writeSummary("test-output/reports/blocked-requests.csv");
+        CoverageCollector.writeSummary("test-output/reports/js-coverage.csv");
+        FlowCheckpoint.writeSummary("test-output/reports/flow-checkpoints.csv");
+        FlowCheckpoint.clear();
+        if (impactMap != null) {
+            impactMap.save(Paths.get(suiteConfig.getProperty("impact.map.file", "test-output/test-impact-map.json")));
+            impactMap = null;
+        }
+        if (suiteConfig.isSoftNavigationTimingEnabled()) {
+            SoftNavigationTimer.writeSummary("test-output/reports/soft-navigation-summary.csv");
+        }
+        
+        // Tests left out by the result cache still show up in the report
+        Map<String, Map<String, Object>> cachedPasses = TestResultCache.getCachedPasses();
         if (extent != null) {
+            for (Map.Entry<String, Map<String, Object>> cached : cachedPasses.entrySet()) {
+                String evidence = new File((String) cached.getValue().get("evidenceFile")).toURI().toString();
+                extent.createTest(cached.getKey() + " (cached)").pass("Cached pass, inputs unchanged since "
+                    + new Date(((Number) cached.getValue().get("passedAt")).longValue()) + ". Evidence: <a href='"
+                    + evidence + "'>original report</a>");
+            }
             extent.flush();
         }
+        if (suiteConfig.getBooleanProperty("result.cache.enabled", false)) {
+            TestResultCache.writeSummary("test-output/reports/result-cache.csv");
+            TestResultCache.save("test-output/reports/ExtentReport.html");
+        }
+    }
+    
+    /**
+     * Check if the test methods share the browser started before every method
+     * Classes running data provider rows in parallel return false and open their own sessions
+     * @return true to start and quit the shared browser around every test method
+     */
+    protected boolean usesSharedBrowser() {
+        return true;
+    }
+    
+    /**
+     * Log in as the valid test user and open the seat map of the first movie
+     */
+    protected void openSeatSelectionPage() throws InterruptedException {
+        logInAsValidUser();
+        new BookingFlow(driver).openSeatMap();
+    }
+    
+    /**
+     * Log in as the valid test user
+     * Uses the login form unless session.login.seeded is set, in which case the
+     * user is written to localStorage the way the app stores it after a login.
+     * With session.snapshot.enabled a form login is saved as the logged-in snapshot
+     * and restored instead while the app build is unchanged
+     */
+    protected void logInAsValidUser() throws InterruptedException {
+        if (config.isSeededLoginEnabled()) {
+            driver.get(config.getBaseUrl());
+            SessionSeeder.seedUser(driver, config.getValidEmail());
+            return;
+        }
+        if (restoreSnapshot("logged-in")) {
+            return;
+        }
+        long start = System.nanoTime();
+        LoginPage loginPage = new LoginPage(driver);
+        loginPage.navigateToLoginPage();
+        loginPage.performLogin(config.getValidEmail(), config.getValidPassword());
+        Thread.sleep(3000);
+        // A failed login must not become the state every later run starts from
+        if (isLoggedIn()) {
+            saveSnapshot("logged-in", (System.nanoTime() - start) / 1000000);
+        } else {
+            System.err.println("Login did not complete, not saving the logged-in snapshot");
+        }
+    }
+    
+    /**
+     * Check if the app holds a logged-in user and the session has left the login page
+     * @return true if logged in
+     */
+    private boolean isLoggedIn() {
+        try {
+            return !driver.getCurrentUrl().contains("/login")
+                && ((JavascriptExecutor) driver).executeScript("return localStorage.getItem('user');") != null;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Restore a named storage snapshot and open the page it was taken on
+     * @param name Snapshot name
+     * @return true if restored, false when snapshots are disabled, missing or from another app build
+     */
+    protected boolean restoreSnapshot(String name) {
+        if (!config.isStorageSnapshotEnabled()) {
+            return false;
+        }
+        StorageSnapshot snapshot = StorageSnapshot.loadNamed(name, config);
+        if (snapshot == null) {
+            return false;
+        }
+        try {
+            snapshot.restore(driver, config.getBaseUrl());
+            driver.get(config.getBaseUrl() + snapshot.getPath());
+            return true;
+        } catch (RuntimeException e) {
+            System.err.println("Failed to restore storage snapshot '" + name + "': " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Save the state of the current session as a named storage snapshot
+     * @param name Snapshot name
+     * @param setupMillis Time it took to reach the state
+     */
+    protected void saveSnapshot(String name, long setupMillis) {
+        if (!config.isStorageSnapshotEnabled()) {
+            return;
+        }
+        try {
+            StorageSnapshot.saveNamed(name, StorageSnapshot.capture(driver, setupMillis), config);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to save storage snapshot '" + name + "': " + e.getMessage());
+        }
     }
     
     /**
@@ -117,23 +415,158 @@ public class BaseTest {
      * @param browser Browser name (chrome, firefox)
      */
     private void setupWebDriver(String browser) {
-        switch (browser.toLowerCase()) {
-            case "chrome":
-                WebDriverManager.chromedriver().setup();
-                ChromeOptions chromeOptions = new ChromeOptions();
-                chromeOptions.addArguments("--disable-notifications");
-                chromeOptions.addArguments("--disable-popup-blocking");
-                chromeOptions.addArguments("--disable-extensions");
-                driver = new ChromeDriver(chromeOptions);
-                break;
-                
-            case "firefox":
-                WebDriverManager.firefoxdriver().setup();
-                driver = new FirefoxDriver();
-                break;
-                
-            default:
-                throw new IllegalArgumentException("Browser not supported: " + browser);
+        driver = PageMetricsListener.decorate(DriverFactory.createDriver(browser, config.isHeadless()));
+    }
+    
+    /**
+     * Clear cookies and storage of the app origin so a pooled browser starts the test logged out
+     * @return true if the browser can be reused, false if it was closed and a new one is needed
+     */
+    private boolean resetBrowserState() {
+        try {
+            driver.manage().deleteAllCookies();
+            String currentUrl = driver.getCurrentUrl();
+            if (currentUrl != null && currentUrl.startsWith(config.getBaseUrl())) {
+                ((JavascriptExecutor) driver).executeScript("localStorage.clear(); sessionStorage.clear();");
+            }
+            return true;
+        } catch (RuntimeException e) {
+            System.err.println("Failed to reset pooled browser, starting a new one: " + e.getMessage());
+            try {
+                driver.quit();
+            } catch (RuntimeException quitFailure) {
+                // The session is already gone
+            }
+            driver = null;
+            return false;
+        }
+    }
+    
+    /**
+     * Start the embedded static server and point base.url at it for the rest of the run
+     */
+    private void startStaticAppServer() {
+        ConfigReader suiteConfig = new ConfigReader();
+        long start = System.nanoTime();
+        appServer = new StaticAppServer(Paths.get(suiteConfig.getStaticAppDirectory()));
+        appServer.start((int) suiteConfig.getLongProperty("app.static.threads", 32));
+        // ConfigReader gives system properties precedence, so every later reader sees the new URL
+        System.setProperty("base.url", appServer.getBaseUrl());
+        System.out.println(String.format(Locale.ROOT, "Static app server: %d files from %s at %s, started in %d ms",
+            appServer.getAssetCount(), suiteConfig.getStaticAppDirectory(), appServer.getBaseUrl(),
+            (System.nanoTime() - start) / 1000000));
+        extent.setSystemInfo("App Server", "Static export at " + appServer.getBaseUrl());
+    }
+    
+    /**
+     * Start the shared asset cache and have every browser started from now on use it as proxy
+     */
+    private void startAssetCacheProxy() {
+        ConfigReader suiteConfig = new ConfigReader();
+        assetCacheProxy = new AssetCacheProxy(suiteConfig.getLongProperty("asset.proxy.cache.mb", 256) * 1024 * 1024);
+        assetCacheProxy.start((int) suiteConfig.getLongProperty("asset.proxy.threads", 32));
+        // Read by DriverFactory when it builds the browser options
+        System.setProperty("asset.proxy.address", assetCacheProxy.getAddress());
+        extent.setSystemInfo("Asset Cache Proxy", assetCacheProxy.getAddress());
+    }
+    
+    /**
+     * Warm one Chrome profile on every route and have every Chrome started from now on use a clone of it
+     * First navigation times of the cold profile and of a clone go to the report and to browser-profile-warmup.csv
+     */
+    private void buildProfileTemplate() {
+        ConfigReader suiteConfig = new ConfigReader();
+        if (!suiteConfig.getBrowser().equalsIgnoreCase("chrome") || suiteConfig.isGridEnabled()) {
+            System.out.println("Browser profile template needs local Chrome sessions, skipping it");
+            return;
+        }
+        profileTemplate = new BrowserProfileTemplate(
+            Paths.get(suiteConfig.getProperty("browser.profile.dir", "target/browser-profile")));
+        profileTemplate.build(suiteConfig.getBaseUrl(), suiteConfig.getProperty("browser.profile.warm.id", "1"),
+            suiteConfig.isHeadless());
+        profileTemplate.writeReport("test-output/reports/browser-profile-warmup.csv");
+        // Read by DriverFactory when it starts Chrome
+        System.setProperty("browser.profile.template", profileTemplate.getTemplate().toString());
+        
+        ExtentTest profileNode = extent.createTest("Browser Profile Template");
+        profileNode.info("Browser start: cold profile " + profileTemplate.getStartMillis(false) + " ms, template "
+            + profileTemplate.getStartMillis(true) + " ms");
+        for (Map.Entry<String, long[]> route : profileTemplate.getFirstNavigation().entrySet()) {
+            long[] times = route.getValue();
+            profileNode.info(route.getKey() + ": first navigation cold " + times[0] + " ms, template " + times[1] + " ms");
+        }
+        long cold = profileTemplate.getTotalNavigationMillis(false);
+        long warm = profileTemplate.getTotalNavigationMillis(true);
+        profileNode.pass("First navigations took " + warm + " ms from the template against " + cold + " ms cold");
+        System.out.println("Browser profile template ready at " + profileTemplate.getTemplate() + ", first navigations "
+            + cold + " ms cold, " + warm + " ms from the template");
+    }
+    
+    /**
+     * Launch the app, wait until it answers and compile every route before the first test
+     * Readiness and per-route compile times go to the report and to app-server-warmup.csv
+     */
+    private void startManagedAppServer() {
+        ConfigReader suiteConfig = new ConfigReader();
+        managedAppServer = new AppServerManager(suiteConfig.getAppServerCommand(),
+            new File(suiteConfig.getProperty("app.server.dir", ".")), new File("test-output/reports/app-server.log"));
+        managedAppServer.start(suiteConfig.getProperty("app.server.ready.path", "/"),
+            suiteConfig.getLongProperty("app.server.ready.timeout.s", 120));
+        System.setProperty("base.url", managedAppServer.getBaseUrl());
+        long warmUpMillis = managedAppServer.warmRoutes(suiteConfig.getProperty("app.server.warm.id", "1"),
+            suiteConfig.getLongProperty("app.server.warm.timeout.s", 120));
+        managedAppServer.writeWarmUpReport("test-output/reports/app-server-warmup.csv");
+        
+        ExtentTest warmUpNode = extent.createTest("App Server Warm-up");
+        warmUpNode.info("Started '" + suiteConfig.getAppServerCommand() + "' at " + managedAppServer.getBaseUrl()
+            + ", ready after " + managedAppServer.getReadyMillis() + " ms");
+        for (Map.Entry<String, long[]> route : managedAppServer.getWarmUp().entrySet()) {
+            long[] times = route.getValue();
+            String line = route.getKey() + ": HTTP " + times[0] + ", first request " + times[1] + " ms, warm "
+                + times[2] + " ms (compile ~" + Math.max(0, times[1] - times[2]) + " ms)";
+            if (times[0] == 0 || times[0] >= 500) {
+                warmUpNode.warning(line);
+            } else {
+                warmUpNode.info(line);
+            }
+        }
+        warmUpNode.pass("Warmed " + managedAppServer.getWarmUp().size() + " routes in parallel in " + warmUpMillis + " ms");
+        extent.setSystemInfo("App Server", managedAppServer.getBaseUrl() + " (ready in " + managedAppServer.getReadyMillis()
+            + " ms, warm-up " + warmUpMillis + " ms)");
+        System.out.println("App server ready at " + managedAppServer.getBaseUrl() + " after "
+            + managedAppServer.getReadyMillis() + " ms, routes warmed in " + warmUpMillis + " ms");
+    }
+    
+    /**
+     * Start blocking requests to hosts outside the allow-list
+     * @param allowedHosts Comma separated suite allow-list, empty to use the configured one
+     */
+    private void startRequestBlocker(String allowedHosts) {
+        String hosts = allowedHosts.trim().isEmpty() ? config.getAllowedHosts() : allowedHosts;
+        List<String> allowed = new ArrayList<>(Arrays.asList(hosts.split(",")));
+        allowed.add(URI.create(config.getBaseUrl()).getHost());
+        
+        requestBlocker = new ExternalRequestBlocker(allowed, config.isExternalRequestStubbingEnabled());
+        try {
+            if (!requestBlocker.start(driver)) {
+                requestBlocker = null;
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Failed to start external request blocking: " + e.getMessage());
+            requestBlocker = null;
+        }
+    }
+    
+    /**
+     * Start JavaScript coverage collection for the session
+     * @return true if coverage is being collected
+     */
+    private boolean startCoverage() {
+        try {
+            return CoverageCollector.start(driver);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to start JavaScript coverage: " + e.getMessage());
+            return false;
         }
     }
     
@@ -144,6 +577,7 @@ public class BaseTest {
         try {
             FileUtils.forceMkdir(new File("test-output/screenshots"));
             FileUtils.forceMkdir(new File("test-output/reports"));
+            FileUtils.forceMkdir(new File("test-output/failure-bundles"));
         } catch (IOException e) {
             System.err.println("Failed to create directories: " + e.getMessage());
         }
@@ -0,0 +1,220 @@
+package com.cinemabook.base;
+
+import com.cinemabook.performance.AppRoutes;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.apache.commons.io.FileUtils;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * BrowserProfileTemplate class builds one warmed Chrome profile and clones it per session
+ * The template user-data-dir is filled by visiting every app route once, so the HTTP
+ * cache, V8 code cache and shader caches exist before the first test. Sessions start
+ * from a full copy, since Chrome rewrites cache files in place and a shared file would
+ * leak one session's writes into the template and every other clone. First
+ * navigation times of the cold build and of a clone are kept for the report
+ */
+public class BrowserProfileTemplate {
+    
+    // Chrome refuses a profile that still holds the lock of the browser that built it
+    private static final List<String> LOCK_FILES = Arrays.asList("SingletonLock", "SingletonSocket", "SingletonCookie",
+        "lockfile");
+    
+    private final Path root;
+    private final Path template;
+    private final Map<String, long[]> firstNavigation = new LinkedHashMap<>();
+    private long coldStartMillis;
+    private long templateStartMillis;
+    
+    /**
+     * Constructor
+     * @param root Directory receiving the template and the clones
+     */
+    public BrowserProfileTemplate(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+        this.template = this.root.resolve("template");
+    }
+    
+    /**
+     * Build the template by visiting every route in a browser with an empty profile,
+     * then visit them again from a clone to measure what the template saves
+     * An untimed pass in a throwaway profile runs first, so on-demand route compilation
+     * of a dev server is not counted as cold profile time
+     * @param baseUrl App URL
+     * @param id Value used for dynamic route segments
+     * @param headless true to run without a window
+     */
+    public void build(String baseUrl, String id, boolean headless) {
+        try {
+            FileUtils.deleteDirectory(root.toFile());
+            Files.createDirectories(template);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to prepare browser profile directory " + root + ": " + e.getMessage(), e);
+        }
+        WebDriverManager.chromedriver().setup();
+        List<String> paths = new ArrayList<>();
+        for (String route : AppRoutes.getRoutes()) {
+            paths.add(AppRoutes.toConcretePath(route, id));
+        }
+        
+        Path serverWarmUp = root.resolve("server-warm-up");
+        visit(serverWarmUp, baseUrl, paths, headless);
+        FileUtils.deleteQuietly(serverWarmUp.toFile());
+        
+        long[] cold = visit(template, baseUrl, paths, headless);
+        coldStartMillis = cold[0];
+        Path probe = createClone();
+        long[] warm = visit(probe, baseUrl, paths, headless);
+        templateStartMillis = warm[0];
+        for (int i = 0; i < paths.size(); i++) {
+            firstNavigation.put(paths.get(i), new long[] {cold[i + 1], warm[i + 1]});
+        }
+        FileUtils.deleteQuietly(probe.toFile());
+    }
+    
+    /**
+     * Create a private copy of the template for one browser session
+     * @return Clone directory to pass as --user-data-dir
+     */
+    public Path createClone() {
+        return createClone(template);
+    }
+    
+    /**
+     * Create a private copy of a template next to it
+     * @param template Template user-data-dir
+     * @return Clone directory to pass as --user-data-dir
+     */
+    public static Path createClone(Path template) {
+        Path clone;
+        try {
+            clone = Files.createTempDirectory(template.getParent(), "clone-");
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create browser profile clone next to " + template + ": " + e.getMessage(), e);
+        }
+        try (Stream<Path> files = Files.walk(template)) {
+            for (Path source : (Iterable<Path>) files::iterator) {
+                Path relative = template.relativize(source);
+                Path target = clone.resolve(relative.toString());
+                if (Files.isDirectory(source)) {
+                    Files.createDirectories(target);
+                } else if (!LOCK_FILES.contains(source.getFileName().toString())) {
+                    Files.copy(source, target);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to clone browser profile to " + clone + ": " + e.getMessage(), e);
+        }
+        return clone;
+    }
+    
+    /**
+     * Delete the template and every clone
+     */
+    public void delete() {
+        FileUtils.deleteQuietly(root.toFile());
+    }
+    
+    /**
+     * Get template directory
+     * @return Template user-data-dir
+     */
+    public Path getTemplate() {
+        return template;
+    }
+    
+    /**
+     * Write first navigation times with a cold profile and with the template
+     * @param reportPath Destination CSV file
+     */
+    public void writeReport(String reportPath) {
+        new File(reportPath).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(reportPath)) {
+            writer.println("path,coldProfileMs,templateProfileMs,savedMs");
+            writer.printf(Locale.ROOT, "%s,%d,%d,%d%n", "(browser start)", coldStartMillis, templateStartMillis,
+                coldStartMillis - templateStartMillis);
+            for (Map.Entry<String, long[]> route : firstNavigation.entrySet()) {
+                long[] times = route.getValue();
+                writer.printf(Locale.ROOT, "%s,%d,%d,%d%n", route.getKey(), times[0], times[1], times[0] - times[1]);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write browser profile report: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get first navigation times by path
+     * @return Cold profile and template clone milliseconds per path
+     */
+    public Map<String, long[]> getFirstNavigation() {
+        return firstNavigation;
+    }
+    
+    /**
+     * Get browser start time
+     * @param fromTemplate true for the clone, false for the cold profile
+     * @return Milliseconds until the session was created
+     */
+    public long getStartMillis(boolean fromTemplate) {
+        return fromTemplate ? templateStartMillis : coldStartMillis;
+    }
+    
+    /**
+     * Get total first navigation time over all routes
+     * @param fromTemplate true for the clone, false for the cold profile
+     * @return Milliseconds
+     */
+    public long getTotalNavigationMillis(boolean fromTemplate) {
+        long total = 0;
+        for (long[] times : firstNavigation.values()) {
+            total += times[fromTemplate ? 1 : 0];
+        }
+        return total;
+    }
+    
+    /**
+     * Start Chrome on a profile and time its start and the first navigation to each path
+     * @param profile user-data-dir
+     * @param baseUrl App URL
+     * @param paths Paths to visit in order
+     * @param headless true to run without a window
+     * @return Start time followed by one navigation time per path, in milliseconds
+     */
+    private static long[] visit(Path profile, String baseUrl, List<String> paths, boolean headless) {
+        long[] times = new long[paths.size() + 1];
+        ChromeOptions options = DriverFactory.createChromeOptions(headless);
+        options.addArguments("--user-data-dir=" + profile);
+        long start = System.nanoTime();
+        WebDriver profileDriver = new ChromeDriver(options);
+        times[0] = (System.nanoTime() - start) / 1000000;
+        try {
+            for (int i = 0; i < paths.size(); i++) {
+                long navigationStart = System.nanoTime();
+                try {
+                    profileDriver.get(baseUrl + paths.get(i));
+                } catch (RuntimeException e) {
+                    System.err.println("Profile warm-up failed for " + paths.get(i) + ": " + e.getMessage());
+                }
+                times[i + 1] = (System.nanoTime() - navigationStart) / 1000000;
+            }
+        } finally {
+            // A clean shutdown writes the caches to disk
+            profileDriver.quit();
+        }
+        return times;
+    }
+}
@@ -0,0 +1,210 @@
+package com.cinemabook.base;
+
+import com.cinemabook.utils.ConfigReader;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.apache.commons.io.FileUtils;
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.Proxy;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.firefox.FirefoxDriver;
+import org.openqa.selenium.firefox.FirefoxOptions;
+import org.openqa.selenium.logging.LogType;
+import org.openqa.selenium.logging.LoggingPreferences;
+import org.openqa.selenium.remote.Augmenter;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Level;
+
+/**
+ * DriverFactory class creates WebDriver instances
+ * Shared by BaseTest and by load modes that run several browser sessions at once.
+ * With grid.enabled the sessions are created on a Selenium Grid instead
+ */
+public class DriverFactory {
+    
+    /**
+     * Create a browser session with a visible window
+     * @param browser Browser name (chrome, firefox)
+     * @return New WebDriver instance
+     */
+    public static WebDriver createDriver(String browser) {
+        return createDriver(browser, false);
+    }
+    
+    /**
+     * Create a browser session
+     * @param browser Browser name (chrome, firefox)
+     * @param headless true to run without a window
+     * @return New WebDriver instance
+     */
+    public static WebDriver createDriver(String browser, boolean headless) {
+        ConfigReader config = new ConfigReader();
+        if (config.isGridEnabled()) {
+            return createRemoteDriver(browser, headless);
+        }
+        switch (browser.toLowerCase()) {
+            case "chrome":
+                WebDriverManager.chromedriver().setup();
+                String profileTemplate = config.getProperty("browser.profile.template", "").trim();
+                if (!profileTemplate.isEmpty()) {
+                    return createChromeDriverFromTemplate(createChromeOptions(headless), Paths.get(profileTemplate));
+                }
+                return new ChromeDriver(createChromeOptions(headless));
+            
+            case "firefox":
+                WebDriverManager.firefoxdriver().setup();
+                return new FirefoxDriver(createFirefoxOptions(headless));
+            
+            default:
+                throw new IllegalArgumentException("Browser not supported: " + browser);
+        }
+    }
+    
+    /**
+     * Start Chrome on a private clone of the warmed profile template
+     * The clone is deleted when the session quits
+     * @param chromeOptions Options of the session
+     * @param template Template user-data-dir
+     * @return New WebDriver instance
+     */
+    private static WebDriver createChromeDriverFromTemplate(ChromeOptions chromeOptions, Path template) {
+        Path clone = BrowserProfileTemplate.createClone(template);
+        chromeOptions.addArguments("--user-data-dir=" + clone);
+        WebDriver chromeDriver;
+        try {
+            chromeDriver = new ChromeDriver(chromeOptions);
+        } catch (RuntimeException e) {
+            FileUtils.deleteQuietly(clone.toFile());
+            throw e;
+        }
+        return new EventFiringDecorator<>(new WebDriverListener() {
+            @Override
+            public void afterQuit(WebDriver driver) {
+                FileUtils.deleteQuietly(clone.toFile());
+            }
+        }).decorate(chromeDriver);
+    }
+    
+    /**
+     * Create a browser session on the Selenium Grid
+     * Waits for a free slot first, so callers never start more sessions than the grid
+     * advertises. The slot is handed back when the session quits
+     * @param browser Browser name (chrome, firefox)
+     * @param headless true to run without a window
+     * @return New WebDriver instance
+     */
+    private static WebDriver createRemoteDriver(String browser, boolean headless) {
+        Capabilities options;
+        switch (browser.toLowerCase()) {
+            case "chrome":
+                options = createChromeOptions(headless);
+                break;
+            
+            case "firefox":
+                options = createFirefoxOptions(headless);
+                break;
+            
+            default:
+                throw new IllegalArgumentException("Browser not supported: " + browser);
+        }
+        
+        long waitSeconds = new ConfigReader().getLongProperty("grid.session.wait.s", 600);
+        SeleniumGrid.acquireSession(browser, waitSeconds);
+        WebDriver remoteDriver;
+        try {
+            // Augmenting adds DevTools access, so CDP based collectors keep working remotely
+            remoteDriver = new Augmenter().augment(new RemoteWebDriver(SeleniumGrid.getUrl(), options));
+        } catch (RuntimeException e) {
+            SeleniumGrid.releaseSession(browser);
+            throw e;
+        }
+        
+        AtomicBoolean released = new AtomicBoolean();
+        return new EventFiringDecorator<>(new WebDriverListener() {
+            @Override
+            public void afterQuit(WebDriver driver) {
+                release();
+            }
+            
+            @Override
+            public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+                // A failed quit still ends the session on the grid side
+                if (method.getName().equals("quit")) {
+                    release();
+                }
+            }
+            
+            private void release() {
+                if (released.compareAndSet(false, true)) {
+                    SeleniumGrid.releaseSession(browser);
+                }
+            }
+        }).decorate(remoteDriver);
+    }
+    
+    /**
+     * Create the Chrome options used by every session
+     * @param headless true to run without a window
+     * @return Chrome options
+     */
+    public static ChromeOptions createChromeOptions(boolean headless) {
+        ChromeOptions chromeOptions = new ChromeOptions();
+        chromeOptions.addArguments("--disable-notifications");
+        chromeOptions.addArguments("--disable-popup-blocking");
+        chromeOptions.addArguments("--disable-extensions");
+        if (headless) {
+            chromeOptions.addArguments("--headless=new");
+            chromeOptions.addArguments("--window-size=1920,1080");
+        }
+        
+        // Keep console output available for failure bundles
+        LoggingPreferences loggingPreferences = new LoggingPreferences();
+        loggingPreferences.enable(LogType.BROWSER, Level.ALL);
+        chromeOptions.setCapability(ChromeOptions.LOGGING_PREFS, loggingPreferences);
+        
+        // Route plain HTTP through the shared asset cache, HTTPS stays direct since the proxy does not tunnel.
+        // Chrome skips proxies for loopback hosts unless told not to
+        String assetProxy = getAssetProxyAddress();
+        if (!assetProxy.isEmpty()) {
+            chromeOptions.addArguments("--proxy-server=http=" + assetProxy);
+            chromeOptions.addArguments("--proxy-bypass-list=<-loopback>");
+        }
+        return chromeOptions;
+    }
+    
+    /**
+     * Create the Firefox options used by every session
+     * @param headless true to run without a window
+     * @return Firefox options
+     */
+    public static FirefoxOptions createFirefoxOptions(boolean headless) {
+        FirefoxOptions firefoxOptions = new FirefoxOptions();
+        if (headless) {
+            firefoxOptions.addArguments("-headless");
+        }
+        
+        String assetProxy = getAssetProxyAddress();
+        if (!assetProxy.isEmpty()) {
+            firefoxOptions.setProxy(new Proxy().setHttpProxy(assetProxy));
+            firefoxOptions.addPreference("network.proxy.allow_hijacking_localhost", true);
+        }
+        return firefoxOptions;
+    }
+    
+    /**
+     * Get address of the asset cache proxy started for the run
+     * @return host:port, empty when sessions connect to the app directly
+     */
+    private static String getAssetProxyAddress() {
+        return new ConfigReader().getProperty("asset.proxy.address", "").trim();
+    }
+}
@@ -0,0 +1,175 @@
+package com.cinemabook.base;
+
+import com.cinemabook.utils.ConfigReader;
+import org.openqa.selenium.WebDriver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * FlowCheckpoint class runs a shared test prefix once and forks later tests from its end state
+ * The first test to reach a named checkpoint runs the prefix in its own session and its
+ * storage and path are captured as a StorageSnapshot. Every later test writes that state
+ * into its own session and either opens the path or, for pages that depend on React
+ * context the app keeps only in memory, replays the short client-side path that rebuilds it.
+ * With session.snapshot.enabled the snapshot is also saved under the checkpoint name, so
+ * later runs and other workers skip the prefix while the app build is unchanged.
+ * A fork that does not end on the checkpoint path runs the prefix and captures it again
+ */
+public class FlowCheckpoint {
+    
+    private static final Map<String, FlowCheckpoint> CHECKPOINTS = new ConcurrentHashMap<>();
+    
+    private final String name;
+    private final StorageSnapshot snapshot;
+    private final Rebuild rebuild;
+    private int forkCount;
+    private int fallbackCount;
+    private long restoreMillis;
+    
+    /**
+     * Steps that bring a session to the checkpoint the slow way
+     */
+    public interface Prefix {
+        void run() throws InterruptedException;
+    }
+    
+    /**
+     * Client-side steps that rebuild in-memory app state on top of the restored storage
+     * Must end on the checkpoint URL
+     */
+    public interface Rebuild {
+        void run(WebDriver driver, String url) throws InterruptedException;
+    }
+    
+    private FlowCheckpoint(String name, StorageSnapshot snapshot, Rebuild rebuild) {
+        this.name = name;
+        this.snapshot = snapshot;
+        this.rebuild = rebuild;
+    }
+    
+    /**
+     * Bring the session to a named checkpoint
+     * Runs and captures the prefix the first time, restores the captured state afterwards
+     * @param name Checkpoint name, shared by every test that needs the same prefix
+     * @param driver WebDriver instance of the calling test
+     * @param baseUrl App URL, opened before cookies and storage are written
+     * @param prefix Steps that reach the checkpoint from a new session
+     * @param rebuild Steps that rebuild in-memory state, or null when opening the URL is enough
+     * @return true if the session was forked from the checkpoint, false if the prefix ran
+     */
+    public static boolean fork(String name, WebDriver driver, String baseUrl, Prefix prefix, Rebuild rebuild)
+            throws InterruptedException {
+        ConfigReader config = new ConfigReader();
+        FlowCheckpoint checkpoint = CHECKPOINTS.get(name);
+        if (checkpoint == null && config.isStorageSnapshotEnabled()) {
+            StorageSnapshot stored = StorageSnapshot.loadNamed(name, config);
+            if (stored != null) {
+                CHECKPOINTS.putIfAbsent(name, new FlowCheckpoint(name, stored, rebuild));
+                checkpoint = CHECKPOINTS.get(name);
+            }
+        }
+        int fallbacks = 0;
+        if (checkpoint != null) {
+            if (checkpoint.restore(driver, baseUrl)) {
+                return true;
+            }
+            System.err.println("Flow checkpoint '" + name + "' did not restore to " + checkpoint.snapshot.getPath()
+                + ", running the prefix");
+            synchronized (checkpoint) {
+                fallbacks = checkpoint.fallbackCount;
+            }
+        }
+        long start = System.nanoTime();
+        prefix.run();
+        long prefixMillis = (System.nanoTime() - start) / 1000000;
+        try {
+            FlowCheckpoint captured = new FlowCheckpoint(name, StorageSnapshot.capture(driver, prefixMillis), rebuild);
+            captured.fallbackCount = fallbacks;
+            // A checkpoint that failed to restore is replaced, one that works is kept
+            if (checkpoint == null ? CHECKPOINTS.putIfAbsent(name, captured) == null
+                    : CHECKPOINTS.replace(name, checkpoint, captured)) {
+                if (config.isStorageSnapshotEnabled()) {
+                    StorageSnapshot.saveNamed(name, captured.snapshot, config);
+                }
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Failed to capture flow checkpoint '" + name + "': " + e.getMessage());
+        }
+        return false;
+    }
+    
+    /**
+     * Write the state into a session and bring it to the checkpoint URL
+     * @param driver WebDriver instance of the forked test
+     * @param baseUrl App URL
+     * @return true if the session ended on the checkpoint URL
+     */
+    private boolean restore(WebDriver driver, String baseUrl) throws InterruptedException {
+        long start = System.nanoTime();
+        String url = baseUrl + snapshot.getPath();
+        boolean restored;
+        try {
+            snapshot.restore(driver, baseUrl);
+            if (rebuild != null) {
+                rebuild.run(driver, url);
+            } else {
+                driver.get(url);
+            }
+            restored = samePage(driver.getCurrentUrl(), url);
+        } catch (RuntimeException e) {
+            System.err.println("Failed to restore flow checkpoint '" + name + "': " + e.getMessage());
+            restored = false;
+        }
+        synchronized (this) {
+            if (restored) {
+                forkCount++;
+                restoreMillis += (System.nanoTime() - start) / 1000000;
+            } else {
+                fallbackCount++;
+            }
+        }
+        return restored;
+    }
+    
+    /**
+     * Write prefix time, forks and the time they saved for every checkpoint of the run
+     * @param reportPath Destination CSV file
+     */
+    public static void writeSummary(String reportPath) {
+        if (CHECKPOINTS.isEmpty()) {
+            return;
+        }
+        new File(reportPath).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(reportPath)) {
+            writer.println("checkpoint,path,prefixMs,forks,fallbacks,meanRestoreMs,savedMs");
+            for (FlowCheckpoint checkpoint : CHECKPOINTS.values()) {
+                synchronized (checkpoint) {
+                    double meanRestore = checkpoint.forkCount == 0 ? 0 : (double) checkpoint.restoreMillis / checkpoint.forkCount;
+                    long prefixMillis = checkpoint.snapshot.getSetupMillis();
+                    writer.printf(Locale.ROOT, "%s,%s,%d,%d,%d,%.1f,%d%n", checkpoint.name, checkpoint.snapshot.getPath(),
+                        prefixMillis, checkpoint.forkCount, checkpoint.fallbackCount, meanRestore,
+                        checkpoint.forkCount * prefixMillis - checkpoint.restoreMillis);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write flow checkpoint summary: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Forget every checkpoint, e.g. when the suite ends
+     */
+    public static void clear() {
+        CHECKPOINTS.clear();
+    }
+    
+    private static boolean samePage(String current, String expected) {
+        return current != null && URI.create(current).getPath().equals(URI.create(expected).getPath());
+    }
+}
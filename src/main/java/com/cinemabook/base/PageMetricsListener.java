@@ -0,0 +1,112 @@
+package com.cinemabook.base;
+
+import com.cinemabook.performance.AppRoutes;
+import com.cinemabook.utils.ConfigReader;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PageMetricsListener class records the page metrics of every document a session loads
+ * Each app document is recorded once, right before the session leaves it (get, navigate,
+ * refresh, quit) or when the test ends, so page objects, direct driver.get calls and
+ * checkpoint restores are all covered and timed steps never pay for the collection.
+ * The route is resolved from the URL the document was loaded from, so soft navigations
+ * inside it do not change where its metrics are filed. Budget violations are kept per
+ * thread until BaseTest fails the test with them, since listener errors never reach the test
+ */
+public class PageMetricsListener implements WebDriverListener {
+    
+    // Marks the document as recorded and returns the URL it was loaded from
+    private static final String CLAIM_SCRIPT =
+        "if (window.__pageMetricsRecorded) { return null; }" +
+        "window.__pageMetricsRecorded = true;" +
+        "var entry = performance.getEntriesByType('navigation')[0];" +
+        "return entry ? entry.name : location.href;";
+    
+    private static final ThreadLocal<List<String>> VIOLATIONS = ThreadLocal.withInitial(ArrayList::new);
+    
+    private final WebDriver driver;
+    
+    private PageMetricsListener(WebDriver driver) {
+        this.driver = driver;
+    }
+    
+    /**
+     * Wrap a session so every app document it leaves is recorded
+     * @param driver WebDriver instance
+     * @return Decorated WebDriver instance to use instead
+     */
+    public static WebDriver decorate(WebDriver driver) {
+        return new EventFiringDecorator<>(new PageMetricsListener(driver)).decorate(driver);
+    }
+    
+    /**
+     * Record the document the session is on, unless it was recorded already
+     * @param driver WebDriver instance
+     */
+    public static void record(WebDriver driver) {
+        ConfigReader config = new ConfigReader();
+        try {
+            Object documentUrl = ((JavascriptExecutor) driver).executeScript(CLAIM_SCRIPT);
+            if (!(documentUrl instanceof String) || !((String) documentUrl).startsWith(config.getBaseUrl())) {
+                return;
+            }
+            new BasePage(driver).recordPageMetrics(AppRoutes.resolve((String) documentUrl));
+        } catch (AssertionError e) {
+            VIOLATIONS.get().add(e.getMessage());
+        } catch (RuntimeException e) {
+            System.err.println("Failed to record page metrics: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get and forget the budget violations recorded on the calling thread
+     * @return Violation messages, empty when every page was within budget
+     */
+    public static List<String> drainViolations() {
+        List<String> violations = new ArrayList<>(VIOLATIONS.get());
+        VIOLATIONS.remove();
+        return violations;
+    }
+    
+    @Override
+    public void beforeGet(WebDriver driver, String url) {
+        record(this.driver);
+    }
+    
+    @Override
+    public void beforeTo(WebDriver.Navigation navigation, String url) {
+        record(driver);
+    }
+    
+    @Override
+    public void beforeTo(WebDriver.Navigation navigation, URL url) {
+        record(driver);
+    }
+    
+    @Override
+    public void beforeBack(WebDriver.Navigation navigation) {
+        record(driver);
+    }
+    
+    @Override
+    public void beforeForward(WebDriver.Navigation navigation) {
+        record(driver);
+    }
+    
+    @Override
+    public void beforeRefresh(WebDriver.Navigation navigation) {
+        record(driver);
+    }
+    
+    @Override
+    public void beforeQuit(WebDriver driver) {
+        record(this.driver);
+    }
+}
@@ -0,0 +1,36 @@
+package com.cinemabook.base;
+
+import com.cinemabook.utils.ConfigReader;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ResultCacheInterceptor class leaves out test methods whose inputs match a stored pass
+ * Active with result.cache.enabled unless result.cache.force is set. The methods left
+ * out are reported as cached passes by BaseTest. Registered in testng.xml
+ */
+public class ResultCacheInterceptor implements IMethodInterceptor {
+    
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        ConfigReader config = new ConfigReader();
+        if (!TestResultCache.isLookupEnabled(config)) {
+            return methods;
+        }
+        List<IMethodInstance> toRun = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            Map<String, Object> pass = TestResultCache.lookup(instance.getMethod(), config);
+            if (pass == null) {
+                toRun.add(instance);
+            }
+        }
+        System.out.println("Result cache, " + context.getName() + ": " + (methods.size() - toRun.size()) + " of "
+            + methods.size() + " methods are cached passes");
+        return toRun;
+    }
+}
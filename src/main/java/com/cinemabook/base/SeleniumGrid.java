@@ -0,0 +1,191 @@
+package com.cinemabook.base;
+
+import com.cinemabook.utils.ConfigReader;
+import io.github.bonigarcia.wdm.WebDriverManager;
+import org.openqa.selenium.SessionNotCreatedException;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.MalformedURLException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SeleniumGrid class connects the suite to a Selenium Grid and meters sessions on it
+ * Uses the hub at grid.url or, with grid.embedded, starts a standalone grid in this
+ * JVM. The grid's advertised slots per browser size a fair semaphore, so callers
+ * asking for more sessions than there are slots wait in line instead of failing
+ */
+public class SeleniumGrid {
+    
+    private static final Map<String, Semaphore> SESSIONS = new ConcurrentHashMap<>();
+    private static URL gridUrl;
+    private static Map<String, Integer> slots;
+    
+    /**
+     * Get the grid endpoint, starting the embedded grid on first use if configured
+     * @return Grid URL
+     */
+    public static synchronized URL getUrl() {
+        if (gridUrl == null) {
+            ConfigReader config = new ConfigReader();
+            String url = config.getBooleanProperty("grid.embedded", false) ? startEmbedded(config) : config.getGridUrl();
+            try {
+                gridUrl = new URL(url);
+            } catch (MalformedURLException e) {
+                throw new RuntimeException("Invalid grid.url: " + url, e);
+            }
+            slots = readSlots(gridUrl, config.getLongProperty("grid.ready.timeout.s", 60));
+            System.out.println("Selenium Grid at " + gridUrl + ", slots " + slots);
+        }
+        return gridUrl;
+    }
+    
+    /**
+     * Get number of sessions the grid can run at once for a browser
+     * @param browser Browser name (chrome, firefox)
+     * @return Advertised slots
+     */
+    public static synchronized int getSlots(String browser) {
+        getUrl();
+        return slots.getOrDefault(browser.toLowerCase(Locale.ROOT), 0);
+    }
+    
+    /**
+     * Wait for a free slot of a browser
+     * @param browser Browser name
+     * @param timeoutSeconds Longest time to wait in line
+     */
+    static void acquireSession(String browser, long timeoutSeconds) {
+        int available = getSlots(browser);
+        if (available == 0) {
+            throw new SessionNotCreatedException("Selenium Grid at " + gridUrl + " has no " + browser + " slots");
+        }
+        Semaphore permits = SESSIONS.computeIfAbsent(browser.toLowerCase(Locale.ROOT), key -> new Semaphore(available, true));
+        try {
+            if (!permits.tryAcquire(timeoutSeconds, TimeUnit.SECONDS)) {
+                throw new SessionNotCreatedException("No free " + browser + " slot on the grid after " + timeoutSeconds + " s");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SessionNotCreatedException("Interrupted while waiting for a " + browser + " slot");
+        }
+    }
+    
+    /**
+     * Hand a slot back after the session ended
+     * @param browser Browser name
+     */
+    static void releaseSession(String browser) {
+        Semaphore permits = SESSIONS.get(browser.toLowerCase(Locale.ROOT));
+        if (permits != null) {
+            permits.release();
+        }
+    }
+    
+    /**
+     * Start a standalone grid in this JVM on a free port
+     * Needs the selenium-grid dependency of the grid Maven profile
+     * @param config Configuration
+     * @return Grid URL
+     */
+    private static String startEmbedded(ConfigReader config) {
+        // The node finds drivers through the webdriver.*.driver properties WebDriverManager sets
+        String browser = config.getBrowser().toLowerCase(Locale.ROOT);
+        if (browser.equals("firefox")) {
+            if (System.getProperty("webdriver.gecko.driver") == null) {
+                WebDriverManager.firefoxdriver().setup();
+            }
+        } else if (System.getProperty("webdriver.chrome.driver") == null) {
+            WebDriverManager.chromedriver().setup();
+        }
+        
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        } catch (IOException e) {
+            throw new RuntimeException("No free port for the embedded grid: " + e.getMessage(), e);
+        }
+        List<String> args = new ArrayList<>(List.of("standalone", "--port", String.valueOf(port), "--host", "localhost",
+            "--session-request-timeout", String.valueOf(config.getLongProperty("grid.session.wait.s", 600))));
+        long maxSessions = config.getLongProperty("grid.max.sessions", 0);
+        if (maxSessions > 0) {
+            args.addAll(List.of("--max-sessions", String.valueOf(maxSessions), "--override-max-sessions", "true"));
+        }
+        try {
+            Class.forName("org.openqa.selenium.grid.Main").getMethod("main", String[].class)
+                .invoke(null, (Object) args.toArray(new String[0]));
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException("grid.embedded needs selenium-grid on the classpath, run with -Pgrid");
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException("Failed to start the embedded grid: " + e.getCause().getMessage(), e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new RuntimeException("Failed to start the embedded grid: " + e.getMessage(), e);
+        }
+        return "http://localhost:" + port;
+    }
+    
+    /**
+     * Wait until the grid is ready and count its slots per browser
+     * @param url Grid URL
+     * @param timeoutSeconds Time to wait for the grid to report ready
+     * @return Slots by lower case browser name
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Integer> readSlots(URL url, long timeoutSeconds) {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        URI statusUri = URI.create(url.toString().replaceAll("/+$", "") + "/status");
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        String lastProblem;
+        do {
+            try {
+                HttpResponse<String> response = client.send(HttpRequest.newBuilder(statusUri).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+                Map<String, Object> status = new Json().toType(response.body(), Json.MAP_TYPE);
+                Map<String, Object> value = (Map<String, Object>) status.get("value");
+                if (Boolean.TRUE.equals(value.get("ready"))) {
+                    Map<String, Integer> counted = new HashMap<>();
+                    for (Map<String, Object> node : (List<Map<String, Object>>) value.getOrDefault("nodes", List.of())) {
+                        if (!"UP".equals(node.get("availability"))) {
+                            continue;
+                        }
+                        for (Map<String, Object> slot : (List<Map<String, Object>>) node.get("slots")) {
+                            Object browserName = ((Map<String, Object>) slot.get("stereotype")).get("browserName");
+                            if (browserName != null) {
+                                counted.merge(browserName.toString().toLowerCase(Locale.ROOT), 1, Integer::sum);
+                            }
+                        }
+                    }
+                    return counted;
+                }
+                lastProblem = String.valueOf(value.get("message"));
+            } catch (IOException | RuntimeException e) {
+                lastProblem = e.getMessage();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for Selenium Grid", e);
+            }
+            try {
+                Thread.sleep(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while waiting for Selenium Grid", e);
+            }
+        } while (System.nanoTime() < deadline);
+        throw new RuntimeException("Selenium Grid at " + url + " not ready after " + timeoutSeconds + " s: " + lastProblem);
+    }
+}
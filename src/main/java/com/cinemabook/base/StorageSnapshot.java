@@ -0,0 +1,288 @@
+package com.cinemabook.base;
+
+import com.cinemabook.utils.ConfigReader;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * StorageSnapshot class holds the origin storage of a browser session: cookies,
+ * localStorage, sessionStorage and the path the session was on
+ * Snapshots are written as gzipped JSON tagged with the app build fingerprint, so a named
+ * snapshot (logged-in, a flow checkpoint, ...) taken by one run can be restored by later
+ * runs and other workers until the app changes. A restore writes everything with a single
+ * script call once the browser is on the app origin
+ */
+public class StorageSnapshot {
+    
+    private static final int FORMAT = 1;
+    
+    private static final String CAPTURE_SCRIPT =
+        "function read(storage) {" +
+        "  var entries = {};" +
+        "  for (var i = 0; i < storage.length; i++) { entries[storage.key(i)] = storage.getItem(storage.key(i)); }" +
+        "  return entries;" +
+        "}" +
+        "return { path: location.pathname + location.search + location.hash," +
+        "  localStorage: read(localStorage), sessionStorage: read(sessionStorage) };";
+    
+    private static final String RESTORE_SCRIPT =
+        "var state = arguments[0];" +
+        "function write(storage, entries) {" +
+        "  storage.clear();" +
+        "  for (var key in entries) { storage.setItem(key, entries[key]); }" +
+        "}" +
+        "write(localStorage, state.localStorage);" +
+        "write(sessionStorage, state.sessionStorage);" +
+        "for (var i = 0; i < state.cookies.length; i++) { document.cookie = state.cookies[i]; }";
+    
+    private final String path;
+    private final List<Map<String, Object>> cookies;
+    private final Map<String, String> localStorage;
+    private final Map<String, String> sessionStorage;
+    private final long setupMillis;
+    private final long createdAt;
+    private final String appBuild;
+    
+    private StorageSnapshot(String path, List<Map<String, Object>> cookies, Map<String, String> localStorage,
+            Map<String, String> sessionStorage, long setupMillis, long createdAt, String appBuild) {
+        this.path = path;
+        this.cookies = cookies;
+        this.localStorage = localStorage;
+        this.sessionStorage = sessionStorage;
+        this.setupMillis = setupMillis;
+        this.createdAt = createdAt;
+        this.appBuild = appBuild;
+    }
+    
+    /**
+     * Capture the storage of the origin the session is on
+     * @param driver WebDriver instance on a page of the app
+     * @param setupMillis Time it took to reach this state, kept to report what a restore saves
+     * @return Snapshot
+     */
+    @SuppressWarnings("unchecked")
+    public static StorageSnapshot capture(WebDriver driver, long setupMillis) {
+        Map<String, Object> state = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+        List<Map<String, Object>> cookies = new ArrayList<>();
+        for (Cookie cookie : driver.manage().getCookies()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", cookie.getName());
+            entry.put("value", cookie.getValue());
+            entry.put("path", cookie.getPath());
+            entry.put("secure", cookie.isSecure());
+            entry.put("httpOnly", cookie.isHttpOnly());
+            entry.put("sameSite", cookie.getSameSite());
+            entry.put("expiry", cookie.getExpiry() == null ? null : cookie.getExpiry().getTime());
+            cookies.add(entry);
+        }
+        return new StorageSnapshot((String) state.get("path"), cookies,
+            toStrings((Map<String, Object>) state.get("localStorage")),
+            toStrings((Map<String, Object>) state.get("sessionStorage")), setupMillis, System.currentTimeMillis(), null);
+    }
+    
+    /**
+     * Write the snapshot into a session, replacing its storage for the app origin
+     * The browser is left on the origin; open getPath() or rebuild in-memory state afterwards
+     * @param driver WebDriver instance, e.g. a fresh one
+     * @param baseUrl App URL, opened first unless the session is already on it
+     */
+    public void restore(WebDriver driver, String baseUrl) {
+        String currentUrl = driver.getCurrentUrl();
+        if (currentUrl == null || !currentUrl.startsWith(baseUrl)) {
+            // Storage can only be written for the origin the browser is on
+            driver.get(baseUrl);
+        }
+        List<String> scriptCookies = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (Map<String, Object> cookie : cookies) {
+            Number expiry = (Number) cookie.get("expiry");
+            if (expiry != null && expiry.longValue() <= now) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(cookie.get("httpOnly"))) {
+                // Scripts cannot set HttpOnly cookies
+                driver.manage().addCookie(new Cookie.Builder((String) cookie.get("name"), (String) cookie.get("value"))
+                    .path((String) cookie.get("path")).isSecure(Boolean.TRUE.equals(cookie.get("secure")))
+                    .isHttpOnly(true).sameSite((String) cookie.get("sameSite"))
+                    .expiresOn(expiry == null ? null : new Date(expiry.longValue())).build());
+            } else {
+                scriptCookies.add(toCookieString(cookie, expiry, now));
+            }
+        }
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("localStorage", localStorage);
+        state.put("sessionStorage", sessionStorage);
+        state.put("cookies", scriptCookies);
+        ((JavascriptExecutor) driver).executeScript(RESTORE_SCRIPT, state);
+    }
+    
+    /**
+     * Write the snapshot to a file
+     * @param file Destination, replaced atomically so concurrent readers never see half a snapshot
+     * @param build App build fingerprint to tag the snapshot with
+     */
+    public void save(Path file, String build) {
+        Map<String, Object> tree = new LinkedHashMap<>();
+        tree.put("format", FORMAT);
+        tree.put("appBuild", build);
+        tree.put("createdAt", createdAt);
+        tree.put("setupMillis", setupMillis);
+        tree.put("path", path);
+        tree.put("cookies", cookies);
+        tree.put("localStorage", localStorage);
+        tree.put("sessionStorage", sessionStorage);
+        try {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+            Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(), ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temporary))) {
+                out.write(new Json().toJson(tree).getBytes(StandardCharsets.UTF_8));
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Failed to save storage snapshot " + file + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Read a snapshot file
+     * @param file Snapshot file
+     * @return Snapshot, or null when the file is missing, unreadable or of another format
+     */
+    @SuppressWarnings("unchecked")
+    public static StorageSnapshot load(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            Map<String, Object> tree = new Json().toType(new String(in.readAllBytes(), StandardCharsets.UTF_8),
+                Json.MAP_TYPE);
+            if (((Number) tree.get("format")).intValue() != FORMAT) {
+                return null;
+            }
+            return new StorageSnapshot((String) tree.get("path"), (List<Map<String, Object>>) tree.get("cookies"),
+                toStrings((Map<String, Object>) tree.get("localStorage")),
+                toStrings((Map<String, Object>) tree.get("sessionStorage")),
+                ((Number) tree.get("setupMillis")).longValue(), ((Number) tree.get("createdAt")).longValue(),
+                (String) tree.get("appBuild"));
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to read storage snapshot " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Save a snapshot under a name in session.snapshot.dir, tagged with the current app build
+     * @param name Snapshot name, e.g. logged-in
+     * @param snapshot Snapshot
+     * @param config Configuration
+     */
+    public static void saveNamed(String name, StorageSnapshot snapshot, ConfigReader config) {
+        snapshot.save(getFile(name, config), TestResultCache.getAppFingerprint(config));
+    }
+    
+    /**
+     * Load a named snapshot if it was taken on the app build under test
+     * @param name Snapshot name
+     * @param config Configuration
+     * @return Snapshot, or null when there is none or the app changed since it was taken
+     */
+    public static StorageSnapshot loadNamed(String name, ConfigReader config) {
+        Path file = getFile(name, config);
+        StorageSnapshot snapshot = load(file);
+        if (snapshot == null) {
+            return null;
+        }
+        if (!TestResultCache.getAppFingerprint(config).equals(snapshot.appBuild)) {
+            System.out.println("Storage snapshot '" + name + "' was taken on another app build, ignoring it");
+            return null;
+        }
+        return snapshot;
+    }
+    
+    /**
+     * Get path the session was on
+     * @return Path with query and fragment, relative to the app origin
+     */
+    public String getPath() {
+        return path;
+    }
+    
+    /**
+     * Get time it took to reach the captured state
+     * @return Milliseconds
+     */
+    public long getSetupMillis() {
+        return setupMillis;
+    }
+    
+    /**
+     * Open a browser with a named snapshot restored, to look at that state by hand
+     * Usage: mvn -Psession-snapshot test-compile exec:java -Dsession.snapshot.name=logged-in
+     * @param args Snapshot name, overrides session.snapshot.name
+     */
+    public static void main(String[] args) throws IOException {
+        ConfigReader config = new ConfigReader();
+        String name = args.length > 0 ? args[0] : config.getProperty("session.snapshot.name", "logged-in");
+        StorageSnapshot snapshot = loadNamed(name, config);
+        if (snapshot == null) {
+            throw new RuntimeException("No storage snapshot '" + name + "' for the current app build in "
+                + getFile(name, config).getParent());
+        }
+        WebDriver driver = DriverFactory.createDriver(config.getBrowser(), false);
+        try {
+            snapshot.restore(driver, config.getBaseUrl());
+            driver.get(config.getBaseUrl() + snapshot.getPath());
+            System.out.println("Restored '" + name + "' at " + driver.getCurrentUrl() + ", press Enter to close the browser");
+            System.in.read();
+        } finally {
+            driver.quit();
+        }
+    }
+    
+    private static Path getFile(String name, ConfigReader config) {
+        return Paths.get(config.getProperty("session.snapshot.dir", ".session-snapshots"), name + ".json.gz");
+    }
+    
+    private static String toCookieString(Map<String, Object> cookie, Number expiry, long now) {
+        StringBuilder value = new StringBuilder(cookie.get("name") + "=" + cookie.get("value"));
+        value.append("; path=").append(cookie.get("path") == null ? "/" : cookie.get("path"));
+        if (expiry != null) {
+            value.append("; max-age=").append((expiry.longValue() - now) / 1000);
+        }
+        if (cookie.get("sameSite") != null) {
+            value.append("; samesite=").append(cookie.get("sameSite"));
+        }
+        if (Boolean.TRUE.equals(cookie.get("secure"))) {
+            value.append("; secure");
+        }
+        return value.toString();
+    }
+    
+    private static Map<String, String> toStrings(Map<String, Object> entries) {
+        Map<String, String> strings = new LinkedHashMap<>();
+        if (entries != null) {
+            for (Map.Entry<String, Object> entry : entries.entrySet()) {
+                strings.put(entry.getKey(), String.valueOf(entry.getValue()));
+            }
+        }
+        return strings;
+    }
+}
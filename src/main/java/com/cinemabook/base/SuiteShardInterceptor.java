@@ -0,0 +1,73 @@
+package com.cinemabook.base;
+
+import com.cinemabook.utils.ConfigReader;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+import org.testng.ITestNGMethod;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SuiteShardInterceptor class runs one shard of a suite in this JVM
+ * With suite.shard=index/count the suite's test classes (suite.shard.by=class) or
+ * test methods (suite.shard.by=method) are dealt round-robin over count workers
+ * and only the share of worker index runs. Without suite.shard every method runs.
+ * Register with -listener com.cinemabook.base.SuiteShardInterceptor
+ */
+public class SuiteShardInterceptor implements IMethodInterceptor {
+    
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        ConfigReader config = new ConfigReader();
+        String shard = config.getProperty("suite.shard", "").trim();
+        if (shard.isEmpty()) {
+            return methods;
+        }
+        String[] parts = shard.split("/");
+        int index;
+        int count;
+        try {
+            index = Integer.parseInt(parts[0].trim());
+            count = Integer.parseInt(parts[1].trim());
+        } catch (ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            throw new RuntimeException("Invalid suite.shard, expected index/count: " + shard);
+        }
+        if (count < 1 || index < 0 || index >= count) {
+            throw new RuntimeException("Invalid suite.shard, index must be below count: " + shard);
+        }
+        boolean byClass = !"method".equalsIgnoreCase(config.getProperty("suite.shard.by", "class"));
+        
+        // Every worker sorts the same keys, so the shards split the suite without overlap
+        List<String> keys = new ArrayList<>();
+        for (ITestNGMethod method : context.getSuite().getAllMethods()) {
+            String key = toKey(method, byClass);
+            if (!keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        Collections.sort(keys);
+        
+        List<IMethodInstance> shardMethods = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            int position = keys.indexOf(toKey(instance.getMethod(), byClass));
+            // Methods missing from the suite list run on the first worker only
+            if (position < 0 ? index == 0 : position % count == index) {
+                shardMethods.add(instance);
+            }
+        }
+        return shardMethods;
+    }
+    
+    /**
+     * Get the key a method is sharded by
+     * @param method Test method
+     * @param byClass true to keep the methods of a class together
+     * @return Class name or qualified method name
+     */
+    private static String toKey(ITestNGMethod method, boolean byClass) {
+        return byClass ? method.getRealClass().getName() : method.getQualifiedName();
+    }
+}
@@ -0,0 +1,169 @@
+package com.cinemabook.base;
+
+import com.cinemabook.utils.ConfigReader;
+import org.testng.IMethodInstance;
+import org.testng.IMethodInterceptor;
+import org.testng.ITestContext;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * TestImpactInterceptor class runs only the test methods affected by the current change
+ * With impact.select the changed app sources (git diff against the commit the map was
+ * recorded on, or impact.diff.base when set, plus untracked files, or the list in
+ * impact.changed.files) are looked up in the map
+ * recorded with impact.record. A missing or stale map, a change to a global file or
+ * a file coverage cannot trace runs the whole suite. Without impact.select every
+ * method runs. Registered in testng.xml
+ */
+public class TestImpactInterceptor implements IMethodInterceptor {
+    
+    private static final String REPORT = "test-output/reports/test-impact-selection.csv";
+    private static final Map<String, String> DECISIONS = new LinkedHashMap<>();
+    private static boolean analysed;
+    private static TestImpactMap impactMap;
+    private static Set<String> changedFiles;
+    private static String fallbackReason;
+    
+    @Override
+    public List<IMethodInstance> intercept(List<IMethodInstance> methods, ITestContext context) {
+        ConfigReader config = new ConfigReader();
+        if (!config.getBooleanProperty("impact.select", false)) {
+            return methods;
+        }
+        List<String> testNames = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            testNames.add(instance.getMethod().getQualifiedName());
+        }
+        TestImpactMap.Selection testSelection = getSelection(config, testNames);
+        
+        List<IMethodInstance> selected = new ArrayList<>();
+        for (IMethodInstance instance : methods) {
+            String test = instance.getMethod().getQualifiedName();
+            if (testSelection.isSelected(test)) {
+                selected.add(instance);
+            }
+            DECISIONS.put(test, testSelection.isSelected(test) ? testSelection.getReason(test) : "");
+        }
+        System.out.println("Test impact analysis, " + context.getName() + ": " + selected.size() + " of " + methods.size()
+            + " methods selected" + (testSelection.isFullSuite() ? ", all because "
+            + testSelection.getFallbackReason() : ""));
+        writeReport();
+        return selected;
+    }
+    
+    /**
+     * Select the affected methods of one test tag
+     * The map, its freshness and the changed files are checked once per run
+     * @param config Configuration
+     * @param testNames Qualified names of the methods to choose from
+     * @return Selection
+     */
+    private static synchronized TestImpactMap.Selection getSelection(ConfigReader config, List<String> testNames) {
+        if (!analysed) {
+            analyse(config);
+            analysed = true;
+        }
+        if (fallbackReason != null) {
+            return new TestImpactMap.Selection(fallbackReason);
+        }
+        return impactMap.select(testNames, changedFiles, split(config.getProperty("impact.global.paths", "")));
+    }
+    
+    /**
+     * Load the impact map and the changed files, or find why the whole suite has to run
+     * @param config Configuration
+     */
+    private static void analyse(ConfigReader config) {
+        String mapFile = config.getProperty("impact.map.file", "test-output/test-impact-map.json");
+        impactMap = TestImpactMap.load(Paths.get(mapFile));
+        if (impactMap == null) {
+            fallbackReason = "no impact map at " + mapFile + ", record one with impact.record=true";
+            return;
+        }
+        fallbackReason = impactMap.getStaleReason(config.getLongProperty("impact.max.age.days", 14),
+            (int) config.getLongProperty("impact.max.commits", 50));
+        if (fallbackReason != null) {
+            return;
+        }
+        changedFiles = getChangedFiles(config);
+        if (changedFiles == null) {
+            fallbackReason = "git could not list the changed files";
+            return;
+        }
+        System.out.println("Test impact analysis: changed app sources " + changedFiles);
+    }
+    
+    /**
+     * List changed app sources
+     * @param config Configuration
+     * @return Changed files under impact.paths and impact.global.paths, or null when git fails
+     */
+    private static Set<String> getChangedFiles(ConfigReader config) {
+        List<String> files = new ArrayList<>();
+        String explicit = config.getProperty("impact.changed.files", "").trim();
+        if (!explicit.isEmpty()) {
+            files.addAll(split(explicit));
+        } else {
+            // Everything committed since the recording counts too, not only uncommitted work
+            String base = config.getProperty("impact.diff.base", "").trim();
+            List<String> diff = TestImpactMap.git("diff", "--name-only", base.isEmpty() ? impactMap.getCommit() : base);
+            List<String> untracked = TestImpactMap.git("ls-files", "--others", "--exclude-standard");
+            if (diff == null || untracked == null) {
+                return null;
+            }
+            files.addAll(diff);
+            files.addAll(untracked);
+        }
+        
+        List<String> watched = split(config.getProperty("impact.paths", "app/,components/,contexts/,data/"));
+        watched.addAll(split(config.getProperty("impact.global.paths", "")));
+        Set<String> changed = new LinkedHashSet<>();
+        for (String file : files) {
+            String path = file.trim().replace('\\', '/');
+            for (String prefix : watched) {
+                if (path.equals(prefix) || path.startsWith(prefix.endsWith("/") ? prefix : prefix + "/")) {
+                    changed.add(path);
+                    break;
+                }
+            }
+        }
+        return changed;
+    }
+    
+    /**
+     * Write the decision for every method seen so far
+     */
+    private static synchronized void writeReport() {
+        new File(REPORT).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(REPORT)) {
+            writer.println("test,selected,reason");
+            for (Map.Entry<String, String> decision : DECISIONS.entrySet()) {
+                writer.println(decision.getKey() + "," + !decision.getValue().isEmpty() + ","
+                    + decision.getValue().replace(",", ";"));
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write test impact selection: " + e.getMessage());
+        }
+    }
+    
+    private static List<String> split(String values) {
+        List<String> parts = new ArrayList<>();
+        for (String value : Arrays.asList(values.split(","))) {
+            if (!value.trim().isEmpty()) {
+                parts.add(value.trim());
+            }
+        }
+        return parts;
+    }
+}
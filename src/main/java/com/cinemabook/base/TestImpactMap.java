@@ -0,0 +1,390 @@
+package com.cinemabook.base;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * TestImpactMap class records which routes and app modules each test touches
+ * Routes come from the pages coverage was taken on, modules from the scripts that
+ * ran: dev builds evaluate every module as a webpack-internal script named after
+ * its source file, production builds still name the page chunk of each route.
+ * The map is saved with the commit it was recorded on and decides, for a list of
+ * changed source files, which test methods have to run again
+ */
+public class TestImpactMap {
+    
+    private static final int FORMAT_VERSION = 1;
+    private static final List<String> SCRIPT_EXTENSIONS = Arrays.asList("ts", "tsx", "js", "jsx", "mjs");
+    private static final List<String> SEGMENT_FILES = Arrays.asList("layout", "template", "loading", "error", "not-found");
+    private static final Pattern WEBPACK_MODULE = Pattern.compile("^webpack-internal:///(?:\\([^)]*\\)/)?\\./([^?]+)");
+    private static final Pattern PAGE_CHUNK =
+        Pattern.compile("^/_next/static/chunks/(app/(?:.+/)?)(page|layout)-[^/]*\\.js$");
+    
+    private final Map<String, Entry> tests = new TreeMap<>();
+    private String commit;
+    private long recordedAt;
+    
+    /**
+     * Entry class holds what one test method touched
+     */
+    private static class Entry {
+        private final Set<String> routes = new TreeSet<>();
+        private final Set<String> modules = new TreeSet<>();
+    }
+    
+    /**
+     * Selection class holds the outcome of an impact analysis
+     */
+    public static class Selection {
+        private final String fallbackReason;
+        private final Map<String, String> reasons = new LinkedHashMap<>();
+        
+        Selection(String fallbackReason) {
+            this.fallbackReason = fallbackReason;
+        }
+        
+        /**
+         * Check if the whole suite has to run
+         * @return true when the map or the diff cannot be trusted
+         */
+        public boolean isFullSuite() {
+            return fallbackReason != null;
+        }
+        
+        /**
+         * Get why the whole suite runs
+         * @return Reason, or null for a selective run
+         */
+        public String getFallbackReason() {
+            return fallbackReason;
+        }
+        
+        /**
+         * Check if a test method has to run
+         * @param test Qualified test method name
+         * @return true if it is affected by the change or the whole suite runs
+         */
+        public boolean isSelected(String test) {
+            return isFullSuite() || reasons.containsKey(test);
+        }
+        
+        /**
+         * Get why a test method was selected
+         * @param test Qualified test method name
+         * @return Reason, or null when the test is not affected
+         */
+        public String getReason(String test) {
+            return isFullSuite() ? fallbackReason : reasons.get(test);
+        }
+    }
+    
+    /**
+     * Add what a test method touched, merging repeated invocations of the method
+     * @param test Qualified test method name
+     * @param routes Route patterns the test visited
+     * @param scriptUrls URLs of the scripts that ran
+     */
+    public synchronized void record(String test, Collection<String> routes, Collection<String> scriptUrls) {
+        Entry entry = tests.computeIfAbsent(test, key -> new Entry());
+        entry.routes.addAll(routes);
+        for (String url : scriptUrls) {
+            String module = toModule(url);
+            if (module != null) {
+                entry.modules.add(module);
+            }
+        }
+    }
+    
+    /**
+     * Save the map together with the commit it describes
+     * @param file Destination JSON file
+     */
+    public synchronized void save(Path file) {
+        Map<String, Object> tree = new LinkedHashMap<>();
+        tree.put("version", FORMAT_VERSION);
+        tree.put("commit", currentCommit());
+        tree.put("recordedAt", System.currentTimeMillis());
+        Map<String, Object> testTree = new TreeMap<>();
+        for (Map.Entry<String, Entry> test : tests.entrySet()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("routes", test.getValue().routes);
+            entry.put("modules", test.getValue().modules);
+            testTree.put(test.getKey(), entry);
+        }
+        tree.put("tests", testTree);
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, new Json().toJson(tree).getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            System.err.println("Failed to save test impact map: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Load a saved map
+     * @param file JSON file written by save
+     * @return Map, or null when the file is missing, unreadable or of another format version
+     */
+    @SuppressWarnings("unchecked")
+    public static TestImpactMap load(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try {
+            Map<String, Object> tree = new Json().toType(new String(Files.readAllBytes(file), StandardCharsets.UTF_8),
+                Json.MAP_TYPE);
+            if (!(tree.get("version") instanceof Number) || ((Number) tree.get("version")).intValue() != FORMAT_VERSION) {
+                return null;
+            }
+            TestImpactMap map = new TestImpactMap();
+            map.commit = (String) tree.get("commit");
+            map.recordedAt = ((Number) tree.get("recordedAt")).longValue();
+            for (Map.Entry<String, Object> test : ((Map<String, Object>) tree.get("tests")).entrySet()) {
+                Map<String, Object> values = (Map<String, Object>) test.getValue();
+                Entry entry = new Entry();
+                entry.routes.addAll((Collection<String>) values.get("routes"));
+                entry.modules.addAll((Collection<String>) values.get("modules"));
+                map.tests.put(test.getKey(), entry);
+            }
+            return map;
+        } catch (IOException | JsonException | ClassCastException | NullPointerException e) {
+            System.err.println("Ignoring unreadable test impact map " + file + ": " + e.getMessage());
+            return null;
+        }
+    }
+    
+    /**
+     * Get commit the map was recorded on
+     * @return Commit id, or null when git was not available at recording time
+     */
+    public String getCommit() {
+        return commit;
+    }
+    
+    /**
+     * Check if the map still describes the code closely enough to select tests from it
+     * @param maxAgeDays Oldest map accepted
+     * @param maxCommits Most commits accepted between the recording and HEAD
+     * @return Reason the map is stale, or null when it can be used
+     */
+    public String getStaleReason(long maxAgeDays, int maxCommits) {
+        if (tests.isEmpty()) {
+            return "the impact map holds no tests";
+        }
+        long ageMillis = System.currentTimeMillis() - recordedAt;
+        if (ageMillis > TimeUnit.DAYS.toMillis(maxAgeDays)) {
+            return "the impact map is " + TimeUnit.MILLISECONDS.toDays(ageMillis) + " days old";
+        }
+        if (commit == null) {
+            return "the impact map was recorded outside a git checkout";
+        }
+        // Diffs against HEAD only cover what the map missed if the recording is part of HEAD's history
+        if (git("merge-base", "--is-ancestor", commit, "HEAD") == null) {
+            return "the impact map was recorded on " + commit + ", which is not an ancestor of HEAD";
+        }
+        List<String> count = git("rev-list", "--count", commit + "..HEAD");
+        if (count == null || count.isEmpty() || Integer.parseInt(count.get(0).trim()) > maxCommits) {
+            return "more than " + maxCommits + " commits since the impact map was recorded";
+        }
+        return null;
+    }
+    
+    /**
+     * Select the test methods affected by changed files
+     * Tests the map knows nothing about, or recorded without any route or module,
+     * always run; changed files that cannot be traced to modules run the whole suite
+     * @param testNames Qualified names of the test methods to choose from
+     * @param changedFiles Changed files relative to the repository root, already limited to app sources
+     * @param globalFiles Files or directories whose change affects every test
+     * @return Selection
+     */
+    public Selection select(Collection<String> testNames, Collection<String> changedFiles, Collection<String> globalFiles) {
+        for (String file : changedFiles) {
+            for (String global : globalFiles) {
+                if (file.equals(global) || (global.endsWith("/") && file.startsWith(global))) {
+                    return new Selection(file + " affects every test");
+                }
+            }
+            if (!SCRIPT_EXTENSIONS.contains(extension(file))) {
+                return new Selection(file + " cannot be traced through JavaScript coverage");
+            }
+            if (routeOf(file) == null && !hasModules()) {
+                return new Selection("the impact map has no module coverage to trace " + file);
+            }
+        }
+        
+        Selection selection = new Selection(null);
+        for (String test : testNames) {
+            Entry entry = tests.get(test);
+            if (entry == null) {
+                selection.reasons.put(test, "not in the impact map");
+                continue;
+            }
+            if (entry.routes.isEmpty() && entry.modules.isEmpty()) {
+                selection.reasons.put(test, "nothing recorded for the test");
+                continue;
+            }
+            for (String file : changedFiles) {
+                String reason = findImpact(entry, file);
+                if (reason != null) {
+                    selection.reasons.put(test, reason);
+                    break;
+                }
+            }
+        }
+        return selection;
+    }
+    
+    /**
+     * Run git in the working directory
+     * @param args git arguments
+     * @return Output lines, or null when git is missing or exits with an error
+     */
+    public static List<String> git(String... args) {
+        List<String> command = new ArrayList<>();
+        command.add("git");
+        command.addAll(Arrays.asList(args));
+        try {
+            Process process = new ProcessBuilder(command).redirectErrorStream(false).start();
+            List<String> lines = new ArrayList<>();
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(),
+                    StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    lines.add(line);
+                }
+            }
+            return process.waitFor() == 0 ? lines : null;
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+    
+    /**
+     * Reduce a script URL to the app source module it was built from
+     * @param url Script URL reported by the profiler
+     * @return Module path without extension, e.g. components/Navbar, or null for
+     *     framework, library and inline scripts
+     */
+    static String toModule(String url) {
+        if (url == null) {
+            return null;
+        }
+        Matcher module = WEBPACK_MODULE.matcher(url);
+        if (module.find()) {
+            String path = module.group(1);
+            return path.startsWith("node_modules/") ? null : stripExtension(path);
+        }
+        if (!url.startsWith("http")) {
+            return null;
+        }
+        try {
+            Matcher chunk = PAGE_CHUNK.matcher(URI.create(url).getPath());
+            if (chunk.matches()) {
+                return chunk.group(1) + chunk.group(2);
+            }
+        } catch (IllegalArgumentException e) {
+            // Not a URL the app served
+        }
+        return null;
+    }
+    
+    /**
+     * Get the route an app router file belongs to
+     * @param file File relative to the repository root, e.g. app/movie/[id]/seats/page.tsx
+     * @return Route the file renders, e.g. /movie/[id]/seats, or null for other files
+     */
+    static String routeOf(String file) {
+        if (!file.startsWith("app/")) {
+            return null;
+        }
+        String name = stripExtension(file.substring(file.lastIndexOf('/') + 1));
+        if (!name.equals("page") && !SEGMENT_FILES.contains(name)) {
+            return null;
+        }
+        // Route groups like (auth) do not appear in the URL
+        String route = file.substring(3, file.lastIndexOf('/')).replaceAll("/\\([^/)]*\\)", "");
+        return route.isEmpty() ? "/" : route;
+    }
+    
+    /**
+     * Find why a change affects a test
+     * @param entry Recorded routes and modules of the test
+     * @param file Changed file
+     * @return Reason, or null when the test does not touch the file
+     */
+    private static String findImpact(Entry entry, String file) {
+        String module = stripExtension(file);
+        if (entry.modules.contains(module)) {
+            return "runs " + file;
+        }
+        String route = routeOf(file);
+        if (route == null) {
+            return null;
+        }
+        boolean page = stripExtension(file).endsWith("/page");
+        for (String visited : entry.routes) {
+            // Layouts and other segment files wrap every route below them
+            boolean affected = page ? visited.equals(route)
+                : route.equals("/") || visited.equals(route) || visited.startsWith(route + "/");
+            if (affected) {
+                return "visits " + visited + ", rendered by " + file;
+            }
+        }
+        return null;
+    }
+    
+    private boolean hasModules() {
+        for (Entry entry : tests.values()) {
+            for (String module : entry.modules) {
+                // Page chunks name the route, not the components it imports
+                if (!module.startsWith("app/")) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    private static String currentCommit() {
+        List<String> head = git("rev-parse", "HEAD");
+        return head == null || head.isEmpty() ? null : head.get(0).trim();
+    }
+    
+    private static String extension(String file) {
+        String name = file.substring(file.lastIndexOf('/') + 1);
+        return name.contains(".") ? name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT) : "";
+    }
+    
+    private static String stripExtension(String path) {
+        int slash = path.lastIndexOf('/');
+        int dot = path.lastIndexOf('.');
+        return dot > slash ? path.substring(0, dot) : path;
+    }
+}
@@ -0,0 +1,391 @@
+package com.cinemabook.base;
+
+import com.cinemabook.utils.ConfigReader;
+import org.apache.commons.io.FileUtils;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonException;
+import org.testng.ITestNGMethod;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * TestResultCache class remembers passing tests by a hash of everything they depend on
+ * The key of a test method covers its class and every project class reachable from
+ * its bytecode (page objects, BaseTest, utilities), the effective configuration
+ * with the content of the files it points at, and a fingerprint of the app build.
+ * Passes are stored as one file per key under result.cache.dir together with a copy
+ * of the report of the run that produced them, so CI can persist the directory
+ */
+public class TestResultCache {
+    
+    private static final Pattern PROJECT_CLASS = Pattern.compile("com/cinemabook/[A-Za-z0-9_$/]+");
+    // Set while the suite runs, they change from run to run without changing what is tested
+    private static final List<String> RUNTIME_KEYS = Arrays.asList("asset.proxy.address",
+        "browser.profile.template", "grid.url");
+    private static final Map<String, String> KEYS = new ConcurrentHashMap<>();
+    private static final Map<String, Boolean> OUTCOMES = new ConcurrentHashMap<>();
+    private static final Map<String, Map<String, Object>> CACHED_PASSES = Collections.synchronizedMap(new TreeMap<>());
+    private static String environmentHash;
+    private static String appFingerprint;
+    
+    /**
+     * Check if tests with unchanged inputs should be skipped as cached passes
+     * @param config Configuration
+     * @return true when the cache is enabled and result.cache.force is not set
+     */
+    public static boolean isLookupEnabled(ConfigReader config) {
+        return config.getBooleanProperty("result.cache.enabled", false)
+            && !config.getBooleanProperty("result.cache.force", false);
+    }
+    
+    /**
+     * Find a previous pass of a test method with identical inputs
+     * @param method Test method
+     * @param config Configuration
+     * @return Stored pass, or null when the method has to run
+     */
+    public static Map<String, Object> lookup(ITestNGMethod method, ConfigReader config) {
+        File entry = new File(getDirectory(config), "entries/" + getKey(method, config) + ".json");
+        Map<String, Object> pass = readEntry(entry);
+        if (pass == null) {
+            return null;
+        }
+        long ageMillis = System.currentTimeMillis() - ((Number) pass.get("passedAt")).longValue();
+        if (ageMillis > TimeUnit.HOURS.toMillis(config.getLongProperty("result.cache.max.age.hours", 168))) {
+            return null;
+        }
+        pass.put("evidenceFile", new File(getDirectory(config), (String) pass.get("evidence")).getAbsolutePath());
+        CACHED_PASSES.put(getTestName(method), pass);
+        return pass;
+    }
+    
+    /**
+     * Record the outcome of one invocation of a test method
+     * A method counts as passed only if every invocation of the run passed
+     * @param method Test method
+     * @param passed true if the invocation passed
+     * @param config Configuration
+     */
+    public static void recordOutcome(ITestNGMethod method, boolean passed, ConfigReader config) {
+        getKey(method, config);
+        OUTCOMES.merge(getTestName(method), passed, Boolean::logicalAnd);
+    }
+    
+    /**
+     * Get tests skipped as cached passes in this run
+     * @return Stored pass by test name, with evidenceFile pointing at the original report
+     */
+    public static Map<String, Map<String, Object>> getCachedPasses() {
+        synchronized (CACHED_PASSES) {
+            return new TreeMap<>(CACHED_PASSES);
+        }
+    }
+    
+    /**
+     * Store the passes of this run with a copy of its report and drop expired entries
+     * @param reportPath Report of this run, kept as evidence of the stored passes
+     */
+    public static void save(String reportPath) {
+        ConfigReader config = new ConfigReader();
+        File directory = getDirectory(config);
+        String runId = String.valueOf(System.currentTimeMillis());
+        String evidence = "evidence/" + runId + "/" + new File(reportPath).getName();
+        int stored = 0;
+        for (Map.Entry<String, Boolean> outcome : OUTCOMES.entrySet()) {
+            String key = KEYS.get(outcome.getKey());
+            if (!outcome.getValue() || key == null) {
+                continue;
+            }
+            Map<String, Object> pass = new LinkedHashMap<>();
+            pass.put("test", outcome.getKey());
+            pass.put("passedAt", System.currentTimeMillis());
+            pass.put("evidence", evidence);
+            writeEntry(new File(directory, "entries/" + key + ".json"), pass);
+            stored++;
+        }
+        if (stored > 0) {
+            try {
+                FileUtils.copyFile(new File(reportPath), new File(directory, evidence));
+            } catch (IOException e) {
+                System.err.println("Failed to keep report as result cache evidence: " + e.getMessage());
+            }
+        }
+        prune(directory, TimeUnit.HOURS.toMillis(config.getLongProperty("result.cache.max.age.hours", 168)));
+        System.out.println("Result cache: " + stored + " passes stored, " + CACHED_PASSES.size() + " tests skipped as cached");
+    }
+    
+    /**
+     * Write the cache decision for every test of the run
+     * @param reportPath Destination CSV file
+     */
+    public static void writeSummary(String reportPath) {
+        new File(reportPath).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(reportPath)) {
+            writer.println("test,status,key,passedAt,evidence");
+            Set<String> tests = new TreeSet<>(KEYS.keySet());
+            tests.addAll(OUTCOMES.keySet());
+            for (String test : tests) {
+                Map<String, Object> pass = CACHED_PASSES.get(test);
+                String status = pass != null ? "cached-pass" : Boolean.TRUE.equals(OUTCOMES.get(test)) ? "pass"
+                    : OUTCOMES.containsKey(test) ? "not-passed" : "not-run";
+                writer.println(test + "," + status + "," + KEYS.getOrDefault(test, "") + ","
+                    + (pass == null ? "" : pass.get("passedAt")) + "," + (pass == null ? "" : pass.get("evidenceFile")));
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write result cache summary: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get the content hash a test method is cached under
+     * @param method Test method
+     * @param config Configuration
+     * @return Hex SHA-256 of the method, its code, the configuration and the app build
+     */
+    static String getKey(ITestNGMethod method, ConfigReader config) {
+        return KEYS.computeIfAbsent(getTestName(method), test -> {
+            MessageDigest digest = newDigest();
+            update(digest, test);
+            update(digest, Arrays.toString(method.getConstructorOrMethod().getParameterTypes()));
+            update(digest, hashClasses(method.getRealClass()));
+            update(digest, getEnvironmentHash(config));
+            return toHex(digest.digest());
+        });
+    }
+    
+    private static String getTestName(ITestNGMethod method) {
+        return method.getRealClass().getName() + "." + method.getMethodName();
+    }
+    
+    /**
+     * Hash the configuration and the app build once per run
+     * @param config Configuration
+     * @return Hex SHA-256
+     */
+    private static synchronized String getEnvironmentHash(ConfigReader config) {
+        if (environmentHash != null) {
+            return environmentHash;
+        }
+        MessageDigest digest = newDigest();
+        for (String key : config.getPropertyNames()) {
+            if (RUNTIME_KEYS.contains(key) || key.startsWith("result.cache.") || key.startsWith("impact.")) {
+                continue;
+            }
+            // A configured base.url picks the app under test, one the suite serves itself only picks a free port
+            if (key.equals("base.url") && (config.isStaticAppServerEnabled() || config.isManagedAppServerEnabled())) {
+                continue;
+            }
+            String value = config.getProperty(key);
+            update(digest, key + "=" + value);
+            // Test data, budgets and device profiles are configured by path
+            File file = new File(value.trim());
+            if (!value.trim().isEmpty() && file.isFile()) {
+                update(digest, hashFiles(file.toPath()));
+            }
+        }
+        update(digest, getAppFingerprint(config));
+        environmentHash = toHex(digest.digest());
+        return environmentHash;
+    }
+    
+    /**
+     * Fingerprint the app build the tests run against
+     * An explicit result.cache.app.fingerprint (e.g. the CI build id) wins, then the
+     * static export when it is served, otherwise the app sources it is built from.
+     * Computed once per run; also tags storage snapshots
+     * @param config Configuration
+     * @return Fingerprint
+     */
+    static synchronized String getAppFingerprint(ConfigReader config) {
+        if (appFingerprint == null) {
+            appFingerprint = computeAppFingerprint(config);
+        }
+        return appFingerprint;
+    }
+    
+    private static String computeAppFingerprint(ConfigReader config) {
+        String explicit = config.getProperty("result.cache.app.fingerprint", "").trim();
+        if (!explicit.isEmpty()) {
+            return explicit;
+        }
+        if (config.isStaticAppServerEnabled()) {
+            return hashFiles(Paths.get(config.getStaticAppDirectory()));
+        }
+        List<String> sources = new ArrayList<>();
+        for (String list : Arrays.asList(config.getProperty("impact.paths", "app/,components/,contexts/,data/"),
+                config.getProperty("impact.global.paths", ""))) {
+            for (String path : list.split(",")) {
+                if (!path.trim().isEmpty()) {
+                    sources.add(path.trim());
+                }
+            }
+        }
+        MessageDigest digest = newDigest();
+        for (String source : sources) {
+            update(digest, source + ":" + hashFiles(Paths.get(source)));
+        }
+        return toHex(digest.digest());
+    }
+    
+    /**
+     * Hash a class and every project class its bytecode refers to, directly or not
+     * @param testClass Test class
+     * @return Hex SHA-256 over the class files in name order
+     */
+    private static String hashClasses(Class<?> testClass) {
+        Map<String, byte[]> classFiles = new TreeMap<>();
+        Deque<String> pending = new ArrayDeque<>();
+        Set<String> seen = new HashSet<>();
+        pending.add(testClass.getName().replace('.', '/'));
+        ClassLoader loader = testClass.getClassLoader();
+        while (!pending.isEmpty()) {
+            String name = pending.poll();
+            if (!seen.add(name)) {
+                continue;
+            }
+            byte[] bytes;
+            try (InputStream in = loader.getResourceAsStream(name + ".class")) {
+                if (in == null) {
+                    continue;
+                }
+                bytes = in.readAllBytes();
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read class file of " + name + ": " + e.getMessage(), e);
+            }
+            classFiles.put(name, bytes);
+            // Class references are stored as plain strings in the constant pool
+            Matcher reference = PROJECT_CLASS.matcher(new String(bytes, StandardCharsets.ISO_8859_1));
+            while (reference.find()) {
+                pending.add(reference.group());
+            }
+        }
+        MessageDigest digest = newDigest();
+        for (Map.Entry<String, byte[]> classFile : classFiles.entrySet()) {
+            update(digest, classFile.getKey());
+            digest.update(classFile.getValue());
+        }
+        return toHex(digest.digest());
+    }
+    
+    /**
+     * Hash the content of a file or of every file below a directory
+     * @param path File or directory
+     * @return Hex SHA-256, of nothing when the path does not exist
+     */
+    private static String hashFiles(Path path) {
+        MessageDigest digest = newDigest();
+        if (Files.exists(path)) {
+            try (Stream<Path> files = Files.walk(path)) {
+                for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile).sorted()::iterator) {
+                    update(digest, path.relativize(file).toString().replace('\\', '/'));
+                    digest.update(Files.readAllBytes(file));
+                }
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to hash " + path + ": " + e.getMessage(), e);
+            }
+        }
+        return toHex(digest.digest());
+    }
+    
+    /**
+     * Delete expired entries and the evidence no entry refers to any more
+     * @param directory Cache directory
+     * @param maxAgeMillis Age after which an entry expires
+     */
+    private static void prune(File directory, long maxAgeMillis) {
+        Set<String> referenced = new HashSet<>();
+        File[] entries = new File(directory, "entries").listFiles((dir, name) -> name.endsWith(".json"));
+        for (File entry : entries == null ? new File[0] : entries) {
+            Map<String, Object> pass = readEntry(entry);
+            if (pass == null || System.currentTimeMillis() - ((Number) pass.get("passedAt")).longValue() > maxAgeMillis) {
+                FileUtils.deleteQuietly(entry);
+            } else {
+                referenced.add(new File((String) pass.get("evidence")).getParent().replace('\\', '/'));
+            }
+        }
+        File[] runs = new File(directory, "evidence").listFiles();
+        for (File run : runs == null ? new File[0] : runs) {
+            if (!referenced.contains("evidence/" + run.getName())) {
+                FileUtils.deleteQuietly(run);
+            }
+        }
+    }
+    
+    private static File getDirectory(ConfigReader config) {
+        return new File(config.getProperty("result.cache.dir", ".result-cache"));
+    }
+    
+    private static Map<String, Object> readEntry(File entry) {
+        if (!entry.isFile()) {
+            return null;
+        }
+        try {
+            Map<String, Object> pass = new Json().toType(new String(Files.readAllBytes(entry.toPath()),
+                StandardCharsets.UTF_8), Json.MAP_TYPE);
+            return pass.get("passedAt") instanceof Number && pass.get("evidence") instanceof String
+                ? new LinkedHashMap<>(pass) : null;
+        } catch (IOException | JsonException e) {
+            return null;
+        }
+    }
+    
+    private static void writeEntry(File entry, Map<String, Object> pass) {
+        entry.getParentFile().mkdirs();
+        try {
+            // Written aside and moved, so a parallel worker never reads half an entry
+            File partial = new File(entry.getPath() + ".tmp");
+            Files.write(partial.toPath(), new Json().toJson(pass).getBytes(StandardCharsets.UTF_8));
+            Files.move(partial.toPath(), entry.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.err.println("Failed to store result cache entry " + entry + ": " + e.getMessage());
+        }
+    }
+    
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+    
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+    
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder();
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
@@ -242,7 +242,7 @@ public class ConfirmationPage extends BasePage {
      */
     public void clickViewAllBookingsButton() {
         waitUtils.waitForElementToBeClickable(By.xpath("//button[contains(text(), 'View All Bookings')]"));
-        viewAllBookingsButton.click();
+        performSoftNavigation("confirmation -> dashboard", () -> viewAllBookingsButton.click());
     }
     
     /**
@@ -79,8 +79,7 @@ public class HomePage extends BasePage {
      * Navigate to homepage
      */
     public void navigateToHomePage() {
-        driver.get(baseUrl);
-        waitUtils.waitForElementToBeVisible(By.xpath("//span[contains(text(), 'CinemaBook')]"));
+        navigateTo(baseUrl, By.xpath("//span[contains(text(), 'CinemaBook')]"));
     }
     
     /**
@@ -156,7 +155,7 @@ public class HomePage extends BasePage {
     public void clickFirstMovieCard() {
         waitUtils.waitForElementToBeVisible(By.xpath("//div[contains(@class, 'grid')]//div[contains(@class, 'group')]"));
         if (!movieCards.isEmpty()) {
-            movieCards.get(0).click();
+            performSoftNavigation("home -> movie", () -> movieCards.get(0).click());
         }
     }
     
@@ -165,9 +164,18 @@ public class HomePage extends BasePage {
      * @param movieTitle Title of the movie to click
      */
     public void clickMovieCardByTitle(String movieTitle) {
-        By movieCardLocator = By.xpath("//h3[contains(text(), '" + movieTitle + "')]/ancestor::div[contains(@class, 'group')]");
+        By movieCardLocator = movieCardLocator(movieTitle);
         waitUtils.waitForElementToBeClickable(movieCardLocator);
-        driver.findElement(movieCardLocator).click();
+        performSoftNavigation("home -> movie", () -> driver.findElement(movieCardLocator).click());
+    }
+    
+    /**
+     * Build the locator of a movie card
+     * @param movieTitle Title of the movie
+     * @return Movie card locator
+     */
+    public static By movieCardLocator(String movieTitle) {
+        return By.xpath("//h3[contains(text(), '" + movieTitle + "')]/ancestor::div[contains(@class, 'group')]");
     }
     
     /**
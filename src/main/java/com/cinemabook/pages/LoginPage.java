@@ -51,8 +51,7 @@ public class LoginPage extends BasePage {
      * Navigate to login page
      */
     public void navigateToLoginPage() {
-        driver.get(baseUrl + "/login");
-        waitUtils.waitForElementToBeVisible(By.id("email"));
+        navigateTo(baseUrl + "/login", By.id("email"));
     }
     
     /**
@@ -80,7 +79,7 @@ public class LoginPage extends BasePage {
      */
     public void clickLoginButton() {
         waitUtils.waitForElementToBeClickable(By.xpath("//button[@type='submit']"));
-        loginButton.click();
+        performSoftNavigation("login -> home", () -> loginButton.click());
     }
     
     /**
@@ -0,0 +1,103 @@
+package com.cinemabook.pages;
+
+import com.cinemabook.base.BasePage;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.PageFactory;
+
+/**
+ * PaymentPage class represents the payment page of the booking flow
+ * Contains all elements and methods related to payment functionality
+ */
+public class PaymentPage extends BasePage {
+    
+    // Payment method elements
+    @FindBy(id = "card")
+    private WebElement cardPaymentOption;
+    
+    @FindBy(id = "upi")
+    private WebElement upiPaymentOption;
+    
+    // Card details elements
+    @FindBy(id = "cardHolderName")
+    private WebElement cardHolderNameField;
+    
+    @FindBy(id = "cardNumber")
+    private WebElement cardNumberField;
+    
+    @FindBy(id = "expiryDate")
+    private WebElement expiryDateField;
+    
+    @FindBy(id = "cvv")
+    private WebElement cvvField;
+    
+    @FindBy(xpath = "//button[contains(text(), 'Pay')]")
+    private WebElement payButton;
+    
+    /**
+     * Constructor to initialize page elements
+     * @param driver WebDriver instance
+     */
+    public PaymentPage(WebDriver driver) {
+        super(driver);
+        PageFactory.initElements(driver, this);
+    }
+    
+    /**
+     * Check if payment page is displayed
+     * @return true if payment page is displayed
+     */
+    public boolean isPaymentPageDisplayed() {
+        try {
+            waitUtils.waitForElementToBeVisible(By.xpath("//button[contains(text(), 'Pay')]"));
+            return payButton.isDisplayed();
+        } catch (Exception e) {
+            return false;
+        }
+    }
+    
+    /**
+     * Select card as payment method
+     */
+    public void selectCardPayment() {
+        waitUtils.waitForElementToBeClickable(By.id("card"));
+        cardPaymentOption.click();
+    }
+    
+    /**
+     * Enter card details
+     * @param cardHolderName Card holder name
+     * @param cardNumber Card number
+     * @param expiryDate Expiry date in MM/YY format
+     * @param cvv Card CVV
+     */
+    public void enterCardDetails(String cardHolderName, String cardNumber, String expiryDate, String cvv) {
+        waitUtils.waitForElementToBeVisible(By.id("cardHolderName"));
+        cardHolderNameField.sendKeys(cardHolderName);
+        cardNumberField.sendKeys(cardNumber);
+        expiryDateField.sendKeys(expiryDate);
+        cvvField.sendKeys(cvv);
+    }
+    
+    /**
+     * Click pay button to complete the booking
+     */
+    public void clickPayButton() {
+        waitUtils.waitForElementToBeClickable(By.xpath("//button[contains(text(), 'Pay')]"));
+        performSoftNavigation("payment -> confirmation", () -> payButton.click());
+    }
+    
+    /**
+     * Get pay button text including the total amount
+     * @return Pay button text
+     */
+    public String getPayButtonText() {
+        try {
+            return payButton.getText();
+        } catch (Exception e) {
+            return "";
+        }
+    }
+}
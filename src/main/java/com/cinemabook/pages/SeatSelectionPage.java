@@ -2,12 +2,15 @@ package com.cinemabook.pages;
 
 import com.cinemabook.base.BasePage;
 import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * SeatSelectionPage class represents the seat selection page
@@ -15,6 +18,41 @@ import java.util.List;
  */
 public class SeatSelectionPage extends BasePage {
     
+    // Seat buttons in DOM order; the index into this list identifies a seat in batched scripts
+    private static final String SEATS_SELECTOR = "button.w-8.h-8";
+    
+    /**
+     * Click seats in the page one after another, reading the booking summary after each
+     * click has been rendered. window.alert is replaced so the 10 seat limit does not
+     * open a blocking dialog; rejected clicks are counted instead
+     */
+    private static final String DISPATCH_SCRIPT =
+        "var indexes = arguments[0], done = arguments[arguments.length - 1];" +
+        "var seats = document.querySelectorAll('" + SEATS_SELECTOR + "');" +
+        "window.alert = function() { window.__seatAlerts++; };" +
+        "window.__seatAlerts = 0;" +
+        "function summary() {" +
+        "  var count = -1, total = 0;" +
+        "  document.querySelectorAll('span.text-sm.text-gray-500').forEach(function(span) {" +
+        "    var match = span.textContent.trim().match(/^(\\d+) of \\d+ selected$/);" +
+        "    if (match) { count = parseInt(match[1], 10); }" +
+        "  });" +
+        "  document.querySelectorAll('div.font-semibold').forEach(function(row) {" +
+        "    var spans = row.querySelectorAll('span');" +
+        "    if (spans.length === 2 && spans[0].textContent.trim() === 'Total') {" +
+        "      total = parseInt(spans[1].textContent.replace(/[^0-9]/g, ''), 10);" +
+        "    }" +
+        "  });" +
+        "  return [count, total, window.__seatAlerts];" +
+        "}" +
+        "var results = [], next = 0;" +
+        "(function step() {" +
+        "  if (next >= indexes.length) { done(results); return; }" +
+        "  seats[indexes[next++]].click();" +
+        // A macrotask lets React commit the update before the summary is read
+        "  setTimeout(function() { results.push(summary()); step(); }, 0);" +
+        "})();";
+    
     // Page header elements
     @FindBy(xpath = "//h1[contains(text(), 'Select Seats')]")
     private WebElement pageTitle;
@@ -114,15 +152,25 @@ public class SeatSelectionPage extends BasePage {
      * @param seatNumber Seat number
      */
     public void selectSeat(String row, int seatNumber) {
-        By seatLocator = By.xpath("//button[contains(@class, 'w-8 h-8') and text()='" + seatNumber + "']" +
-                                 "/ancestor::div[contains(@class, 'flex space-x-1')]" +
-                                 "/preceding-sibling::div[contains(@class, 'w-6 text-center') and text()='" + row + "']" +
-                                 "/following-sibling::div//button[text()='" + seatNumber + "']");
+        By seatLocator = seatLocator(row, seatNumber);
         
         waitUtils.waitForElementToBeClickable(seatLocator);
         driver.findElement(seatLocator).click();
     }
     
+    /**
+     * Build the locator of a seat button
+     * @param row Row letter (A, B, C, etc.)
+     * @param seatNumber Seat number
+     * @return Seat locator
+     */
+    public static By seatLocator(String row, int seatNumber) {
+        return By.xpath("//button[contains(@class, 'w-8 h-8') and text()='" + seatNumber + "']" +
+                        "/ancestor::div[contains(@class, 'flex space-x-1')]" +
+                        "/preceding-sibling::div[contains(@class, 'w-6 text-center') and text()='" + row + "']" +
+                        "/following-sibling::div//button[text()='" + seatNumber + "']");
+    }
+    
     /**
      * Select first available seat
      */
@@ -189,7 +237,7 @@ public class SeatSelectionPage extends BasePage {
      */
     public void clickProceedToPayment() {
         waitUtils.waitForElementToBeClickable(By.xpath("//button[contains(text(), 'Proceed to Payment')]"));
-        proceedToPaymentButton.click();
+        performSoftNavigation("seats -> payment", () -> proceedToPaymentButton.click());
     }
     
     /**
@@ -308,4 +356,53 @@ public class SeatSelectionPage extends BasePage {
             return false;
         }
     }
-}
\ No newline at end of file
+    
+    /**
+     * Describe every seat of the seat map in DOM order
+     * @return One map per seat with label (e.g. A1), premium and booked flags
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> getSeatInventory() {
+        waitUtils.waitForElementToBeVisible(By.cssSelector(SEATS_SELECTOR));
+        return (List<Map<String, Object>>) ((JavascriptExecutor) driver).executeScript(
+            "return Array.prototype.map.call(document.querySelectorAll('" + SEATS_SELECTOR + "'), function(seat) {" +
+            "  var row = seat.parentElement.parentElement.firstElementChild.textContent.trim();" +
+            "  return { label: row + seat.textContent.trim(), premium: seat.className.indexOf('bg-yellow') >= 0," +
+            "           booked: seat.disabled };" +
+            "});");
+    }
+    
+    /**
+     * Get the seat indexes that are currently selected
+     * @return Indexes into the seat inventory
+     */
+    @SuppressWarnings("unchecked")
+    public List<Integer> getSelectedSeatIndexes() {
+        List<Number> indexes = (List<Number>) ((JavascriptExecutor) driver).executeScript(
+            "var selected = [];" +
+            "document.querySelectorAll('" + SEATS_SELECTOR + "').forEach(function(seat, index) {" +
+            "  if (/bg-(green|yellow)-500/.test(seat.className)) { selected.push(index); }" +
+            "});" +
+            "return selected;");
+        List<Integer> result = new ArrayList<>();
+        indexes.forEach(index -> result.add(index.intValue()));
+        return result;
+    }
+    
+    /**
+     * Click a sequence of seats in a single script call
+     * @param seatIndexes Indexes into the seat inventory, in click order
+     * @return Per click: selected count shown, grand total shown (0 without selection)
+     *         and limit alerts raised so far in the batch
+     */
+    @SuppressWarnings("unchecked")
+    public List<int[]> dispatchSeatClicks(List<Integer> seatIndexes) {
+        List<List<Number>> raw = (List<List<Number>>) ((JavascriptExecutor) driver)
+            .executeAsyncScript(DISPATCH_SCRIPT, seatIndexes);
+        List<int[]> observations = new ArrayList<>();
+        for (List<Number> step : raw) {
+            observations.add(new int[] {step.get(0).intValue(), step.get(1).intValue(), step.get(2).intValue()});
+        }
+        return observations;
+    }
+}
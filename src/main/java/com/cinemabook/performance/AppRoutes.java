@@ -0,0 +1,128 @@
+package com.cinemabook.performance;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * AppRoutes class describes the routes of the CinemaBook front end
+ * Routes are discovered from the Next.js app directory so that measured URLs
+ * can be grouped by route pattern, e.g. /movie/3/seats becomes /movie/[id]/seats
+ */
+public class AppRoutes {
+    
+    private static final String APP_DIR = "app";
+    
+    private static final List<String> DEFAULT_ROUTES = Arrays.asList(
+        "/", "/login", "/register", "/search", "/theaters", "/dashboard",
+        "/movie/[id]", "/movie/[id]/theaters", "/movie/[id]/seats", "/movie/[id]/payment",
+        "/booking/confirmation/[id]"
+    );
+    
+    private static volatile List<String> routes;
+    
+    /**
+     * Get all known route patterns
+     * @return Route patterns discovered from the app directory, or the built-in list
+     */
+    public static List<String> getRoutes() {
+        if (routes == null) {
+            routes = Collections.unmodifiableList(discoverRoutes(Paths.get(APP_DIR)));
+        }
+        return routes;
+    }
+    
+    /**
+     * Resolve a URL or path to its route pattern
+     * @param url Absolute URL or path
+     * @return Matching route pattern, or the plain path when no route matches
+     */
+    public static String resolve(String url) {
+        String path = toPath(url);
+        for (String route : getRoutes()) {
+            if (toPattern(route).matcher(path).matches()) {
+                return route;
+            }
+        }
+        return path;
+    }
+    
+    /**
+     * Build a concrete path from a route pattern
+     * @param route Route pattern with dynamic segments
+     * @param id Value to use for every dynamic segment
+     * @return Concrete path
+     */
+    public static String toConcretePath(String route, String id) {
+        return route.replaceAll("\\[[^/]+\\]", id);
+    }
+    
+    /**
+     * Extract the path part of a URL without trailing slash
+     * @param url Absolute URL or path
+     * @return Path starting with a slash
+     */
+    private static String toPath(String url) {
+        String path;
+        try {
+            path = URI.create(url).getPath();
+        } catch (IllegalArgumentException e) {
+            path = url;
+        }
+        if (path == null || path.isEmpty()) {
+            return "/";
+        }
+        return path.length() > 1 && path.endsWith("/") ? path.substring(0, path.length() - 1) : path;
+    }
+    
+    /**
+     * Convert a route pattern into a regular expression
+     * @param route Route pattern
+     * @return Compiled pattern matching concrete paths
+     */
+    private static Pattern toPattern(String route) {
+        StringBuilder regex = new StringBuilder();
+        for (String segment : route.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            regex.append("/");
+            regex.append(segment.startsWith("[") ? "[^/]+" : Pattern.quote(segment));
+        }
+        return Pattern.compile(regex.length() == 0 ? "/" : regex.toString());
+    }
+    
+    /**
+     * Discover routes from page.tsx files in the app directory
+     * @param appDir Next.js app directory
+     * @return Route patterns, static routes first
+     */
+    private static List<String> discoverRoutes(Path appDir) {
+        if (!Files.isDirectory(appDir)) {
+            return new ArrayList<>(DEFAULT_ROUTES);
+        }
+        try (Stream<Path> files = Files.walk(appDir)) {
+            List<String> discovered = files
+                .filter(file -> file.getFileName().toString().matches("page\\.(tsx|jsx|ts|js)"))
+                .map(file -> appDir.relativize(file.getParent()).toString().replace(File.separatorChar, '/'))
+                .map(dir -> dir.isEmpty() ? "/" : "/" + dir)
+                // Static routes must win over dynamic siblings such as /movie/[id]
+                .sorted((a, b) -> Boolean.compare(a.contains("["), b.contains("[")))
+                .collect(Collectors.toList());
+            return discovered.isEmpty() ? new ArrayList<>(DEFAULT_ROUTES) : discovered;
+        } catch (IOException e) {
+            System.err.println("Failed to discover app routes: " + e.getMessage());
+            return new ArrayList<>(DEFAULT_ROUTES);
+        }
+    }
+}
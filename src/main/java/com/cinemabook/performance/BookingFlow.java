@@ -0,0 +1,183 @@
+package com.cinemabook.performance;
+
+import com.cinemabook.pages.ConfirmationPage;
+import com.cinemabook.pages.HomePage;
+import com.cinemabook.pages.LoginPage;
+import com.cinemabook.pages.PaymentPage;
+import com.cinemabook.pages.SeatSelectionPage;
+import com.cinemabook.utils.ConfigReader;
+import com.cinemabook.utils.SessionSeeder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * BookingFlow class runs the complete booking path with the page objects
+ * Login, home, movie, theaters, seats, payment and confirmation are timed as
+ * separate steps using explicit waits instead of fixed sleeps
+ */
+public class BookingFlow {
+    
+    private static final By BOOK_TICKETS_BUTTON = By.xpath("//button[contains(text(), 'Book Tickets')]");
+    private static final By SHOWTIME_BUTTON = By.xpath("//button[contains(@class, 'flex items-center justify-center space-x-2')]");
+    private static final By HOME_READY = By.xpath("//h1[contains(text(), 'Book Your Perfect Movie Experience')]");
+    private static final By DASHBOARD_READY = By.xpath("//h1[contains(text(), 'My Dashboard')]");
+    
+    private final WebDriver driver;
+    private final ConfigReader config;
+    private final WebDriverWait wait;
+    private final LoginPage loginPage;
+    private final HomePage homePage;
+    private final SeatSelectionPage seatSelectionPage;
+    private final PaymentPage paymentPage;
+    private final ConfirmationPage confirmationPage;
+    
+    /**
+     * Constructor to initialize the page objects of one browser session
+     * @param driver WebDriver instance owned by the caller
+     */
+    public BookingFlow(WebDriver driver) {
+        this.driver = driver;
+        this.config = new ConfigReader();
+        this.wait = new WebDriverWait(driver, Duration.ofSeconds(config.getExplicitWait()));
+        this.loginPage = new LoginPage(driver);
+        this.homePage = new HomePage(driver);
+        this.seatSelectionPage = new SeatSelectionPage(driver);
+        this.paymentPage = new PaymentPage(driver);
+        this.confirmationPage = new ConfirmationPage(driver);
+    }
+    
+    /**
+     * Book one seat from a fresh login to the confirmation page
+     * @return Step name to duration in milliseconds, plus the total
+     * @throws IllegalStateException naming the step that failed
+     */
+    public Map<String, Double> run() {
+        Map<String, Double> durations = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        
+        step(durations, "login", () -> {
+            loginPage.navigateToLoginPage();
+            SessionSeeder.clearSession(driver);
+            loginPage.performLogin(config.getValidEmail(), config.getValidPassword());
+            wait.until(ExpectedConditions.not(ExpectedConditions.urlContains("/login")));
+        });
+        step(durations, "home", () -> homePage.navigateToHomePage());
+        bookFromHome(durations);
+        
+        durations.put("total", (System.nanoTime() - start) / 1e6);
+        return durations;
+    }
+    
+    /**
+     * Book one seat and open the dashboard using client-side navigation only, so the
+     * document and the in-memory app state live on from one iteration to the next
+     * Expects a logged in session on a page with the navigation bar, e.g. after run()
+     * @return Step name to duration in milliseconds, plus the total
+     * @throws IllegalStateException naming the step that failed
+     */
+    public Map<String, Double> runInSession() {
+        Map<String, Double> durations = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        
+        step(durations, "home", () -> {
+            homePage.clickMoviesNavLink();
+            wait.until(ExpectedConditions.visibilityOfElementLocated(HOME_READY));
+        });
+        bookFromHome(durations);
+        step(durations, "dashboard", () -> {
+            confirmationPage.clickViewAllBookingsButton();
+            wait.until(ExpectedConditions.visibilityOfElementLocated(DASHBOARD_READY));
+        });
+        
+        durations.put("total", (System.nanoTime() - start) / 1e6);
+        return durations;
+    }
+    
+    /**
+     * Open the seat map of the first movie on the home page
+     * Expects a logged in session; the seat map reads movie, theater and showtime
+     * from the booking state, so it is reached by clicking through the movie page
+     */
+    public void openSeatMap() {
+        homePage.navigateToHomePage();
+        homePage.clickFirstMovieCard();
+        clickThroughToSeatMap();
+    }
+    
+    /**
+     * Open the seat map of a movie through its movie page
+     * Expects a logged in session
+     * @param movieId Movie ID
+     */
+    public void openSeatMap(int movieId) {
+        driver.get(config.getBaseUrl() + "/movie/" + movieId);
+        clickThroughToSeatMap();
+    }
+    
+    /**
+     * Book tickets and pick the first showtime on the movie page, then wait for the seat map
+     */
+    private void clickThroughToSeatMap() {
+        wait.until(ExpectedConditions.elementToBeClickable(BOOK_TICKETS_BUTTON)).click();
+        wait.until(ExpectedConditions.elementToBeClickable(SHOWTIME_BUTTON)).click();
+        wait.until(ExpectedConditions.urlContains("/seats"));
+    }
+    
+    /**
+     * Run the steps from the home page to the confirmation page
+     * @param durations Step durations collected so far
+     */
+    private void bookFromHome(Map<String, Double> durations) {
+        step(durations, "movie", () -> {
+            homePage.clickFirstMovieCard();
+            wait.until(ExpectedConditions.elementToBeClickable(BOOK_TICKETS_BUTTON));
+        });
+        step(durations, "theaters", () -> {
+            driver.findElement(BOOK_TICKETS_BUTTON).click();
+            wait.until(ExpectedConditions.elementToBeClickable(SHOWTIME_BUTTON));
+        });
+        step(durations, "seats", () -> {
+            driver.findElement(SHOWTIME_BUTTON).click();
+            check(seatSelectionPage.isSeatSelectionPageDisplayed(), "seat map not displayed");
+        });
+        step(durations, "payment", () -> {
+            seatSelectionPage.selectFirstAvailableSeat();
+            seatSelectionPage.clickProceedToPayment();
+            check(paymentPage.isPaymentPageDisplayed(), "payment page not displayed");
+        });
+        step(durations, "confirmation", () -> {
+            paymentPage.selectCardPayment();
+            paymentPage.enterCardDetails("Test User", "4111111111111111", "12/30", "123");
+            paymentPage.clickPayButton();
+            check(confirmationPage.isConfirmationPageDisplayed(), "confirmation page not displayed");
+        });
+    }
+    
+    /**
+     * Time a single step
+     * @param durations Step durations collected so far
+     * @param name Step name
+     * @param action Step actions
+     */
+    private void step(Map<String, Double> durations, String name, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } catch (RuntimeException | AssertionError e) {
+            throw new IllegalStateException("Booking step '" + name + "' failed: " + e.getMessage(), e);
+        }
+        durations.put(name, (System.nanoTime() - start) / 1e6);
+    }
+    
+    private static void check(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+}
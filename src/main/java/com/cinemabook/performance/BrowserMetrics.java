@@ -0,0 +1,221 @@
+package com.cinemabook.performance;
+
+import com.cinemabook.utils.CdpUtils;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonInput;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * BrowserMetrics class reads runtime metrics of the current page
+ * Uses CDP Performance.getMetrics (JSHeapUsedSize, Nodes, JSEventListeners,
+ * Documents and friends) and falls back to performance.memory elsewhere
+ */
+public class BrowserMetrics {
+    
+    public static final String JS_HEAP_USED_SIZE = "JSHeapUsedSize";
+    public static final String NODES = "Nodes";
+    public static final String JS_EVENT_LISTENERS = "JSEventListeners";
+    public static final String DOCUMENTS = "Documents";
+    
+    private static final long SNAPSHOT_TIMEOUT_MS = 120000;
+    private static final long CHUNK_QUIET_MS = 500;
+    // Compared by identity to end the writer thread
+    private static final String END_OF_SNAPSHOT = new String("end of snapshot");
+    private static final Map<DevTools, AtomicReference<SnapshotSink>> SNAPSHOT_SINKS =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    
+    /**
+     * Get runtime metrics for the current page
+     * @param driver WebDriver instance
+     * @return Metric name to value mapping, sizes in bytes
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Double> getMetrics(WebDriver driver) {
+        Map<String, Double> metrics = new HashMap<>();
+        if (CdpUtils.isCdpAvailable(driver)) {
+            CdpUtils.executeCdpCommand(driver, "Performance.enable");
+            Map<String, Object> result = CdpUtils.executeCdpCommand(driver, "Performance.getMetrics");
+            for (Map<String, Object> metric : (List<Map<String, Object>>) result.get("metrics")) {
+                metrics.put((String) metric.get("name"), ((Number) metric.get("value")).doubleValue());
+            }
+            return metrics;
+        }
+        
+        Object heap = ((JavascriptExecutor) driver).executeScript(
+            "return performance.memory ? performance.memory.usedJSHeapSize : null;");
+        if (heap instanceof Number) {
+            metrics.put(JS_HEAP_USED_SIZE, ((Number) heap).doubleValue());
+        }
+        Object nodes = ((JavascriptExecutor) driver).executeScript("return document.getElementsByTagName('*').length;");
+        metrics.put(NODES, ((Number) nodes).doubleValue());
+        return metrics;
+    }
+    
+    /**
+     * Force a garbage collection so heap samples are comparable
+     * @param driver WebDriver instance
+     */
+    public static void collectGarbage(WebDriver driver) {
+        if (CdpUtils.isCdpAvailable(driver)) {
+            CdpUtils.executeCdpCommand(driver, "HeapProfiler.collectGarbage");
+        }
+    }
+    
+    /**
+     * Write a heap snapshot of the current page, loadable in the DevTools Memory panel
+     * Snapshots arrive as a stream of CDP events, so this goes through a DevTools
+     * session instead of the plain command API used elsewhere. Selenium hands every
+     * CDP message to a thread pool, so chunks can still arrive after the command has
+     * returned: the file is closed only once the final progress event was seen and no
+     * chunk arrived for a quiet period, and one consumer thread writes the chunks in
+     * the order they were received
+     * @param driver WebDriver instance
+     * @param snapshotPath Destination .heapsnapshot file
+     * @return true if the snapshot was written
+     */
+    public static boolean takeHeapSnapshot(WebDriver driver, String snapshotPath) {
+        if (!(driver instanceof HasDevTools)) {
+            return false;
+        }
+        File snapshot = new File(snapshotPath);
+        snapshot.getParentFile().mkdirs();
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        AtomicReference<SnapshotSink> slot = null;
+        SnapshotSink sink = new SnapshotSink();
+        Thread consumer = null;
+        try (Writer writer = Files.newBufferedWriter(snapshot.toPath(), StandardCharsets.UTF_8)) {
+            devTools.createSessionIfThereIsNotOne();
+            slot = getSnapshotSink(devTools);
+            slot.set(sink);
+            consumer = new Thread(() -> sink.drainTo(writer), "heap-snapshot-writer");
+            consumer.setDaemon(true);
+            consumer.start();
+            
+            devTools.send(new Command<>("HeapProfiler.takeHeapSnapshot", Collections.singletonMap("reportProgress", true)));
+            if (!sink.finished.await(SNAPSHOT_TIMEOUT_MS, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("no final progress event within " + SNAPSHOT_TIMEOUT_MS + " ms");
+            }
+            // Chunks handled by other pool threads may still be on their way
+            while (System.nanoTime() - sink.lastChunkNanos < TimeUnit.MILLISECONDS.toNanos(CHUNK_QUIET_MS)) {
+                Thread.sleep(CHUNK_QUIET_MS / 5);
+            }
+            slot.compareAndSet(sink, null);
+            sink.chunks.put(END_OF_SNAPSHOT);
+            consumer.join();
+            if (sink.failure != null) {
+                throw sink.failure;
+            }
+            System.out.println("Heap snapshot written: " + snapshotPath);
+            return true;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to take heap snapshot: " + e.getMessage());
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Interrupted while taking heap snapshot");
+            return false;
+        } finally {
+            if (slot != null) {
+                slot.compareAndSet(sink, null);
+            }
+            if (consumer != null && consumer.isAlive()) {
+                consumer.interrupt();
+            }
+        }
+    }
+    
+    /**
+     * SnapshotSink class collects the events of one heap snapshot
+     * Listener threads only enqueue; a single consumer writes, so chunks keep their order
+     */
+    private static class SnapshotSink {
+        private final BlockingQueue<String> chunks = new LinkedBlockingQueue<>();
+        private final CountDownLatch finished = new CountDownLatch(1);
+        private volatile long lastChunkNanos = System.nanoTime();
+        private volatile IOException failure;
+        
+        /**
+         * Write queued chunks until the end marker
+         * @param writer Destination
+         */
+        private void drainTo(Writer writer) {
+            try {
+                for (String chunk = chunks.take(); chunk != END_OF_SNAPSHOT; chunk = chunks.take()) {
+                    writer.write(chunk);
+                }
+            } catch (IOException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * Get the snapshot slot of a DevTools session, adding the chunk and progress listeners once
+     * Listeners other collectors registered on the session, such as request interception, stay untouched
+     * @param devTools DevTools session
+     * @return Slot holding the sink of the snapshot being taken, empty in between
+     */
+    @SuppressWarnings("unchecked")
+    private static AtomicReference<SnapshotSink> getSnapshotSink(DevTools devTools) {
+        return SNAPSHOT_SINKS.computeIfAbsent(devTools, session -> {
+            AtomicReference<SnapshotSink> slot = new AtomicReference<>();
+            session.addListener(new Event<>("HeapProfiler.addHeapSnapshotChunk", BrowserMetrics::readChunk), chunk -> {
+                SnapshotSink sink = slot.get();
+                if (sink != null) {
+                    sink.chunks.add(chunk);
+                    sink.lastChunkNanos = System.nanoTime();
+                }
+            });
+            session.addListener(new Event<>("HeapProfiler.reportHeapSnapshotProgress",
+                input -> (Map<String, Object>) input.read(Json.MAP_TYPE)), progress -> {
+                SnapshotSink sink = slot.get();
+                if (sink != null && Boolean.TRUE.equals(progress.get("finished"))) {
+                    sink.finished.countDown();
+                }
+            });
+            return slot;
+        });
+    }
+    
+    /**
+     * Read the chunk text of a HeapProfiler.addHeapSnapshotChunk event
+     * @param input Event parameters
+     * @return Chunk text
+     */
+    private static String readChunk(JsonInput input) {
+        String chunk = "";
+        input.beginObject();
+        while (input.hasNext()) {
+            if ("chunk".equals(input.nextName())) {
+                chunk = input.nextString();
+            } else {
+                input.skipValue();
+            }
+        }
+        input.endObject();
+        return chunk;
+    }
+}
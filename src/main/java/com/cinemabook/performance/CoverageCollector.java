@@ -0,0 +1,249 @@
+package com.cinemabook.performance;
+
+import com.cinemabook.utils.CdpUtils;
+import org.openqa.selenium.WebDriver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * CoverageCollector class measures how much of the shipped JavaScript actually runs
+ * Turns on CDP Profiler precise block coverage for a session, takes the byte ranges
+ * per script whenever a route is recorded and merges all samples of the run into
+ * used versus unused bytes per chunk and route
+ */
+public class CoverageCollector {
+    
+    private static final String ALL_ROUTES = "*";
+    private static final Queue<Sample> SAMPLES = new ConcurrentLinkedQueue<>();
+    private static final Set<String> EXECUTED_SCRIPTS = ConcurrentHashMap.newKeySet();
+    private static final Set<String> TAKEN_ROUTES = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * Sample class holds the block ranges of one script taken on one route
+     */
+    private static class Sample {
+        private final String route;
+        private final String script;
+        private final int length;
+        private final List<int[]> ranges;
+        
+        Sample(String route, String script, int length, List<int[]> ranges) {
+            this.route = route;
+            this.script = script;
+            this.length = length;
+            this.ranges = ranges;
+        }
+    }
+    
+    /**
+     * Coverage class holds the merged used bytes of one script
+     */
+    private static class Coverage {
+        private final BitSet used = new BitSet();
+        private int length;
+    }
+    
+    /**
+     * Start precise block coverage for the browser session
+     * Must run before the first navigation so that start-up code is covered
+     * @param driver WebDriver instance
+     * @return true if coverage is being collected
+     */
+    public static boolean start(WebDriver driver) {
+        if (!CdpUtils.isCdpAvailable(driver)) {
+            System.err.println("JavaScript coverage needs CDP, coverage is not collected");
+            return false;
+        }
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("callCount", false);
+        parameters.put("detailed", true);
+        CdpUtils.executeCdpCommand(driver, "Profiler.enable");
+        CdpUtils.executeCdpCommand(driver, "Profiler.startPreciseCoverage", parameters);
+        return true;
+    }
+    
+    /**
+     * Take the coverage gathered since the previous take and attribute it to a route
+     * Ranges are stored as they are; merging happens once at the end of the run
+     * @param driver WebDriver instance
+     * @param route Route pattern the code ran on
+     */
+    @SuppressWarnings("unchecked")
+    public static void take(WebDriver driver, String route) {
+        Map<String, Object> result = CdpUtils.executeCdpCommand(driver, "Profiler.takePreciseCoverage");
+        TAKEN_ROUTES.add(route);
+        for (Map<String, Object> script : (List<Map<String, Object>>) result.get("result")) {
+            String url = (String) script.get("url");
+            List<int[]> ranges = new ArrayList<>();
+            int length = 0;
+            boolean executed = false;
+            for (Map<String, Object> function : (List<Map<String, Object>>) script.get("functions")) {
+                for (Map<String, Object> range : (List<Map<String, Object>>) function.get("ranges")) {
+                    int startOffset = ((Number) range.get("startOffset")).intValue();
+                    int endOffset = ((Number) range.get("endOffset")).intValue();
+                    int count = ((Number) range.get("count")).intValue();
+                    ranges.add(new int[] {startOffset, endOffset, count});
+                    executed |= count > 0;
+                    // The script's top-level function spans the whole source
+                    length = Math.max(length, endOffset);
+                }
+            }
+            // Dev builds evaluate every module as its own webpack-internal script
+            if (executed && url != null && !url.isEmpty()) {
+                EXECUTED_SCRIPTS.add(url);
+            }
+            String name = toScriptName(url);
+            if (name != null) {
+                SAMPLES.add(new Sample(route, name, length, ranges));
+            }
+        }
+    }
+    
+    /**
+     * Get URLs of the scripts that ran since the previous drain and forget them
+     * @return Script URLs, including webpack-internal module URLs of dev builds
+     */
+    public static Set<String> drainExecutedScripts() {
+        return drain(EXECUTED_SCRIPTS);
+    }
+    
+    /**
+     * Get routes coverage was taken on since the previous drain and forget them
+     * @return Route patterns
+     */
+    public static Set<String> drainRoutes() {
+        return drain(TAKEN_ROUTES);
+    }
+    
+    /**
+     * Stop coverage collection for the browser session
+     * @param driver WebDriver instance
+     */
+    public static void stop(WebDriver driver) {
+        try {
+            CdpUtils.executeCdpCommand(driver, "Profiler.stopPreciseCoverage");
+            CdpUtils.executeCdpCommand(driver, "Profiler.disable");
+        } catch (RuntimeException e) {
+            // The browser may already be gone
+        }
+    }
+    
+    /**
+     * Merge all samples of the run and write used versus unused bytes per chunk and route
+     * Rows for route * merge every route and are sorted by unused bytes
+     * @param reportPath Destination CSV file
+     */
+    public static void writeSummary(String reportPath) {
+        if (SAMPLES.isEmpty()) {
+            return;
+        }
+        Map<String, Coverage> merged = new ConcurrentHashMap<>();
+        SAMPLES.parallelStream().forEach(sample -> {
+            BitSet used = toUsedBytes(sample.ranges);
+            for (String route : new String[] {sample.route, ALL_ROUTES}) {
+                merged.compute(route + "," + sample.script, (key, coverage) -> {
+                    Coverage target = coverage == null ? new Coverage() : coverage;
+                    target.used.or(used);
+                    target.length = Math.max(target.length, sample.length);
+                    return target;
+                });
+            }
+        });
+        
+        List<Map.Entry<String, Coverage>> rows = new ArrayList<>(merged.entrySet());
+        rows.sort(Comparator.comparing((Map.Entry<String, Coverage> row) -> !row.getKey().startsWith(ALL_ROUTES + ","))
+            .thenComparing(row -> row.getKey().substring(0, row.getKey().indexOf(',')))
+            .thenComparing(row -> row.getValue().used.cardinality() - row.getValue().length));
+        
+        new File(reportPath).getParentFile().mkdirs();
+        long totalBytes = 0;
+        long usedBytes = 0;
+        try (PrintWriter writer = new PrintWriter(reportPath)) {
+            writer.println("route,script,totalBytes,usedBytes,unusedBytes,usedPercent");
+            for (Map.Entry<String, Coverage> row : rows) {
+                int length = row.getValue().length;
+                int used = Math.min(row.getValue().used.cardinality(), length);
+                writer.printf(Locale.ROOT, "%s,%d,%d,%d,%.1f%n", row.getKey(), length, used, length - used,
+                    length == 0 ? 0 : used * 100.0 / length);
+                if (row.getKey().startsWith(ALL_ROUTES + ",")) {
+                    totalBytes += length;
+                    usedBytes += used;
+                }
+            }
+            System.out.println(String.format(Locale.ROOT, "JavaScript coverage: %.1f KB of %.1f KB used (%.1f%%)",
+                usedBytes / 1024.0, totalBytes / 1024.0, totalBytes == 0 ? 0 : usedBytes * 100.0 / totalBytes));
+            System.out.println("JavaScript coverage written: " + reportPath);
+        } catch (IOException e) {
+            System.err.println("Failed to write JavaScript coverage: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Copy a set in order and remove what was copied
+     * @param values Set filled by take
+     * @return Sorted copy
+     */
+    private static Set<String> drain(Set<String> values) {
+        Set<String> drained = new TreeSet<>();
+        for (Iterator<String> iterator = values.iterator(); iterator.hasNext(); ) {
+            drained.add(iterator.next());
+            iterator.remove();
+        }
+        return drained;
+    }
+    
+    /**
+     * Turn nested block ranges into the set of executed bytes
+     * Inner ranges override the ranges containing them, so ranges are applied from
+     * the longest to the shortest
+     * @param ranges Ranges as start offset, end offset and execution count
+     * @return Executed byte offsets
+     */
+    private static BitSet toUsedBytes(List<int[]> ranges) {
+        List<int[]> ordered = new ArrayList<>(ranges);
+        ordered.sort((a, b) -> Integer.compare(b[1] - b[0], a[1] - a[0]));
+        BitSet used = new BitSet();
+        for (int[] range : ordered) {
+            if (range[2] > 0) {
+                used.set(range[0], range[1]);
+            } else {
+                used.clear(range[0], range[1]);
+            }
+        }
+        return used;
+    }
+    
+    /**
+     * Reduce a script URL to its path on the application host
+     * @param url Script URL reported by the profiler
+     * @return Path of the script, or null for inline, eval and extension scripts
+     */
+    private static String toScriptName(String url) {
+        if (url == null || !url.startsWith("http")) {
+            return null;
+        }
+        try {
+            String path = URI.create(url).getPath();
+            // Inline scripts report the document URL; only script files can be split
+            return path == null || !path.matches(".*\\.m?js") ? null : path.replace(",", "%2C");
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
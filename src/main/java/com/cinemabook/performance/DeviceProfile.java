@@ -0,0 +1,139 @@
+package com.cinemabook.performance;
+
+import com.cinemabook.utils.CdpUtils;
+import org.openqa.selenium.WebDriver;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * DeviceProfile class emulates slower customer devices in the test browser
+ * Profiles come from device-profiles.properties and are applied through CDP
+ * Emulation.setCPUThrottlingRate and Network.emulateNetworkConditions
+ */
+public class DeviceProfile {
+    
+    public static final String DESKTOP = "desktop";
+    
+    private static final String PROFILES_FILE = "src/test/resources/device-profiles.properties";
+    
+    private final String name;
+    private final double cpuRate;
+    private final Double latencyMillis;
+    private final Double downloadKbps;
+    private final Double uploadKbps;
+    
+    /**
+     * Constructor
+     * @param name Profile name
+     * @param cpuRate CPU slowdown factor, 1 for none
+     * @param latencyMillis Added round trip latency, null for an unthrottled network
+     * @param downloadKbps Download throughput in kbit/s, null for unlimited
+     * @param uploadKbps Upload throughput in kbit/s, null for unlimited
+     */
+    public DeviceProfile(String name, double cpuRate, Double latencyMillis, Double downloadKbps, Double uploadKbps) {
+        this.name = name;
+        this.cpuRate = cpuRate;
+        this.latencyMillis = latencyMillis;
+        this.downloadKbps = downloadKbps;
+        this.uploadKbps = uploadKbps;
+    }
+    
+    /**
+     * Load a named profile from the profiles file
+     * @param name Profile name, e.g. low-end-mobile
+     * @return Device profile
+     */
+    public static DeviceProfile forName(String name) {
+        Properties profiles = new Properties();
+        try (FileInputStream fis = new FileInputStream(PROFILES_FILE)) {
+            profiles.load(fis);
+        } catch (IOException e) {
+            if (DESKTOP.equals(name)) {
+                return new DeviceProfile(DESKTOP, 1, null, null, null);
+            }
+            throw new RuntimeException("Device profile file not found: " + PROFILES_FILE);
+        }
+        
+        String cpuRate = profiles.getProperty(name + ".cpu.rate");
+        if (cpuRate == null) {
+            throw new RuntimeException("Unknown device profile: " + name);
+        }
+        return new DeviceProfile(name, Double.parseDouble(cpuRate.trim()),
+            readDouble(profiles, name + ".latency.ms"),
+            readDouble(profiles, name + ".download.kbps"),
+            readDouble(profiles, name + ".upload.kbps"));
+    }
+    
+    /**
+     * Apply CPU and network throttling to the current browser tab
+     * The settings survive navigations within the tab
+     * @param driver WebDriver instance
+     * @return true if the profile is in effect
+     */
+    public boolean apply(WebDriver driver) {
+        if (!isThrottled()) {
+            return true;
+        }
+        if (!CdpUtils.isCdpAvailable(driver)) {
+            System.err.println("Device profile " + name + " needs CDP, running unthrottled");
+            return false;
+        }
+        
+        CdpUtils.executeCdpCommand(driver, "Emulation.setCPUThrottlingRate",
+            Collections.singletonMap("rate", cpuRate));
+        if (latencyMillis != null || downloadKbps != null || uploadKbps != null) {
+            Map<String, Object> conditions = new HashMap<>();
+            conditions.put("offline", false);
+            conditions.put("latency", latencyMillis == null ? 0 : latencyMillis);
+            conditions.put("downloadThroughput", toBytesPerSecond(downloadKbps));
+            conditions.put("uploadThroughput", toBytesPerSecond(uploadKbps));
+            CdpUtils.executeCdpCommand(driver, "Network.enable");
+            CdpUtils.executeCdpCommand(driver, "Network.emulateNetworkConditions", conditions);
+        }
+        System.out.println("Device profile applied: " + this);
+        return true;
+    }
+    
+    /**
+     * Check if the profile changes anything
+     * @return true if CPU or network is throttled
+     */
+    public boolean isThrottled() {
+        return cpuRate > 1 || latencyMillis != null || downloadKbps != null || uploadKbps != null;
+    }
+    
+    /**
+     * Get profile name
+     * @return Profile name
+     */
+    public String getName() {
+        return name;
+    }
+    
+    @Override
+    public String toString() {
+        return String.format("%s (cpu %.1fx, latency %s ms, down %s kbps, up %s kbps)", name, cpuRate,
+            latencyMillis == null ? "-" : String.format("%.0f", latencyMillis),
+            downloadKbps == null ? "-" : String.format("%.0f", downloadKbps),
+            uploadKbps == null ? "-" : String.format("%.0f", uploadKbps));
+    }
+    
+    /**
+     * Convert kbit/s to the bytes per second CDP expects; -1 disables throttling
+     * @param kbps Throughput in kbit/s, may be null
+     * @return Throughput in bytes per second
+     */
+    private static double toBytesPerSecond(Double kbps) {
+        return kbps == null ? -1 : kbps * 1024 / 8;
+    }
+    
+    private static Double readDouble(Properties properties, String key) {
+        String value = properties.getProperty(key);
+        return value == null ? null : Double.valueOf(value.trim());
+    }
+}
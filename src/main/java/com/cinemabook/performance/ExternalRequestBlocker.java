@@ -0,0 +1,222 @@
+package com.cinemabook.performance;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * ExternalRequestBlocker class keeps the browser off hosts outside an allow-list
+ * Intercepts requests through the CDP Fetch domain; requests to other hosts are
+ * answered with a local placeholder (images) or an empty response, or failed
+ * outright in block mode, so offline runners never wait on e.g. images.pexels.com.
+ * Every request, local ones included, is paused and answered through the JVM, so
+ * blocking is only turned on for the suites that ask for it
+ */
+public class ExternalRequestBlocker {
+    
+    // 1x1 grey PNG used in place of external images
+    private static final String PLACEHOLDER_PNG =
+        "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR42mO8cwcAAl0BrUpHG70AAAAASUVORK5CYII=";
+    private static final Map<String, AtomicInteger> BLOCKED_BY_HOST = new ConcurrentHashMap<>();
+    private static final Map<DevTools, AtomicReference<ExternalRequestBlocker>> ACTIVE_BLOCKERS =
+        Collections.synchronizedMap(new WeakHashMap<>());
+    
+    private final Set<String> allowedHosts = new LinkedHashSet<>();
+    private final boolean stub;
+    private final AtomicInteger blocked = new AtomicInteger();
+    private DevTools devTools;
+    
+    /**
+     * Constructor
+     * @param allowedHosts Hosts the browser may reach; subdomains are allowed too
+     * @param stub true to answer blocked requests with placeholders, false to fail them
+     */
+    public ExternalRequestBlocker(Collection<String> allowedHosts, boolean stub) {
+        for (String host : allowedHosts) {
+            if (!host.trim().isEmpty()) {
+                this.allowedHosts.add(host.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        this.stub = stub;
+    }
+    
+    /**
+     * Start intercepting requests of the browser session
+     * Can be called again after stop; a session answers each request through one listener
+     * @param driver WebDriver instance
+     * @return true if interception is active, false when the browser has no DevTools
+     */
+    public boolean start(WebDriver driver) {
+        if (!(driver instanceof HasDevTools)) {
+            System.err.println("External request blocking needs DevTools, requests are not intercepted");
+            return false;
+        }
+        devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        getActiveBlocker(devTools).set(this);
+        devTools.send(new Command<>("Fetch.enable",
+            Collections.singletonMap("patterns", List.of(Collections.singletonMap("urlPattern", "*")))));
+        return true;
+    }
+    
+    /**
+     * Stop intercepting requests
+     */
+    public void stop() {
+        if (devTools == null) {
+            return;
+        }
+        DevTools session = devTools;
+        // The session listener stays registered and ignores events while no blocker is active;
+        // clearing all listeners would also drop the ones other collectors added to the session
+        getActiveBlocker(session).compareAndSet(this, null);
+        devTools = null;
+        try {
+            session.send(new Command<>("Fetch.disable", Collections.emptyMap()));
+        } catch (RuntimeException e) {
+            // The browser may already be gone
+        }
+    }
+    
+    /**
+     * Get number of requests blocked in this session
+     * @return Blocked request count
+     */
+    public int getBlockedCount() {
+        return blocked.get();
+    }
+    
+    /**
+     * Get number of requests blocked across the run
+     * @return Blocked request count
+     */
+    public static int getTotalBlockedCount() {
+        return BLOCKED_BY_HOST.values().stream().mapToInt(AtomicInteger::get).sum();
+    }
+    
+    /**
+     * Write blocked request counts per host across the run
+     * @param reportPath Destination CSV file
+     */
+    public static void writeSummary(String reportPath) {
+        if (BLOCKED_BY_HOST.isEmpty()) {
+            return;
+        }
+        new File(reportPath).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(reportPath)) {
+            writer.println("host,blockedRequests");
+            new TreeMap<>(BLOCKED_BY_HOST).forEach((host, count) -> writer.println(host + "," + count.get()));
+            System.out.println("Blocked request summary written: " + reportPath);
+        } catch (IOException e) {
+            System.err.println("Failed to write blocked request summary: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Check if a URL may be loaded
+     * @param url Request URL
+     * @return true for allowed hosts and non-network schemes
+     */
+    public boolean isAllowed(String url) {
+        URI uri;
+        try {
+            uri = URI.create(url);
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+        String host = uri.getHost();
+        if (host == null || !("http".equals(uri.getScheme()) || "https".equals(uri.getScheme()))) {
+            return true;
+        }
+        host = host.toLowerCase(Locale.ROOT);
+        for (String allowed : allowedHosts) {
+            if (host.equals(allowed) || host.endsWith("." + allowed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Get the active blocker slot of a DevTools session, adding its Fetch.requestPaused listener once
+     * @param devTools DevTools session
+     * @return Slot holding the blocker that answers paused requests, empty while none is active
+     */
+    @SuppressWarnings("unchecked")
+    private static AtomicReference<ExternalRequestBlocker> getActiveBlocker(DevTools devTools) {
+        return ACTIVE_BLOCKERS.computeIfAbsent(devTools, session -> {
+            AtomicReference<ExternalRequestBlocker> active = new AtomicReference<>();
+            session.addListener(new Event<>("Fetch.requestPaused", input -> (Map<String, Object>) input.read(Json.MAP_TYPE)),
+                event -> {
+                    ExternalRequestBlocker blocker = active.get();
+                    if (blocker != null) {
+                        blocker.handleRequest(session, event);
+                    }
+                });
+            return active;
+        });
+    }
+    
+    /**
+     * Continue, stub or fail one paused request
+     * @param session DevTools session the request was paused in
+     * @param event Fetch.requestPaused parameters
+     */
+    @SuppressWarnings("unchecked")
+    private void handleRequest(DevTools session, Map<String, Object> event) {
+        String requestId = (String) event.get("requestId");
+        String url = (String) ((Map<String, Object>) event.get("request")).get("url");
+        Map<String, Object> params = new HashMap<>();
+        params.put("requestId", requestId);
+        try {
+            if (isAllowed(url)) {
+                session.send(new Command<>("Fetch.continueRequest", params));
+                return;
+            }
+            
+            blocked.incrementAndGet();
+            BLOCKED_BY_HOST.computeIfAbsent(URI.create(url).getHost(), key -> new AtomicInteger()).incrementAndGet();
+            if (!stub) {
+                params.put("errorReason", "BlockedByClient");
+                session.send(new Command<>("Fetch.failRequest", params));
+                return;
+            }
+            boolean image = "Image".equals(event.get("resourceType"));
+            params.put("responseCode", image ? 200 : 204);
+            params.put("responseHeaders", List.of(header("Content-Type", image ? "image/png" : "text/plain"),
+                header("Access-Control-Allow-Origin", "*")));
+            params.put("body", image ? PLACEHOLDER_PNG : "");
+            session.send(new Command<>("Fetch.fulfillRequest", params));
+        } catch (RuntimeException e) {
+            System.err.println("Failed to handle intercepted request " + url + ": " + e.getMessage());
+        }
+    }
+    
+    private static Map<String, String> header(String name, String value) {
+        Map<String, String> header = new HashMap<>();
+        header.put("name", name);
+        header.put("value", value);
+        return header;
+    }
+}
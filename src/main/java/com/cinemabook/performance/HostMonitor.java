@@ -0,0 +1,174 @@
+package com.cinemabook.performance;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HostMonitor class samples host CPU and memory while a load step runs
+ * Memory is the resident set of this JVM plus every process it started, which
+ * covers the driver binaries and the browsers they launched. CPU time of child
+ * processes is taken at every sample, so processes that exit before the monitor
+ * stops are counted up to their last sample
+ */
+public class HostMonitor {
+    
+    private final List<Double> cpuSamples = new ArrayList<>();
+    private final List<Double> rssSamples = new ArrayList<>();
+    private final Map<Long, Double> childCpuAtStart = new HashMap<>();
+    private final Map<Long, Double> childCpu = new HashMap<>();
+    private ScheduledExecutorService sampler;
+    private double cpuSecondsAtStart;
+    
+    /**
+     * Start sampling in the background
+     * @param intervalMillis Sampling interval
+     */
+    public synchronized void start(long intervalMillis) {
+        cpuSamples.clear();
+        rssSamples.clear();
+        childCpu.clear();
+        childCpuAtStart.clear();
+        childCpuAtStart.putAll(getChildCpuSeconds());
+        cpuSecondsAtStart = getJvmCpuSeconds();
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "host-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(this::sample, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+    
+    /**
+     * Stop sampling and summarize
+     * @return hostCpuMean and hostCpuMax in percent, cpuSeconds used by this process tree,
+     *         rssMeanMb and rssMaxMb of this process tree
+     */
+    public Map<String, Double> stop() {
+        sampler.shutdownNow();
+        try {
+            sampler.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        sample();
+        
+        Map<String, Double> summary = new HashMap<>();
+        synchronized (this) {
+            summary.put("hostCpuMean", Stats.mean(cpuSamples));
+            summary.put("hostCpuMax", Stats.max(cpuSamples));
+            summary.put("rssMeanMb", Stats.mean(rssSamples));
+            summary.put("rssMaxMb", Stats.max(rssSamples));
+            double cpuSeconds = getJvmCpuSeconds() - cpuSecondsAtStart;
+            for (Map.Entry<Long, Double> child : childCpu.entrySet()) {
+                cpuSeconds += child.getValue() - childCpuAtStart.getOrDefault(child.getKey(), 0.0);
+            }
+            summary.put("cpuSeconds", cpuSeconds);
+        }
+        return summary;
+    }
+    
+    /**
+     * Get resident memory of this JVM and all its descendant processes
+     * Reads /proc on Linux; elsewhere only the JVM heap in use is reported
+     * @return Resident set size in MB
+     */
+    public static double getResidentSetMb() {
+        Path selfStatus = Paths.get("/proc/self/status");
+        if (!Files.isReadable(selfStatus)) {
+            Runtime runtime = Runtime.getRuntime();
+            return (runtime.totalMemory() - runtime.freeMemory()) / 1048576.0;
+        }
+        long kilobytes = readResidentKilobytes(selfStatus);
+        for (ProcessHandle process : (Iterable<ProcessHandle>) ProcessHandle.current().descendants()::iterator) {
+            kilobytes += readResidentKilobytes(Paths.get("/proc", String.valueOf(process.pid()), "status"));
+        }
+        return kilobytes / 1024.0;
+    }
+    
+    /**
+     * Get CPU time used by this JVM and all its live descendant processes
+     * @return CPU seconds
+     */
+    public static double getCpuSeconds() {
+        double seconds = getJvmCpuSeconds();
+        for (double childSeconds : getChildCpuSeconds().values()) {
+            seconds += childSeconds;
+        }
+        return seconds;
+    }
+    
+    /**
+     * Get CPU time used by this JVM
+     * @return CPU seconds, 0 when the JVM does not report it
+     */
+    private static double getJvmCpuSeconds() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime() / 1e9;
+        }
+        return 0;
+    }
+    
+    /**
+     * Get CPU time used by each live descendant process
+     * @return CPU seconds by process id
+     */
+    private static Map<Long, Double> getChildCpuSeconds() {
+        Map<Long, Double> seconds = new HashMap<>();
+        for (ProcessHandle process : (Iterable<ProcessHandle>) ProcessHandle.current().descendants()::iterator) {
+            seconds.put(process.pid(), process.info().totalCpuDuration().orElse(Duration.ZERO).toMillis() / 1000.0);
+        }
+        return seconds;
+    }
+    
+    /**
+     * Take one CPU and memory sample
+     */
+    @SuppressWarnings("deprecation")
+    private void sample() {
+        double cpu = -1;
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            cpu = ((com.sun.management.OperatingSystemMXBean) os).getSystemCpuLoad();
+        }
+        double rss = getResidentSetMb();
+        Map<Long, Double> childSeconds = getChildCpuSeconds();
+        synchronized (this) {
+            if (cpu >= 0) {
+                cpuSamples.add(cpu * 100);
+            }
+            rssSamples.add(rss);
+            childSeconds.forEach((pid, seconds) -> childCpu.merge(pid, seconds, Math::max));
+        }
+    }
+    
+    /**
+     * Read VmRSS from a /proc status file
+     * @param status Path of the status file
+     * @return Resident set size in KB, 0 when the process is gone
+     */
+    private static long readResidentKilobytes(Path status) {
+        try {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // Process exited between listing and reading
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,337 @@
+package com.cinemabook.performance;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HttpLoadGenerator class drives HTTP load against the app's routes and static chunks
+ * Supports an open model with a constant arrival rate and a closed model with a fixed
+ * number of users. Latencies are recorded per target both as seen by the client
+ * (corrected for coordinated omission) and as pure service time
+ */
+public class HttpLoadGenerator {
+    
+    public static final String STATIC_CHUNKS = "/_next/static/*";
+    
+    private static final Pattern STATIC_ASSET = Pattern.compile("/_next/static/[^\"'\\s)<>\\\\]+");
+    
+    private final String baseUrl;
+    private final Duration requestTimeout;
+    private final HttpClient client;
+    private final List<Target> targets = new ArrayList<>();
+    private final Map<String, TargetStats> stats = new LinkedHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private String model = "";
+    private long measuredNanos;
+    
+    /**
+     * Constructor - resolves the targets, expanding /_next/static/* to the chunks
+     * referenced by the other target pages
+     * @param baseUrl Base URL of the app
+     * @param targetPaths Paths to request, e.g. /, /movie/1 or /_next/static/*
+     * @param requestTimeoutMillis Timeout of a single request
+     */
+    public HttpLoadGenerator(String baseUrl, List<String> targetPaths, long requestTimeoutMillis) {
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMillis);
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(requestTimeout)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .build();
+        
+        for (String path : targetPaths) {
+            if (!path.equals(STATIC_CHUNKS)) {
+                targets.add(new Target(path, path));
+            }
+        }
+        if (targetPaths.contains(STATIC_CHUNKS)) {
+            Set<String> chunks = discoverStaticChunks();
+            if (chunks.isEmpty()) {
+                System.err.println("No static chunks found, skipping " + STATIC_CHUNKS);
+            }
+            chunks.forEach(chunk -> targets.add(new Target(STATIC_CHUNKS, chunk)));
+        }
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("No load targets configured");
+        }
+        targets.forEach(target -> stats.putIfAbsent(target.label, new TargetStats()));
+    }
+    
+    /**
+     * Create an executor that runs every task on its own virtual thread where the
+     * runtime supports it (Java 21+), otherwise on a cached platform thread pool
+     * @return Executor service
+     */
+    public static ExecutorService newWorkerExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newCachedThreadPool(runnable -> {
+                Thread thread = new Thread(runnable, "load-worker");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+    
+    /**
+     * Run an open workload: requests arrive at a constant rate regardless of how fast
+     * the server answers. Latency is measured from the intended send time, so a stalled
+     * client or server cannot hide the queueing it causes
+     * @param requestsPerSecond Arrival rate
+     * @param durationMillis Measured duration
+     * @param warmupMillis Unmeasured warm-up before the measured duration
+     */
+    public void runOpen(double requestsPerSecond, long durationMillis, long warmupMillis) throws InterruptedException {
+        model = String.format(Locale.ROOT, "open %.1f rps", requestsPerSecond);
+        long intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+        long end = measureFrom + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        
+        ExecutorService workers = newWorkerExecutor();
+        for (long request = 0; ; request++) {
+            long intended = start + request * intervalNanos;
+            if (intended >= end) {
+                break;
+            }
+            for (long delay = intended - System.nanoTime(); delay > 0; delay = intended - System.nanoTime()) {
+                LockSupport.parkNanos(delay);
+            }
+            Target target = nextTarget();
+            boolean measured = intended >= measureFrom;
+            workers.execute(() -> send(target, intended, measured, 0));
+        }
+        awaitCompletion(workers, end);
+        measuredNanos = end - measureFrom;
+    }
+    
+    /**
+     * Run a closed workload: a fixed number of users each send a request, wait for the
+     * answer and then wait for their next pacing slot. Responses slower than the pacing
+     * interval are corrected by recording the requests the user could not send
+     * @param users Number of concurrent users
+     * @param pacingMillis Interval at which each user means to send, 0 for back-to-back requests without correction
+     * @param durationMillis Measured duration
+     * @param warmupMillis Unmeasured warm-up before the measured duration
+     */
+    public void runClosed(int users, long pacingMillis, long durationMillis, long warmupMillis) throws InterruptedException {
+        model = "closed " + users + " users";
+        long pacingNanos = TimeUnit.MILLISECONDS.toNanos(pacingMillis);
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.MILLISECONDS.toNanos(warmupMillis);
+        long end = measureFrom + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        
+        ExecutorService workers = newWorkerExecutor();
+        for (int user = 0; user < users; user++) {
+            workers.execute(() -> {
+                long next = System.nanoTime();
+                while (next < end && !Thread.currentThread().isInterrupted()) {
+                    long sent = System.nanoTime();
+                    send(nextTarget(), sent, sent >= measureFrom, TimeUnit.NANOSECONDS.toMicros(pacingNanos));
+                    next = Math.max(sent + pacingNanos, System.nanoTime());
+                    for (long delay = next - System.nanoTime(); delay > 0; delay = next - System.nanoTime()) {
+                        LockSupport.parkNanos(delay);
+                    }
+                }
+            });
+        }
+        awaitCompletion(workers, end);
+        measuredNanos = end - measureFrom;
+    }
+    
+    /**
+     * Print a percentile summary per target
+     * @param out Destination stream
+     */
+    public void printSummary(PrintStream out) {
+        out.println("Load summary (" + model + ", latencies in ms)");
+        out.printf(Locale.ROOT, "%-24s %9s %7s %8s %9s %9s %9s %9s %9s %11s%n",
+            "target", "requests", "errors", "rps", "p50", "p90", "p99", "p99.9", "max", "p99 uncorr");
+        stats.forEach((label, targetStats) -> {
+            LatencyHistogram latency = targetStats.latency;
+            out.printf(Locale.ROOT, "%-24s %9d %7d %8.1f %9.2f %9.2f %9.2f %9.2f %9.2f %11.2f%n",
+                label, targetStats.service.getCount(), targetStats.errors.get(), throughput(targetStats),
+                millis(latency.percentile(50)), millis(latency.percentile(90)), millis(latency.percentile(99)),
+                millis(latency.percentile(99.9)), millis(latency.getMax()), millis(targetStats.service.percentile(99)));
+        });
+    }
+    
+    /**
+     * Write the percentile summary per target
+     * @param reportPath Destination CSV file
+     */
+    public void writeSummary(String reportPath) {
+        new File(reportPath).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(reportPath)) {
+            writer.println("model,target,requests,errors,rps,meanMs,p50Ms,p90Ms,p99Ms,p999Ms,maxMs,uncorrectedP50Ms,uncorrectedP99Ms");
+            stats.forEach((label, targetStats) -> {
+                LatencyHistogram latency = targetStats.latency;
+                writer.printf(Locale.ROOT, "%s,%s,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f,%.2f%n",
+                    model, label, targetStats.service.getCount(), targetStats.errors.get(), throughput(targetStats),
+                    latency.getMean() / 1000.0, millis(latency.percentile(50)), millis(latency.percentile(90)),
+                    millis(latency.percentile(99)), millis(latency.percentile(99.9)), millis(latency.getMax()),
+                    millis(targetStats.service.percentile(50)), millis(targetStats.service.percentile(99)));
+            });
+            System.out.println("Load summary written: " + reportPath);
+        } catch (IOException e) {
+            System.err.println("Failed to write load summary: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get resolved targets
+     * @return Request paths, static chunks expanded
+     */
+    public List<String> getTargetPaths() {
+        List<String> paths = new ArrayList<>();
+        targets.forEach(target -> paths.add(target.path));
+        return paths;
+    }
+    
+    /**
+     * Send one request and record its latency
+     * @param target Target to request
+     * @param intendedNanos Time the request was meant to be sent
+     * @param measured Whether the request falls in the measured window
+     * @param expectedIntervalMicros Pacing interval for coordinated omission correction, 0 for none
+     */
+    private void send(Target target, long intendedNanos, boolean measured, long expectedIntervalMicros) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + target.path))
+            .timeout(requestTimeout)
+            .header("Accept-Encoding", "identity")
+            .GET()
+            .build();
+        long sent = System.nanoTime();
+        boolean failed;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            failed = response.statusCode() >= 400;
+        } catch (IOException e) {
+            failed = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long done = System.nanoTime();
+        if (!measured) {
+            return;
+        }
+        
+        TargetStats targetStats = stats.get(target.label);
+        long serviceMicros = TimeUnit.NANOSECONDS.toMicros(done - sent);
+        targetStats.service.record(serviceMicros);
+        targetStats.latency.recordCorrected(TimeUnit.NANOSECONDS.toMicros(done - intendedNanos), expectedIntervalMicros);
+        if (failed) {
+            targetStats.errors.incrementAndGet();
+        }
+    }
+    
+    /**
+     * Pick the next target round robin
+     * @return Target
+     */
+    private Target nextTarget() {
+        return targets.get((int) (sequence.getAndIncrement() % targets.size()));
+    }
+    
+    /**
+     * Find the static chunks referenced by the target pages
+     * @return Chunk paths
+     */
+    private Set<String> discoverStaticChunks() {
+        Set<String> chunks = new LinkedHashSet<>();
+        List<String> pages = new ArrayList<>();
+        targets.forEach(target -> pages.add(target.path));
+        if (pages.isEmpty()) {
+            pages.add("/");
+        }
+        for (String page : pages) {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + page)).timeout(requestTimeout).GET().build();
+                Matcher matcher = STATIC_ASSET.matcher(client.send(request, HttpResponse.BodyHandlers.ofString()).body());
+                while (matcher.find()) {
+                    chunks.add(matcher.group());
+                }
+            } catch (IOException e) {
+                System.err.println("Failed to read " + page + " for static chunks: " + e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return chunks;
+    }
+    
+    /**
+     * Wait for all in-flight requests of a run
+     * Closed-model users keep sending until the end of the run, so the wait is measured from there
+     * @param workers Executor running the requests
+     * @param end System.nanoTime() at which the run stops sending
+     */
+    private void awaitCompletion(ExecutorService workers, long end) throws InterruptedException {
+        workers.shutdown();
+        long waitNanos = Math.max(0, end - System.nanoTime()) + requestTimeout.toNanos() + TimeUnit.SECONDS.toNanos(5);
+        if (!workers.awaitTermination(waitNanos, TimeUnit.NANOSECONDS)) {
+            workers.shutdownNow();
+        }
+    }
+    
+    /**
+     * Get achieved throughput of a target in the measured window
+     * @param targetStats Target statistics
+     * @return Requests per second
+     */
+    private double throughput(TargetStats targetStats) {
+        return measuredNanos == 0 ? 0 : targetStats.service.getCount() * 1e9 / measuredNanos;
+    }
+    
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+    
+    /**
+     * Request path and the label its statistics are grouped under
+     */
+    private static class Target {
+        private final String label;
+        private final String path;
+        
+        private Target(String label, String path) {
+            this.label = label;
+            this.path = path;
+        }
+    }
+    
+    /**
+     * Histograms and error count of one target
+     */
+    private static class TargetStats {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram service = new LatencyHistogram();
+        private final AtomicLong errors = new AtomicLong();
+    }
+}
@@ -0,0 +1,122 @@
+package com.cinemabook.performance;
+
+import com.cinemabook.utils.CdpUtils;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * InteractionProbe class measures the cost of a single user interaction
+ * Reports input-to-next-paint, long tasks and React commit timing for one click.
+ * The React commit hook must be in place before the app bundle loads, so the
+ * probe is installed through CDP ahead of the first navigation
+ */
+public class InteractionProbe {
+    
+    private static final String INSTALL_SCRIPT =
+        "(function() {" +
+        "  if (window.__cinemabookInteraction) { return; }" +
+        "  var probe = window.__cinemabookInteraction = { commits: [], longTasks: [], events: [], clickTime: 0, nextPaint: 0 };" +
+        "  var hook = window.__REACT_DEVTOOLS_GLOBAL_HOOK__;" +
+        "  if (!hook) {" +
+        "    hook = window.__REACT_DEVTOOLS_GLOBAL_HOOK__ = {" +
+        "      renderers: new Map(), supportsFiber: true," +
+        "      inject: function(renderer) { var id = this.renderers.size + 1; this.renderers.set(id, renderer); return id; }," +
+        "      onScheduleFiberRoot: function() {}, onCommitFiberRoot: function() {}," +
+        "      onCommitFiberUnmount: function() {}, onPostCommitFiberRoot: function() {}, checkDCE: function() {}" +
+        "    };" +
+        "  }" +
+        "  var originalCommit = hook.onCommitFiberRoot;" +
+        "  hook.onCommitFiberRoot = function(id, root) {" +
+        "    var duration = root && root.current && root.current.actualDuration;" +
+        "    probe.commits.push({ time: performance.now(), duration: typeof duration === 'number' ? duration : 0 });" +
+        "    return originalCommit.apply(this, arguments);" +
+        "  };" +
+        "  function observe(options, target) {" +
+        "    try {" +
+        "      new PerformanceObserver(function(list) {" +
+        "        list.getEntries().forEach(function(e) { probe[target].push(e.toJSON()); });" +
+        "      }).observe(options);" +
+        "    } catch (e) {}" +
+        "  }" +
+        "  observe({ type: 'longtask' }, 'longTasks');" +
+        "  observe({ type: 'event', durationThreshold: 16 }, 'events');" +
+        "})();";
+    
+    private static final String ARM_SCRIPT =
+        "var probe = window.__cinemabookInteraction;" +
+        "if (!probe) { return false; }" +
+        "probe.commits = []; probe.longTasks = []; probe.events = []; probe.clickTime = 0; probe.nextPaint = 0;" +
+        "document.addEventListener('click', function(e) {" +
+        "  probe.clickTime = e.timeStamp;" +
+        "  requestAnimationFrame(function() { setTimeout(function() { probe.nextPaint = performance.now(); }, 0); });" +
+        "}, { capture: true, once: true });" +
+        "return true;";
+    
+    private static final String READ_SCRIPT =
+        "var done = arguments[arguments.length - 1];" +
+        "var probe = window.__cinemabookInteraction;" +
+        "var settle = function(remaining) {" +
+        "  if (probe.nextPaint || remaining <= 0) {" +
+        "    setTimeout(function() {" +
+        "      var click = probe.clickTime;" +
+        "      var clicks = probe.events.filter(function(e) { return e.name === 'click' || e.name === 'pointerup'; });" +
+        "      var eventDuration = clicks.reduce(function(max, e) { return Math.max(max, e.duration); }, 0);" +
+        "      var fallback = probe.nextPaint && click ? probe.nextPaint - click : 0;" +
+        "      var longTasks = probe.longTasks.filter(function(t) { return t.startTime + t.duration >= click; });" +
+        "      var lastCommit = probe.commits.length ? probe.commits[probe.commits.length - 1].time : 0;" +
+        "      done({" +
+        "        inputToNextPaint: eventDuration || fallback," +
+        "        longTaskTotal: longTasks.reduce(function(sum, t) { return sum + t.duration; }, 0)," +
+        "        longTaskCount: longTasks.length," +
+        "        commitLatency: lastCommit && click ? lastCommit - click : 0," +
+        "        commitDuration: probe.commits.reduce(function(sum, c) { return sum + c.duration; }, 0)," +
+        "        commitCount: probe.commits.length" +
+        "      });" +
+        "    }, 50);" +
+        "  } else {" +
+        "    requestAnimationFrame(function() { settle(remaining - 1); });" +
+        "  }" +
+        "};" +
+        "settle(120);";
+    
+    /**
+     * Install the probe so it runs before the app scripts on every new document
+     * @param driver WebDriver instance
+     * @return true if the probe will be active from the next navigation
+     */
+    public static boolean install(WebDriver driver) {
+        try {
+            return CdpUtils.addScriptToEvaluateOnNewDocument(driver, INSTALL_SCRIPT);
+        } catch (Exception e) {
+            System.err.println("Failed to install interaction probe: " + e.getMessage());
+            return false;
+        }
+    }
+    
+    /**
+     * Reset the probe and listen for the next click
+     * @param driver WebDriver instance
+     * @return true if the probe is present on the current page
+     */
+    public static boolean arm(WebDriver driver) {
+        return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(ARM_SCRIPT));
+    }
+    
+    /**
+     * Wait for the interaction to settle and read its cost
+     * @param driver WebDriver instance
+     * @return Metric name to value mapping, times in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Double> read(WebDriver driver) {
+        Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(READ_SCRIPT);
+        Map<String, Double> metrics = new HashMap<>();
+        for (Map.Entry<String, Object> entry : raw.entrySet()) {
+            metrics.put(entry.getKey(), ((Number) entry.getValue()).doubleValue());
+        }
+        return metrics;
+    }
+}
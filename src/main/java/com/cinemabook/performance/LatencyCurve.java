@@ -0,0 +1,236 @@
+package com.cinemabook.performance;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * LatencyCurve class records how metrics change as a load parameter grows
+ * Samples are grouped by series and x value, e.g. seat selection size or number of
+ * stored bookings, and a log-log fit estimates the growth exponent so that
+ * quadratic behaviour shows up as an exponent close to 2
+ */
+public class LatencyCurve {
+    
+    private final String xName;
+    private final List<Sample> samples = Collections.synchronizedList(new ArrayList<>());
+    
+    /**
+     * Constructor
+     * @param xName Name of the load parameter used as CSV column header
+     */
+    public LatencyCurve(String xName) {
+        this.xName = xName;
+    }
+    
+    /**
+     * Add a sample
+     * @param series Series name, e.g. select or deselect
+     * @param x Load parameter value
+     * @param metrics Metric name to value mapping
+     */
+    public void add(String series, long x, Map<String, Double> metrics) {
+        samples.add(new Sample(series, x, new TreeMap<>(metrics)));
+    }
+    
+    /**
+     * Get the median of a metric for every x value of a series
+     * @param series Series name
+     * @param metric Metric name
+     * @return x value to median mapping in ascending x order
+     */
+    public TreeMap<Long, Double> medians(String series, String metric) {
+        return aggregate(series, metric, 50);
+    }
+    
+    /**
+     * Get a percentile of a metric for every x value of a series
+     * @param series Series name
+     * @param metric Metric name
+     * @param percentile Percentile between 0 and 100
+     * @return x value to percentile mapping in ascending x order
+     */
+    public TreeMap<Long, Double> aggregate(String series, String metric, double percentile) {
+        TreeMap<Long, List<Double>> grouped = new TreeMap<>();
+        synchronized (samples) {
+            for (Sample sample : samples) {
+                Double value = sample.metrics.get(metric);
+                if (sample.series.equals(series) && value != null) {
+                    grouped.computeIfAbsent(sample.x, key -> new ArrayList<>()).add(value);
+                }
+            }
+        }
+        TreeMap<Long, Double> result = new TreeMap<>();
+        grouped.forEach((x, values) -> result.put(x, Stats.percentile(values, percentile)));
+        return result;
+    }
+    
+    /**
+     * Estimate the growth exponent of a metric with a least squares fit in log-log space
+     * An exponent near 0 means constant cost, near 1 linear and near 2 quadratic
+     * @param series Series name
+     * @param metric Metric name
+     * @return Growth exponent, or 0 when there are fewer than two usable points
+     */
+    public double growthExponent(String series, String metric) {
+        List<double[]> points = new ArrayList<>();
+        medians(series, metric).forEach((x, value) -> {
+            if (x > 0 && value > 0) {
+                points.add(new double[]{Math.log(x), Math.log(value)});
+            }
+        });
+        if (points.size() < 2) {
+            return 0;
+        }
+        
+        double meanX = 0;
+        double meanY = 0;
+        for (double[] point : points) {
+            meanX += point[0];
+            meanY += point[1];
+        }
+        meanX /= points.size();
+        meanY /= points.size();
+        
+        double covariance = 0;
+        double variance = 0;
+        for (double[] point : points) {
+            covariance += (point[0] - meanX) * (point[1] - meanY);
+            variance += (point[0] - meanX) * (point[0] - meanX);
+        }
+        return variance == 0 ? 0 : covariance / variance;
+    }
+    
+    /**
+     * Find the knee of a rising curve, the x value after which adding load stops paying off
+     * Both axes are normalized to [0, 1] and the knee is the point furthest above the
+     * straight line between the first and the last point
+     * @param series Series name
+     * @param metric Metric name, e.g. throughput
+     * @return x value of the knee, or null when there are fewer than three points or the
+     *         curve is close to a straight line
+     */
+    public Long kneePoint(String series, String metric) {
+        TreeMap<Long, Double> curve = medians(series, metric);
+        if (curve.size() < 3) {
+            return null;
+        }
+        double minX = curve.firstKey();
+        double maxX = curve.lastKey();
+        double minY = curve.values().stream().mapToDouble(Double::doubleValue).min().orElse(0);
+        double maxY = curve.values().stream().mapToDouble(Double::doubleValue).max().orElse(0);
+        if (maxX == minX || maxY == minY) {
+            return null;
+        }
+        
+        double firstY = (curve.firstEntry().getValue() - minY) / (maxY - minY);
+        double lastY = (curve.lastEntry().getValue() - minY) / (maxY - minY);
+        Long knee = null;
+        double bestDistance = Double.NEGATIVE_INFINITY;
+        for (Map.Entry<Long, Double> point : curve.entrySet()) {
+            double x = (point.getKey() - minX) / (maxX - minX);
+            double y = (point.getValue() - minY) / (maxY - minY);
+            double distance = y - (firstY + (lastY - firstY) * x);
+            if (distance > bestDistance) {
+                bestDistance = distance;
+                knee = point.getKey();
+            }
+        }
+        return bestDistance < 0.05 ? null : knee;
+    }
+    
+    /**
+     * Write all raw samples
+     * @param reportPath Destination CSV file
+     */
+    public void writeSamples(String reportPath) {
+        TreeSet<String> metricNames = metricNames();
+        new File(reportPath).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(reportPath)) {
+            writer.println("series," + xName + "," + String.join(",", metricNames));
+            synchronized (samples) {
+                for (Sample sample : samples) {
+                    StringBuilder row = new StringBuilder(sample.series + "," + sample.x);
+                    for (String metric : metricNames) {
+                        Double value = sample.metrics.get(metric);
+                        row.append(",").append(value == null ? "" : String.format(Locale.ROOT, "%.2f", value));
+                    }
+                    writer.println(row);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write latency samples: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Write the p50/p95 curve of every metric per series and x value
+     * @param reportPath Destination CSV file
+     */
+    public void writeCurve(String reportPath) {
+        new File(reportPath).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(reportPath)) {
+            writer.println("series,metric," + xName + ",p50,p95,growthExponent");
+            for (String series : seriesNames()) {
+                for (String metric : metricNames()) {
+                    TreeMap<Long, Double> p50 = medians(series, metric);
+                    TreeMap<Long, Double> p95 = aggregate(series, metric, 95);
+                    double exponent = growthExponent(series, metric);
+                    for (Long x : p50.keySet()) {
+                        writer.printf(Locale.ROOT, "%s,%s,%d,%.2f,%.2f,%.3f%n",
+                            series, metric, x, p50.get(x), p95.get(x), exponent);
+                    }
+                }
+            }
+            System.out.println("Latency curve written: " + reportPath);
+        } catch (IOException e) {
+            System.err.println("Failed to write latency curve: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Get all metric names seen in the samples
+     * @return Sorted metric names
+     */
+    private TreeSet<String> metricNames() {
+        TreeSet<String> names = new TreeSet<>();
+        synchronized (samples) {
+            samples.forEach(sample -> names.addAll(sample.metrics.keySet()));
+        }
+        return names;
+    }
+    
+    /**
+     * Get all series names seen in the samples
+     * @return Sorted series names
+     */
+    private TreeSet<String> seriesNames() {
+        TreeSet<String> names = new TreeSet<>();
+        synchronized (samples) {
+            samples.forEach(sample -> names.add(sample.series));
+        }
+        return names;
+    }
+    
+    /**
+     * Single measurement at one load level
+     */
+    private static class Sample {
+        private final String series;
+        private final long x;
+        private final Map<String, Double> metrics;
+        
+        private Sample(String series, long x, Map<String, Double> metrics) {
+            this.series = series;
+            this.x = x;
+            this.metrics = metrics;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.cinemabook.performance;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * LatencyHistogram class records latencies in log-linear buckets
+ * Values are in microseconds with a relative error below 1%, recording is lock free
+ * so many load threads can share one histogram, and coordinated omission can be
+ * corrected by back-filling the samples a stalled client failed to send
+ */
+public class LatencyHistogram {
+    
+    private static final int SUB_BUCKETS = 128;
+    private static final int SUB_BUCKET_BITS = 7;
+    
+    private final AtomicLongArray counts = new AtomicLongArray(64 * SUB_BUCKETS);
+    private final AtomicLong totalCount = new AtomicLong();
+    private final AtomicLong totalMicros = new AtomicLong();
+    private final AtomicLong maxMicros = new AtomicLong();
+    
+    /**
+     * Record a single latency
+     * @param micros Latency in microseconds
+     */
+    public void record(long micros) {
+        long value = Math.max(0, micros);
+        counts.incrementAndGet(indexOf(value));
+        totalCount.incrementAndGet();
+        totalMicros.addAndGet(value);
+        maxMicros.accumulateAndGet(value, Math::max);
+    }
+    
+    /**
+     * Record a latency and correct for coordinated omission
+     * When a request takes longer than the interval at which requests were meant to be
+     * sent, the requests that would have been sent meanwhile are recorded as well,
+     * each with the latency it would have seen
+     * @param micros Latency in microseconds
+     * @param expectedIntervalMicros Interval between intended requests, 0 to disable correction
+     */
+    public void recordCorrected(long micros, long expectedIntervalMicros) {
+        record(micros);
+        if (expectedIntervalMicros <= 0) {
+            return;
+        }
+        for (long missing = micros - expectedIntervalMicros; missing >= expectedIntervalMicros; missing -= expectedIntervalMicros) {
+            record(missing);
+        }
+    }
+    
+    /**
+     * Get latency at a percentile
+     * @param percentile Percentile between 0 and 100
+     * @return Latency in microseconds, 0 when empty
+     */
+    public long percentile(double percentile) {
+        long total = totalCount.get();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * total));
+        long seen = 0;
+        for (int index = 0; index < counts.length(); index++) {
+            seen += counts.get(index);
+            if (seen >= rank) {
+                return Math.min(valueOf(index), maxMicros.get());
+            }
+        }
+        return maxMicros.get();
+    }
+    
+    /**
+     * Get number of recorded values
+     * @return Count including corrected values
+     */
+    public long getCount() {
+        return totalCount.get();
+    }
+    
+    /**
+     * Get mean latency
+     * @return Mean in microseconds, 0 when empty
+     */
+    public double getMean() {
+        long total = totalCount.get();
+        return total == 0 ? 0 : (double) totalMicros.get() / total;
+    }
+    
+    /**
+     * Get maximum latency
+     * @return Maximum in microseconds
+     */
+    public long getMax() {
+        return maxMicros.get();
+    }
+    
+    /**
+     * Get bucket index of a value; values below 128 are exact, above that every
+     * power of two range is split into 128 linear sub-buckets
+     * @param value Value in microseconds
+     * @return Bucket index
+     */
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >> shift) - SUB_BUCKETS);
+    }
+    
+    /**
+     * Get representative value of a bucket, the middle of its range
+     * @param index Bucket index
+     * @return Value in microseconds
+     */
+    private static long valueOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = index / SUB_BUCKETS - 1;
+        long lowest = (long) (index % SUB_BUCKETS + SUB_BUCKETS) << shift;
+        return lowest + ((1L << shift) >> 1);
+    }
+}
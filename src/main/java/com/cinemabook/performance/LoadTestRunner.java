@@ -0,0 +1,51 @@
+package com.cinemabook.performance;
+
+import com.cinemabook.utils.ConfigReader;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * LoadTestRunner class is the command line entry point of the HTTP load generator
+ * Reads the load.* settings from config.properties (overridable with -D) and runs
+ * against the locally started app: mvn -Pload compile exec:java -Dload.model=closed
+ */
+public class LoadTestRunner {
+    
+    private static final String SUMMARY_REPORT = "test-output/reports/load-summary.csv";
+    private static final List<String> LOCAL_HOSTS = Arrays.asList("localhost", "127.0.0.1", "[::1]", "::1");
+    
+    public static void main(String[] args) throws InterruptedException {
+        ConfigReader config = new ConfigReader();
+        String baseUrl = config.getProperty("load.base.url", config.getBaseUrl());
+        String host = URI.create(baseUrl).getHost();
+        if (!LOCAL_HOSTS.contains(host) && !config.getBooleanProperty("load.allow.remote", false)) {
+            throw new RuntimeException("Load generator only runs against the local app, base URL is " + baseUrl);
+        }
+        
+        List<String> targets = new ArrayList<>();
+        for (String target : config.getProperty("load.targets", "/").split(",")) {
+            targets.add(target.trim());
+        }
+        HttpLoadGenerator generator = new HttpLoadGenerator(baseUrl, targets,
+            config.getLongProperty("load.timeout.ms", 10000));
+        System.out.println("Load targets: " + generator.getTargetPaths());
+        
+        long durationMillis = config.getLongProperty("load.duration.s", 30) * 1000;
+        long warmupMillis = config.getLongProperty("load.warmup.s", 5) * 1000;
+        String model = config.getProperty("load.model", "open");
+        if (model.equalsIgnoreCase("open")) {
+            generator.runOpen(Double.parseDouble(config.getProperty("load.rate", "50")), durationMillis, warmupMillis);
+        } else if (model.equalsIgnoreCase("closed")) {
+            generator.runClosed((int) config.getLongProperty("load.users", 20),
+                config.getLongProperty("load.pacing.ms", 0), durationMillis, warmupMillis);
+        } else {
+            throw new RuntimeException("Unknown load model: " + model + ", use open or closed");
+        }
+        
+        generator.printSummary(System.out);
+        generator.writeSummary(SUMMARY_REPORT);
+    }
+}
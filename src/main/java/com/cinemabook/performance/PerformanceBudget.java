@@ -0,0 +1,109 @@
+package com.cinemabook.performance;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * PerformanceBudget class holds per-route performance limits
+ * Budgets are read from a properties file with keys of the form route.metric,
+ * falling back to default.metric when a route has no limit of its own. Keys
+ * prefixed with a device profile name override both for that profile
+ */
+public class PerformanceBudget {
+    
+    private static final String DEFAULT_KEY = "default";
+    private static final Map<String, PerformanceBudget> LOADED_BUDGETS = new ConcurrentHashMap<>();
+    
+    private final Properties budgets = new Properties();
+    private final String profile;
+    
+    /**
+     * Constructor - loads budgets from file
+     * @param budgetFilePath Path to the budget properties file
+     */
+    public PerformanceBudget(String budgetFilePath) {
+        this(budgetFilePath, null);
+    }
+    
+    /**
+     * Constructor - loads budgets from file for a device profile
+     * @param budgetFilePath Path to the budget properties file
+     * @param profile Device profile name, or null for the plain budgets
+     */
+    public PerformanceBudget(String budgetFilePath, String profile) {
+        this.profile = profile;
+        try (FileInputStream fis = new FileInputStream(budgetFilePath)) {
+            budgets.load(fis);
+        } catch (IOException e) {
+            System.err.println("Failed to load performance budget file: " + e.getMessage());
+            throw new RuntimeException("Performance budget file not found: " + budgetFilePath);
+        }
+    }
+    
+    /**
+     * Get a budget instance, loading each budget file only once per run
+     * @param budgetFilePath Path to the budget properties file
+     * @return PerformanceBudget instance
+     */
+    public static PerformanceBudget forFile(String budgetFilePath) {
+        return forFile(budgetFilePath, null);
+    }
+    
+    /**
+     * Get a budget instance for a device profile, loading each combination only once per run
+     * @param budgetFilePath Path to the budget properties file
+     * @param profile Device profile name, or null for the plain budgets
+     * @return PerformanceBudget instance
+     */
+    public static PerformanceBudget forFile(String budgetFilePath, String profile) {
+        return LOADED_BUDGETS.computeIfAbsent(budgetFilePath + "#" + profile,
+            key -> new PerformanceBudget(budgetFilePath, profile));
+    }
+    
+    /**
+     * Get the budget for a metric on a route
+     * @param route Route pattern
+     * @param metric Metric name
+     * @return Budget value, or null when the metric is not budgeted
+     */
+    public Double getBudget(String route, String metric) {
+        String value = null;
+        if (profile != null) {
+            value = budgets.getProperty(profile + "." + route + "." + metric);
+            if (value == null) {
+                value = budgets.getProperty(profile + "." + DEFAULT_KEY + "." + metric);
+            }
+        }
+        if (value == null) {
+            value = budgets.getProperty(route + "." + metric);
+        }
+        if (value == null) {
+            value = budgets.getProperty(DEFAULT_KEY + "." + metric);
+        }
+        return value == null ? null : Double.valueOf(value.trim());
+    }
+    
+    /**
+     * Check measured metrics against the route budget
+     * @param route Route pattern
+     * @param metrics Measured metric values
+     * @return Human readable violations, empty when all metrics are within budget
+     */
+    public List<String> check(String route, Map<String, Double> metrics) {
+        List<String> violations = new ArrayList<>();
+        for (Map.Entry<String, Double> metric : metrics.entrySet()) {
+            Double budget = getBudget(route, metric.getKey());
+            if (budget != null && metric.getValue() > budget) {
+                violations.add(String.format(Locale.ROOT, "%s%s %s=%.2f exceeds budget %.2f",
+                    profile == null ? "" : "[" + profile + "] ", route, metric.getKey(), metric.getValue(), budget));
+            }
+        }
+        return violations;
+    }
+}
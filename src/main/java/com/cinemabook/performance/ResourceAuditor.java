@@ -0,0 +1,400 @@
+package com.cinemabook.performance;
+
+import com.cinemabook.utils.CdpUtils;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * ResourceAuditor class records the weight of every request a route makes
+ * Reads Resource Timing entries after each page load: bytes transferred, decoded
+ * size, resource type, cache status and render-blocking status. Totals per route
+ * are checked against the performance budgets and compared with the previous run
+ */
+public class ResourceAuditor {
+    
+    public static final String[] METRICS = {"requests", "transferKb", "decodedKb", "scriptKb", "renderBlockingKb"};
+    
+    // Content hashes in chunk names change on every build, e.g. page-3f2a9c1b7d.js
+    private static final Pattern CONTENT_HASH = Pattern.compile("[-.][0-9a-fA-F]{8,}(?=[-.])");
+    private static final Map<String, Map<String, Resource>> RESOURCES_BY_ROUTE = new ConcurrentHashMap<>();
+    
+    private static final String COLLECT_SCRIPT =
+        "return performance.getEntriesByType('navigation').concat(performance.getEntriesByType('resource'))" +
+        "  .map(function(e) {" +
+        "    return {" +
+        "      url: e.name," +
+        "      initiator: e.initiatorType," +
+        "      transfer: e.transferSize || 0," +
+        "      encoded: e.encodedBodySize || 0," +
+        "      decoded: e.decodedBodySize || 0," +
+        "      delivery: e.deliveryType || ''," +
+        "      blocking: e.renderBlockingStatus || ''" +
+        "    };" +
+        "  });";
+    
+    /**
+     * Resource class holds the audited weight of one request
+     */
+    public static class Resource {
+        private final String name;
+        private final String type;
+        private final String cacheStatus;
+        private final boolean renderBlocking;
+        private final long transferBytes;
+        private final long decodedBytes;
+        
+        /**
+         * Constructor
+         * @param name Resource path with content hashes removed
+         * @param type Resource type, e.g. script or image
+         * @param cacheStatus network, cache, revalidated or opaque
+         * @param renderBlocking true if the resource blocks first render
+         * @param transferBytes Bytes transferred over the network including headers
+         * @param decodedBytes Decoded body size
+         */
+        public Resource(String name, String type, String cacheStatus, boolean renderBlocking,
+                        long transferBytes, long decodedBytes) {
+            this.name = name;
+            this.type = type;
+            this.cacheStatus = cacheStatus;
+            this.renderBlocking = renderBlocking;
+            this.transferBytes = transferBytes;
+            this.decodedBytes = decodedBytes;
+        }
+        
+        /**
+         * Get resource name
+         * @return Resource path with content hashes removed
+         */
+        public String getName() {
+            return name;
+        }
+        
+        /**
+         * Get resource type
+         * @return document, script, stylesheet, image, font, fetch or other
+         */
+        public String getType() {
+            return type;
+        }
+        
+        /**
+         * Get cache status
+         * @return network, cache, revalidated or opaque
+         */
+        public String getCacheStatus() {
+            return cacheStatus;
+        }
+        
+        /**
+         * Check if the resource blocks first render
+         * @return true if render-blocking
+         */
+        public boolean isRenderBlocking() {
+            return renderBlocking;
+        }
+        
+        /**
+         * Get bytes transferred
+         * @return Transfer size including headers, 0 when served from cache
+         */
+        public long getTransferBytes() {
+            return transferBytes;
+        }
+        
+        /**
+         * Get decoded body size
+         * @return Decoded size in bytes
+         */
+        public long getDecodedBytes() {
+            return decodedBytes;
+        }
+    }
+    
+    /**
+     * Raise the Resource Timing buffer so busy pages do not drop entries
+     * @param driver WebDriver instance
+     */
+    public static void install(WebDriver driver) {
+        try {
+            CdpUtils.addScriptToEvaluateOnNewDocument(driver, "performance.setResourceTimingBufferSize(1000);");
+        } catch (Exception e) {
+            System.err.println("Failed to raise resource timing buffer: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Audit all requests of the current document
+     * @param driver WebDriver instance
+     * @return Audited resources, the document itself first
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Resource> collect(WebDriver driver) {
+        List<Map<String, Object>> entries =
+            (List<Map<String, Object>>) ((JavascriptExecutor) driver).executeScript(COLLECT_SCRIPT);
+        List<Resource> resources = new ArrayList<>();
+        for (Map<String, Object> entry : entries) {
+            String url = (String) entry.get("url");
+            String initiator = (String) entry.get("initiator");
+            long transfer = toLong(entry.get("transfer"));
+            long encoded = toLong(entry.get("encoded"));
+            long decoded = toLong(entry.get("decoded"));
+            String type = classify(url, initiator);
+            String blocking = (String) entry.get("blocking");
+            // Browsers without renderBlockingStatus: stylesheets are the ones that always block
+            boolean renderBlocking = blocking.isEmpty() ? "stylesheet".equals(type) : "blocking".equals(blocking);
+            resources.add(new Resource(normalize(url), type,
+                cacheStatus((String) entry.get("delivery"), transfer, encoded, decoded),
+                renderBlocking && !"document".equals(type), transfer, decoded));
+        }
+        return resources;
+    }
+    
+    /**
+     * Total the weight of audited resources
+     * @param resources Audited resources
+     * @return Metric name to value mapping, sizes in KB
+     */
+    public static Map<String, Double> totals(Iterable<Resource> resources) {
+        Map<String, Double> totals = new LinkedHashMap<>();
+        for (String metric : METRICS) {
+            totals.put(metric, 0.0);
+        }
+        for (Resource resource : resources) {
+            totals.merge("requests", 1.0, Double::sum);
+            totals.merge("transferKb", resource.getTransferBytes() / 1024.0, Double::sum);
+            totals.merge("decodedKb", resource.getDecodedBytes() / 1024.0, Double::sum);
+            if ("script".equals(resource.getType())) {
+                totals.merge("scriptKb", resource.getDecodedBytes() / 1024.0, Double::sum);
+            }
+            if (resource.isRenderBlocking()) {
+                totals.merge("renderBlockingKb", resource.getDecodedBytes() / 1024.0, Double::sum);
+            }
+        }
+        return totals;
+    }
+    
+    /**
+     * Add audited resources to the run-wide aggregate
+     * Keeps the heaviest observation of each resource, so cached repeat visits do
+     * not hide what a first visit transfers
+     * @param route Route pattern the resources belong to
+     * @param resources Audited resources
+     */
+    public static void record(String route, List<Resource> resources) {
+        Map<String, Resource> routeResources = RESOURCES_BY_ROUTE.computeIfAbsent(route, key -> new ConcurrentHashMap<>());
+        for (Resource resource : resources) {
+            routeResources.merge(resource.getName(), resource, (previous, current) ->
+                current.getTransferBytes() > previous.getTransferBytes()
+                    || current.getDecodedBytes() > previous.getDecodedBytes() ? current : previous);
+        }
+    }
+    
+    /**
+     * Write the audit of this run and compare it with the audit of the previous run
+     * The previous audit is read from the detail report before it is overwritten
+     * @param reportDir Directory receiving resource-audit.csv, resource-weight-summary.csv and resource-growth.csv
+     * @param budget Budget used to annotate the summary, may be null
+     * @param topGrowers Number of growing resources to report
+     */
+    public static void writeSummary(String reportDir, PerformanceBudget budget, int topGrowers) {
+        if (RESOURCES_BY_ROUTE.isEmpty()) {
+            return;
+        }
+        new File(reportDir).mkdirs();
+        String detailPath = reportDir + "resource-audit.csv";
+        Map<String, Long> previous = readPreviousAudit(detailPath);
+        Map<String, Map<String, Resource>> routes = new TreeMap<>(RESOURCES_BY_ROUTE);
+        
+        try (PrintWriter writer = new PrintWriter(detailPath)) {
+            writer.println("route,resource,type,cacheStatus,renderBlocking,transferBytes,decodedBytes");
+            routes.forEach((route, resources) -> new TreeMap<>(resources).values().forEach(resource ->
+                writer.printf(Locale.ROOT, "%s,%s,%s,%s,%s,%d,%d%n", route, resource.getName(), resource.getType(),
+                    resource.getCacheStatus(), resource.isRenderBlocking(),
+                    resource.getTransferBytes(), resource.getDecodedBytes())));
+            System.out.println("Resource audit written: " + detailPath);
+        } catch (IOException e) {
+            System.err.println("Failed to write resource audit: " + e.getMessage());
+        }
+        
+        String summaryPath = reportDir + "resource-weight-summary.csv";
+        try (PrintWriter writer = new PrintWriter(summaryPath)) {
+            writer.println("route,metric,value,budget,overBudget,previousDecodedKb");
+            for (Map.Entry<String, Map<String, Resource>> route : routes.entrySet()) {
+                Map<String, Double> totals = totals(route.getValue().values());
+                long previousDecoded = previous.entrySet().stream()
+                    .filter(entry -> entry.getKey().startsWith(route.getKey() + ","))
+                    .mapToLong(Map.Entry::getValue).sum();
+                System.out.println(String.format(Locale.ROOT, "Resource weight for %s: %.0f requests, %.1f KB transferred, "
+                    + "%.1f KB decoded (%.1f KB script, %.1f KB render-blocking)", route.getKey(), totals.get("requests"),
+                    totals.get("transferKb"), totals.get("decodedKb"), totals.get("scriptKb"), totals.get("renderBlockingKb")));
+                for (Map.Entry<String, Double> metric : totals.entrySet()) {
+                    Double limit = budget == null ? null : budget.getBudget(route.getKey(), metric.getKey());
+                    writer.printf(Locale.ROOT, "%s,%s,%.2f,%s,%s,%s%n", route.getKey(), metric.getKey(), metric.getValue(),
+                        limit == null ? "" : limit, limit != null && metric.getValue() > limit,
+                        previous.isEmpty() ? "" : String.format(Locale.ROOT, "%.2f", previousDecoded / 1024.0));
+                }
+            }
+            System.out.println("Resource weight summary written: " + summaryPath);
+        } catch (IOException e) {
+            System.err.println("Failed to write resource weight summary: " + e.getMessage());
+        }
+        
+        if (!previous.isEmpty()) {
+            writeGrowth(reportDir + "resource-growth.csv", routes, previous, topGrowers);
+        }
+    }
+    
+    /**
+     * Write the resources that grew the most since the previous run
+     * @param reportPath Destination CSV file
+     * @param routes Resources of this run by route
+     * @param previous Decoded bytes of the previous run keyed by route,resource
+     * @param topGrowers Number of resources to report
+     */
+    private static void writeGrowth(String reportPath, Map<String, Map<String, Resource>> routes,
+                                    Map<String, Long> previous, int topGrowers) {
+        Map<String, long[]> growth = new HashMap<>();
+        routes.forEach((route, resources) -> resources.values().forEach(resource -> {
+            long before = previous.getOrDefault(route + "," + resource.getName(), 0L);
+            growth.put(route + "," + resource.getName(), new long[] {before, resource.getDecodedBytes()});
+        }));
+        List<Map.Entry<String, long[]>> growers = new ArrayList<>(growth.entrySet());
+        growers.removeIf(entry -> entry.getValue()[1] <= entry.getValue()[0]);
+        growers.sort((a, b) -> Long.compare(b.getValue()[1] - b.getValue()[0], a.getValue()[1] - a.getValue()[0]));
+        
+        try (PrintWriter writer = new PrintWriter(reportPath)) {
+            writer.println("route,resource,previousDecodedBytes,decodedBytes,growthBytes,new");
+            for (Map.Entry<String, long[]> grower : growers.subList(0, Math.min(topGrowers, growers.size()))) {
+                long before = grower.getValue()[0];
+                long after = grower.getValue()[1];
+                writer.printf(Locale.ROOT, "%s,%d,%d,%d,%s%n", grower.getKey(), before, after, after - before,
+                    !previous.containsKey(grower.getKey()));
+                System.out.println(String.format(Locale.ROOT, "Resource growth: %s +%.1f KB",
+                    grower.getKey().replace(",", " "), (after - before) / 1024.0));
+            }
+            System.out.println("Resource growth written: " + reportPath);
+        } catch (IOException e) {
+            System.err.println("Failed to write resource growth: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Read decoded sizes from the audit of the previous run
+     * @param detailPath Detail report of the previous run
+     * @return Decoded bytes keyed by route,resource; empty when there is no previous run
+     */
+    private static Map<String, Long> readPreviousAudit(String detailPath) {
+        Map<String, Long> previous = new HashMap<>();
+        if (!Files.exists(Paths.get(detailPath))) {
+            return previous;
+        }
+        try {
+            List<String> lines = Files.readAllLines(Paths.get(detailPath), StandardCharsets.UTF_8);
+            // An empty or header-only report has no previous sizes
+            if (lines.size() < 2) {
+                return previous;
+            }
+            for (String line : lines.subList(1, lines.size())) {
+                String[] columns = line.split(",");
+                if (columns.length == 7) {
+                    previous.put(columns[0] + "," + columns[1], Long.parseLong(columns[6]));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Failed to read previous resource audit: " + e.getMessage());
+        }
+        return previous;
+    }
+    
+    /**
+     * Derive the resource type from the URL and the initiator
+     * @param url Resource URL
+     * @param initiator Resource Timing initiator type
+     * @return document, script, stylesheet, image, font, fetch or other
+     */
+    private static String classify(String url, String initiator) {
+        String path = url.replaceAll("[?#].*$", "").toLowerCase(Locale.ROOT);
+        if ("navigation".equals(initiator)) {
+            return "document";
+        }
+        if ("fetch".equals(initiator) || "xmlhttprequest".equals(initiator) || url.contains("_rsc=")) {
+            return "fetch";
+        }
+        if (path.endsWith(".js") || path.endsWith(".mjs") || "script".equals(initiator)) {
+            return "script";
+        }
+        if (path.endsWith(".css")) {
+            return "stylesheet";
+        }
+        if (path.matches(".*\\.(png|jpe?g|gif|webp|avif|svg|ico)$") || "img".equals(initiator)
+            || "image".equals(initiator)) {
+            return "image";
+        }
+        if (path.matches(".*\\.(woff2?|ttf|otf)$")) {
+            return "font";
+        }
+        return "other";
+    }
+    
+    /**
+     * Derive the cache status from the transfer and body sizes
+     * @param delivery Resource Timing deliveryType where supported
+     * @param transfer Transfer size
+     * @param encoded Encoded body size
+     * @param decoded Decoded body size
+     * @return network, cache, revalidated or opaque (cross-origin without Timing-Allow-Origin)
+     */
+    private static String cacheStatus(String delivery, long transfer, long encoded, long decoded) {
+        if ("cache".equals(delivery)) {
+            return "cache";
+        }
+        if (transfer == 0) {
+            return decoded == 0 ? "opaque" : "cache";
+        }
+        return encoded > 0 && transfer < encoded ? "revalidated" : "network";
+    }
+    
+    /**
+     * Reduce a URL to a name that stays stable across builds
+     * @param url Resource URL
+     * @return Host-relative path without query string and content hashes, commas removed for CSV
+     */
+    private static String normalize(String url) {
+        String name;
+        try {
+            URI uri = URI.create(url);
+            name = uri.getPath() == null || uri.getPath().isEmpty() ? "/" : uri.getPath();
+            if (uri.getQuery() != null && uri.getQuery().contains("_rsc=")) {
+                name += "?_rsc";
+            }
+            if (!"localhost".equals(uri.getHost()) && !"127.0.0.1".equals(uri.getHost()) && uri.getHost() != null) {
+                name = "//" + uri.getHost() + name;
+            }
+        } catch (IllegalArgumentException e) {
+            name = url;
+        }
+        return CONTENT_HASH.matcher(name).replaceAll("").replace(",", "%2C");
+    }
+    
+    private static long toLong(Object value) {
+        return value instanceof Number ? ((Number) value).longValue() : 0;
+    }
+}
@@ -0,0 +1,216 @@
+package com.cinemabook.performance;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * SoftNavigationTimer class measures Next.js client-side route changes
+ * Browser navigation timing does not cover router.push transitions, so an injected
+ * history hook and mutation observer mark when the route commits and when the new
+ * content has been painted, relative to the click that triggered the transition
+ */
+public class SoftNavigationTimer {
+    
+    private static final String SAMPLES_FILE = "test-output/reports/soft-navigation-samples.csv";
+    private static final String RUN_ID = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+    
+    /**
+     * Arms the instrumentation before the triggering click. The route counts as committed
+     * when Next.js updates history, and as painted on the first frame after the DOM has
+     * been quiet for 100 ms following the commit.
+     */
+    private static final String ARM_SCRIPT =
+        "var state = window.__cinemabookSoftNav = {" +
+        "  startUrl: location.href, start: performance.now(), clicked: false, committed: 0, painted: 0" +
+        "};" +
+        "performance.mark('softnav-start');" +
+        "if (!window.__cinemabookSoftNavHooked) {" +
+        "  window.__cinemabookSoftNavHooked = true;" +
+        "  document.addEventListener('click', function(e) {" +
+        "    var s = window.__cinemabookSoftNav;" +
+        "    if (s && !s.clicked) { s.clicked = true; s.start = e.timeStamp; }" +
+        "  }, true);" +
+        "  var waitForPaint = function(s) {" +
+        "    var lastMutation = performance.now();" +
+        "    var observer = new MutationObserver(function() { lastMutation = performance.now(); });" +
+        "    observer.observe(document.body, { childList: true, subtree: true, characterData: true });" +
+        "    var frame = function() {" +
+        "      requestAnimationFrame(function() { setTimeout(function() {" +
+        "        var now = performance.now();" +
+        "        if (!s.candidate || s.candidate < lastMutation) { s.candidate = now; }" +
+        "        if (now - lastMutation >= 100) {" +
+        "          observer.disconnect();" +
+        "          s.painted = s.candidate;" +
+        "          performance.mark('softnav-painted');" +
+        "        } else { frame(); }" +
+        "      }, 0); });" +
+        "    };" +
+        "    frame();" +
+        "  };" +
+        "  var onRouteChange = function() {" +
+        "    var s = window.__cinemabookSoftNav;" +
+        "    if (s && !s.committed && location.href !== s.startUrl) {" +
+        "      s.committed = performance.now();" +
+        "      performance.mark('softnav-committed');" +
+        "      waitForPaint(s);" +
+        "    }" +
+        "  };" +
+        "  ['pushState', 'replaceState'].forEach(function(name) {" +
+        "    var original = history[name];" +
+        "    history[name] = function() {" +
+        "      var result = original.apply(this, arguments);" +
+        "      onRouteChange();" +
+        "      return result;" +
+        "    };" +
+        "  });" +
+        "  window.addEventListener('popstate', onRouteChange);" +
+        "}";
+    
+    private static final String READ_SCRIPT =
+        "var s = window.__cinemabookSoftNav;" +
+        "if (!s) { return { hardNavigation: true }; }" +
+        "return { hardNavigation: false, committed: s.committed ? s.committed - s.start : 0," +
+        "  painted: s.painted ? s.painted - s.start : 0 };";
+    
+    /**
+     * Run an action that triggers a client-side route change and record its latency
+     * The action always runs; if no soft navigation happens within the timeout the
+     * sample is dropped and the caller continues as normal
+     * @param driver WebDriver instance
+     * @param transition Transition name, e.g. "seats -> payment"
+     * @param action Action triggering the navigation
+     * @param timeoutMillis Maximum time to wait for commit and paint
+     */
+    @SuppressWarnings("unchecked")
+    public static void measure(WebDriver driver, String transition, Runnable action, long timeoutMillis) {
+        JavascriptExecutor js = (JavascriptExecutor) driver;
+        try {
+            js.executeScript(ARM_SCRIPT);
+        } catch (Exception e) {
+            System.err.println("Failed to arm soft navigation timer: " + e.getMessage());
+            action.run();
+            return;
+        }
+        
+        action.run();
+        
+        try {
+            Map<String, Object> result = new WebDriverWait(driver, Duration.ofMillis(timeoutMillis))
+                .until(d -> {
+                    Map<String, Object> state = (Map<String, Object>) js.executeScript(READ_SCRIPT);
+                    boolean finished = Boolean.TRUE.equals(state.get("hardNavigation"))
+                        || ((Number) state.get("painted")).doubleValue() > 0;
+                    return finished ? state : null;
+                });
+            if (Boolean.TRUE.equals(result.get("hardNavigation"))) {
+                System.out.println("Soft navigation timing skipped, full page load for: " + transition);
+                return;
+            }
+            recordSample(transition, ((Number) result.get("committed")).doubleValue(),
+                ((Number) result.get("painted")).doubleValue());
+        } catch (TimeoutException e) {
+            System.out.println("No client-side navigation within " + timeoutMillis + " ms for: " + transition);
+        }
+    }
+    
+    /**
+     * Append a latency sample to the samples file shared by repeated runs
+     * @param transition Transition name
+     * @param committedMillis Click to route committed latency
+     * @param paintedMillis Click to content painted latency
+     */
+    private static synchronized void recordSample(String transition, double committedMillis, double paintedMillis) {
+        File samplesFile = new File(SAMPLES_FILE);
+        samplesFile.getParentFile().mkdirs();
+        boolean writeHeader = !samplesFile.exists();
+        try (PrintWriter writer = new PrintWriter(new FileWriter(samplesFile, true))) {
+            if (writeHeader) {
+                writer.println("run,transition,committedMs,paintedMs");
+            }
+            writer.printf(Locale.ROOT, "%s,%s,%.2f,%.2f%n", RUN_ID, transition, committedMillis, paintedMillis);
+        } catch (IOException e) {
+            System.err.println("Failed to record soft navigation sample: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Write latency distributions per transition across all recorded runs
+     * @param reportPath Destination CSV file
+     */
+    public static void writeSummary(String reportPath) {
+        File samplesFile = new File(SAMPLES_FILE);
+        if (!samplesFile.exists()) {
+            return;
+        }
+        
+        Map<String, List<Double>> committed = new TreeMap<>();
+        Map<String, List<Double>> painted = new TreeMap<>();
+        Map<String, Set<String>> runs = new TreeMap<>();
+        try {
+            List<String> lines = Files.readAllLines(samplesFile.toPath(), StandardCharsets.UTF_8);
+            // An empty or header-only file has no samples
+            if (lines.size() < 2) {
+                return;
+            }
+            for (String line : lines.subList(1, lines.size())) {
+                String[] columns = line.split(",");
+                if (columns.length < 4) {
+                    continue;
+                }
+                runs.computeIfAbsent(columns[1], key -> new HashSet<>()).add(columns[0]);
+                committed.computeIfAbsent(columns[1], key -> new ArrayList<>()).add(Double.parseDouble(columns[2]));
+                painted.computeIfAbsent(columns[1], key -> new ArrayList<>()).add(Double.parseDouble(columns[3]));
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Failed to read soft navigation samples: " + e.getMessage());
+            return;
+        }
+        
+        try (PrintWriter writer = new PrintWriter(reportPath)) {
+            writer.println("transition,metric,runs,samples,p50,p90,p95,max");
+            for (String transition : committed.keySet()) {
+                writeDistribution(writer, transition, "clickToCommitted", runs.get(transition).size(), committed.get(transition));
+                writeDistribution(writer, transition, "clickToPainted", runs.get(transition).size(), painted.get(transition));
+                System.out.println("Soft navigation " + transition + ": committed " + Stats.summarize(committed.get(transition))
+                    + " | painted " + Stats.summarize(painted.get(transition)));
+            }
+            System.out.println("Soft navigation summary written: " + reportPath);
+        } catch (IOException e) {
+            System.err.println("Failed to write soft navigation summary: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Write one distribution row
+     * @param writer Report writer
+     * @param transition Transition name
+     * @param metric Metric name
+     * @param runCount Number of runs contributing samples
+     * @param samples Latency samples
+     */
+    private static void writeDistribution(PrintWriter writer, String transition, String metric, int runCount,
+                                          List<Double> samples) {
+        writer.printf(Locale.ROOT, "%s,%s,%d,%d,%.2f,%.2f,%.2f,%.2f%n", transition, metric, runCount, samples.size(),
+            Stats.percentile(samples, 50), Stats.percentile(samples, 90),
+            Stats.percentile(samples, 95), Stats.max(samples));
+    }
+}
@@ -0,0 +1,80 @@
+package com.cinemabook.performance;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Stats utility class for summarising performance samples
+ * Provides percentile and mean calculations shared by the performance collectors
+ */
+public class Stats {
+    
+    /**
+     * Calculate a percentile using the nearest-rank method
+     * @param samples Sample values
+     * @param percentile Percentile between 0 and 100
+     * @return Percentile value, or 0 when there are no samples
+     */
+    public static double percentile(Collection<Double> samples, double percentile) {
+        if (samples.isEmpty()) {
+            return 0;
+        }
+        List<Double> sorted = new ArrayList<>(samples);
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, rank - 1)));
+    }
+    
+    /**
+     * Calculate the arithmetic mean
+     * @param samples Sample values
+     * @return Mean value, or 0 when there are no samples
+     */
+    public static double mean(Collection<Double> samples) {
+        double sum = 0;
+        for (double sample : samples) {
+            sum += sample;
+        }
+        return samples.isEmpty() ? 0 : sum / samples.size();
+    }
+    
+    /**
+     * Get the largest sample
+     * @param samples Sample values
+     * @return Maximum value, or 0 when there are no samples
+     */
+    public static double max(Collection<Double> samples) {
+        return samples.isEmpty() ? 0 : Collections.max(samples);
+    }
+    
+    /**
+     * Calculate the slope of the least squares trend line through the samples
+     * @param xs Sample positions, e.g. iteration numbers
+     * @param ys Sample values at those positions
+     * @return Change of y per unit of x, or 0 with fewer than two distinct positions
+     */
+    public static double slope(List<Double> xs, List<Double> ys) {
+        double meanX = mean(xs);
+        double meanY = mean(ys);
+        double covariance = 0;
+        double variance = 0;
+        for (int i = 0; i < xs.size(); i++) {
+            covariance += (xs.get(i) - meanX) * (ys.get(i) - meanY);
+            variance += (xs.get(i) - meanX) * (xs.get(i) - meanX);
+        }
+        return variance == 0 ? 0 : covariance / variance;
+    }
+    
+    /**
+     * Format a summary line with the most commonly reported percentiles
+     * @param samples Sample values
+     * @return Summary text
+     */
+    public static String summarize(Collection<Double> samples) {
+        return String.format("n=%d p50=%.1f p75=%.1f p95=%.1f max=%.1f",
+            samples.size(), percentile(samples, 50), percentile(samples, 75),
+            percentile(samples, 95), max(samples));
+    }
+}
@@ -0,0 +1,333 @@
+package com.cinemabook.performance;
+
+import com.cinemabook.base.SeleniumGrid;
+import com.cinemabook.base.SuiteShardInterceptor;
+import com.cinemabook.utils.ConfigReader;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * SuiteModeBenchmark class compares execution strategies of the functional suite
+ * Runs the module tests of testng.xml through BaseTest under every combination of
+ * the configured modes (sequential, parallel by class, parallel by method), browser
+ * handling (fresh per method or pooled), headed or headless and UI or seeded login.
+ * Parallel modes start one TestNG JVM per worker, each running its
+ * SuiteShardInterceptor share, because BaseTest keeps one shared browser per JVM.
+ * Repeats are interleaved so drift on the machine affects every configuration alike:
+ * mvn -Psuite-benchmark test-compile exec:exec -Dsuitebench.args="suitebench.repeats=5 suitebench.headless=true"
+ */
+public class SuiteModeBenchmark {
+    
+    private static final String SUMMARY_REPORT = "test-output/reports/suite-mode-benchmark.csv";
+    private static final String RUNS_REPORT = "test-output/reports/suite-mode-runs.csv";
+    private static final String OUTPUT_DIR = "target/suite-benchmark";
+    
+    /**
+     * Mode class describes one configuration of the suite
+     */
+    private static class Mode {
+        private final String parallel;
+        private final String browsers;
+        private final boolean headless;
+        private final String login;
+        private final List<Run> runs = new ArrayList<>();
+        
+        Mode(String parallel, String browsers, boolean headless, String login) {
+            this.parallel = parallel;
+            this.browsers = browsers;
+            this.headless = headless;
+            this.login = login;
+        }
+        
+        String getName() {
+            return parallel + "/" + browsers + "/" + (headless ? "headless" : "headed") + "/" + login;
+        }
+    }
+    
+    /**
+     * Run class holds the measurements of one suite run
+     */
+    private static class Run {
+        private final double wallSeconds;
+        private final double cpuSeconds;
+        private final double peakRssMb;
+        private final Map<String, String> outcomes;
+        
+        Run(double wallSeconds, double cpuSeconds, double peakRssMb, Map<String, String> outcomes) {
+            this.wallSeconds = wallSeconds;
+            this.cpuSeconds = cpuSeconds;
+            this.peakRssMb = peakRssMb;
+            this.outcomes = outcomes;
+        }
+    }
+    
+    public static void main(String[] args) throws InterruptedException {
+        // Overrides arrive as key=value arguments since exec:exec does not pass -D on to this JVM;
+        // values may contain spaces, a new setting starts at the next key=
+        for (String arg : args) {
+            for (String setting : arg.trim().split("\\s+(?=[\\w.]+=)")) {
+                int separator = setting.indexOf('=');
+                if (separator > 0) {
+                    System.setProperty(setting.substring(0, separator), setting.substring(separator + 1));
+                }
+            }
+        }
+        ConfigReader config = new ConfigReader();
+        int repeats = (int) config.getLongProperty("suitebench.repeats", 3);
+        int workers = (int) config.getLongProperty("suitebench.workers", 0);
+        List<String> gridSettings = new ArrayList<>();
+        if (config.isGridEnabled()) {
+            // Workers share one grid, started here when embedded, and default to its slots
+            gridSettings.add("-Dgrid.url=" + SeleniumGrid.getUrl());
+            gridSettings.add("-Dgrid.embedded=false");
+            if (workers <= 0) {
+                workers = Math.max(1, SeleniumGrid.getSlots(config.getBrowser()));
+            }
+        }
+        if (workers <= 0) {
+            workers = 4;
+        }
+        long timeoutMinutes = config.getLongProperty("suitebench.timeout.min", 60);
+        String suite = config.getProperty("suitebench.suite", "src/test/resources/testng.xml");
+        String testNames = config.getProperty("suitebench.tests",
+            "Login Module Tests,Homepage Module Tests,Seat Selection Module Tests,Confirmation Module Tests");
+        
+        List<Mode> modes = new ArrayList<>();
+        for (String parallel : split(config.getProperty("suitebench.parallel", "sequential,class,method"))) {
+            for (String browsers : split(config.getProperty("suitebench.browsers", "fresh,pooled"))) {
+                for (String headless : split(config.getProperty("suitebench.headless", "false,true"))) {
+                    for (String login : split(config.getProperty("suitebench.login", "ui,seeded"))) {
+                        modes.add(new Mode(parallel, browsers, Boolean.parseBoolean(headless), login));
+                    }
+                }
+            }
+        }
+        System.out.println("Suite mode benchmark: " + modes.size() + " configurations x " + repeats + " runs of " + testNames);
+        
+        for (int repeat = 1; repeat <= repeats; repeat++) {
+            for (Mode mode : modes) {
+                int modeWorkers = mode.parallel.equalsIgnoreCase("sequential") ? 1 : workers;
+                Run run = runSuite(mode, repeat, modeWorkers, gridSettings, suite, testNames, timeoutMinutes);
+                mode.runs.add(run);
+                System.out.println(String.format(Locale.ROOT, "[%d/%d] %s: %.1f s wall, %.1f CPU-s, %.0f MB peak RSS, %d tests",
+                    repeat, repeats, mode.getName(), run.wallSeconds, run.cpuSeconds, run.peakRssMb, run.outcomes.size()));
+            }
+        }
+        
+        writeRuns(modes);
+        writeSummary(modes, System.out);
+    }
+    
+    /**
+     * Run the suite once with the settings of a configuration
+     * @param mode Configuration
+     * @param repeat Repeat number, used for the output directory
+     * @param workers Number of TestNG JVMs started side by side
+     * @param gridSettings System properties pointing the workers at the shared Selenium Grid
+     * @param suite Suite file
+     * @param testNames Comma separated test names of the suite to run
+     * @param timeoutMinutes Time after which unfinished workers are killed
+     * @return Measurements and per-test outcomes
+     */
+    private static Run runSuite(Mode mode, int repeat, int workers, List<String> gridSettings, String suite,
+            String testNames, long timeoutMinutes) throws InterruptedException {
+        String runDir = OUTPUT_DIR + "/" + mode.getName().replace('/', '-') + "/run-" + repeat;
+        HostMonitor monitor = new HostMonitor();
+        monitor.start(250);
+        long start = System.nanoTime();
+        
+        List<Process> processes = new ArrayList<>();
+        for (int worker = 0; worker < workers; worker++) {
+            List<String> command = new ArrayList<>();
+            command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add("-Dbrowser.headless=" + mode.headless);
+            command.add("-Dbrowser.reuse=" + mode.browsers.equalsIgnoreCase("pooled"));
+            command.add("-Dsession.login.seeded=" + mode.login.equalsIgnoreCase("seeded"));
+            command.addAll(gridSettings);
+            if (workers > 1) {
+                command.add("-Dsuite.shard=" + worker + "/" + workers);
+                command.add("-Dsuite.shard.by=" + mode.parallel);
+            }
+            command.add("org.testng.TestNG");
+            command.add("-d");
+            command.add(runDir + "/worker-" + worker);
+            command.add("-testnames");
+            command.add(testNames);
+            command.add("-listener");
+            command.add(SuiteShardInterceptor.class.getName());
+            command.add(suite);
+            try {
+                new File(runDir).mkdirs();
+                processes.add(new ProcessBuilder(command)
+                    .redirectErrorStream(true)
+                    .redirectOutput(new File(runDir, "worker-" + worker + ".log"))
+                    .start());
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to start suite worker: " + e.getMessage(), e);
+            }
+        }
+        
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(timeoutMinutes);
+        for (Process process : processes) {
+            long remaining = deadline - System.nanoTime();
+            if (!process.waitFor(Math.max(0, remaining), TimeUnit.NANOSECONDS)) {
+                System.err.println("Suite worker timed out after " + timeoutMinutes + " minutes, killing it");
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly();
+            }
+        }
+        double wallSeconds = (System.nanoTime() - start) / 1e9;
+        Map<String, Double> host = monitor.stop();
+        
+        Map<String, String> outcomes = new LinkedHashMap<>();
+        for (int worker = 0; worker < workers; worker++) {
+            readOutcomes(new File(runDir + "/worker-" + worker, "testng-results.xml"), outcomes);
+        }
+        return new Run(wallSeconds, host.get("cpuSeconds"), host.get("rssMaxMb"), outcomes);
+    }
+    
+    /**
+     * Read the outcome of every test method from a TestNG results file
+     * A method that ran several times counts as failed if any invocation failed
+     * @param results testng-results.xml of one worker
+     * @param outcomes Receives PASS, FAIL or SKIP by class and method name
+     */
+    private static void readOutcomes(File results, Map<String, String> outcomes) {
+        if (!results.isFile()) {
+            System.err.println("No TestNG results in " + results.getParent() + ", see the worker log");
+            return;
+        }
+        try {
+            Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(results);
+            NodeList classes = document.getElementsByTagName("class");
+            for (int i = 0; i < classes.getLength(); i++) {
+                Element testClass = (Element) classes.item(i);
+                NodeList methods = testClass.getElementsByTagName("test-method");
+                for (int j = 0; j < methods.getLength(); j++) {
+                    Element method = (Element) methods.item(j);
+                    if ("true".equals(method.getAttribute("is-config"))) {
+                        continue;
+                    }
+                    String key = testClass.getAttribute("name") + "." + method.getAttribute("name");
+                    outcomes.merge(key, method.getAttribute("status"),
+                        (previous, current) -> previous.equals("FAIL") || current.equals("FAIL") ? "FAIL" : current);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println("Failed to read " + results + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Write one row per suite run
+     * @param modes Configurations with their runs
+     */
+    private static void writeRuns(List<Mode> modes) {
+        new File(RUNS_REPORT).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(RUNS_REPORT)) {
+            writer.println("configuration,run,wallSeconds,cpuSeconds,peakRssMb,passed,failed,skipped");
+            for (Mode mode : modes) {
+                for (int run = 0; run < mode.runs.size(); run++) {
+                    Run result = mode.runs.get(run);
+                    writer.printf(Locale.ROOT, "%s,%d,%.1f,%.1f,%.0f,%d,%d,%d%n", mode.getName(), run + 1,
+                        result.wallSeconds, result.cpuSeconds, result.peakRssMb, count(result, "PASS"),
+                        count(result, "FAIL"), count(result, "SKIP"));
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write suite runs: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Write and print the comparison table, fastest median wall time first
+     * A test is flaky in a configuration when it both passed and failed across its runs
+     * @param modes Configurations with their runs
+     * @param out Stream the table is printed to
+     */
+    private static void writeSummary(List<Mode> modes, PrintStream out) {
+        List<Mode> ranked = new ArrayList<>(modes);
+        ranked.sort((a, b) -> Double.compare(median(a, run -> run.wallSeconds), median(b, run -> run.wallSeconds)));
+        
+        out.println(String.format(Locale.ROOT, "%-36s %10s %10s %12s %10s %10s", "configuration", "wall s", "CPU s",
+            "peak RSS MB", "fail %", "flake %"));
+        try (PrintWriter writer = new PrintWriter(SUMMARY_REPORT)) {
+            writer.println("configuration,parallel,browsers,headless,login,runs,wallSecondsMedian,wallSecondsMin,"
+                + "wallSecondsMax,cpuSecondsMedian,peakRssMb,tests,failRate,flakyTests,flakeRate");
+            for (Mode mode : ranked) {
+                Map<String, List<String>> history = new HashMap<>();
+                long results = 0;
+                long failures = 0;
+                for (Run run : mode.runs) {
+                    for (Map.Entry<String, String> outcome : run.outcomes.entrySet()) {
+                        if (outcome.getValue().equals("SKIP")) {
+                            continue;
+                        }
+                        history.computeIfAbsent(outcome.getKey(), key -> new ArrayList<>()).add(outcome.getValue());
+                        results++;
+                        failures += outcome.getValue().equals("FAIL") ? 1 : 0;
+                    }
+                }
+                long flaky = history.values().stream().filter(seen -> seen.contains("PASS") && seen.contains("FAIL")).count();
+                double failRate = results == 0 ? 0 : (double) failures / results;
+                double flakeRate = history.isEmpty() ? 0 : (double) flaky / history.size();
+                List<Double> wall = values(mode, run -> run.wallSeconds);
+                double peakRss = Stats.max(values(mode, run -> run.peakRssMb));
+                
+                writer.printf(Locale.ROOT, "%s,%s,%s,%b,%s,%d,%.1f,%.1f,%.1f,%.1f,%.0f,%d,%.4f,%d,%.4f%n", mode.getName(),
+                    mode.parallel, mode.browsers, mode.headless, mode.login, mode.runs.size(), median(mode, run -> run.wallSeconds),
+                    Stats.percentile(wall, 0), Stats.max(wall), median(mode, run -> run.cpuSeconds), peakRss,
+                    history.size(), failRate, flaky, flakeRate);
+                out.println(String.format(Locale.ROOT, "%-36s %10.1f %10.1f %12.0f %10.1f %10.1f", mode.getName(),
+                    median(mode, run -> run.wallSeconds), median(mode, run -> run.cpuSeconds), peakRss,
+                    failRate * 100, flakeRate * 100));
+            }
+            out.println("Suite mode benchmark written: " + SUMMARY_REPORT);
+        } catch (IOException e) {
+            System.err.println("Failed to write suite mode benchmark: " + e.getMessage());
+        }
+    }
+    
+    private static double median(Mode mode, ToDoubleFunction<Run> metric) {
+        return Stats.percentile(values(mode, metric), 50);
+    }
+    
+    private static List<Double> values(Mode mode, ToDoubleFunction<Run> metric) {
+        List<Double> values = new ArrayList<>();
+        for (Run run : mode.runs) {
+            values.add(metric.applyAsDouble(run));
+        }
+        return values;
+    }
+    
+    private static long count(Run run, String status) {
+        return run.outcomes.values().stream().filter(status::equals).count();
+    }
+    
+    private static List<String> split(String values) {
+        List<String> parts = new ArrayList<>();
+        for (String value : values.split(",")) {
+            if (!value.trim().isEmpty()) {
+                parts.add(value.trim());
+            }
+        }
+        return parts;
+    }
+}
@@ -0,0 +1,150 @@
+package com.cinemabook.performance;
+
+import com.cinemabook.utils.CdpUtils;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WebVitalsCollector class measures page load performance in the browser
+ * Records Navigation Timing, FCP, LCP, CLS, TBT and TTI after a navigation and
+ * aggregates the samples by route across the whole run
+ */
+public class WebVitalsCollector {
+    
+    public static final String[] METRICS = {"ttfb", "domContentLoaded", "load", "fcp", "lcp", "cls", "tbt", "tti"};
+    
+    private static final Map<String, Map<String, List<Double>>> SAMPLES_BY_ROUTE = new ConcurrentHashMap<>();
+    
+    /**
+     * Observer script; registered at document start through CDP where possible and
+     * re-run at collection time, relying on buffered entries for other browsers
+     */
+    private static final String OBSERVER_SCRIPT =
+        "(function() {" +
+        "  if (window.__cinemabookVitals) { return; }" +
+        "  var vitals = window.__cinemabookVitals = { lcp: 0, cls: 0, longTasks: [] };" +
+        "  function observe(type, callback) {" +
+        "    try {" +
+        "      new PerformanceObserver(function(list) { list.getEntries().forEach(callback); })" +
+        "        .observe({ type: type, buffered: true });" +
+        "    } catch (e) {}" +
+        "  }" +
+        "  observe('largest-contentful-paint', function(e) { vitals.lcp = e.renderTime || e.loadTime || e.startTime; });" +
+        "  observe('layout-shift', function(e) { if (!e.hadRecentInput) { vitals.cls += e.value; } });" +
+        "  observe('longtask', function(e) { vitals.longTasks.push([e.startTime, e.duration]); });" +
+        "})();";
+    
+    private static final String COLLECT_SCRIPT =
+        "var done = arguments[arguments.length - 1];" +
+        OBSERVER_SCRIPT +
+        "setTimeout(function() {" +
+        "  var vitals = window.__cinemabookVitals;" +
+        "  var nav = performance.getEntriesByType('navigation')[0] || {};" +
+        "  var fcpEntry = performance.getEntriesByName('first-contentful-paint')[0];" +
+        "  var fcp = fcpEntry ? fcpEntry.startTime : 0;" +
+        "  var tbt = 0;" +
+        "  var tti = nav.domContentLoadedEventEnd || 0;" +
+        "  vitals.longTasks.forEach(function(task) {" +
+        "    if (task[0] >= fcp) {" +
+        "      tbt += Math.max(0, task[1] - 50);" +
+        // Lab approximation of TTI: the main thread is idle after the last long task
+        "      tti = Math.max(tti, task[0] + task[1]);" +
+        "    }" +
+        "  });" +
+        "  done({" +
+        "    ttfb: nav.responseStart || 0," +
+        "    domContentLoaded: nav.domContentLoadedEventEnd || 0," +
+        "    load: nav.loadEventEnd || 0," +
+        "    fcp: fcp," +
+        "    lcp: vitals.lcp," +
+        "    cls: vitals.cls," +
+        "    tbt: tbt," +
+        "    tti: tti" +
+        "  });" +
+        "}, 0);";
+    
+    /**
+     * Register the observers so they run before any page script on every navigation
+     * @param driver WebDriver instance
+     */
+    public static void install(WebDriver driver) {
+        try {
+            CdpUtils.addScriptToEvaluateOnNewDocument(driver, OBSERVER_SCRIPT);
+        } catch (Exception e) {
+            System.err.println("Failed to install web vitals observers: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Collect web vitals for the current document
+     * @param driver WebDriver instance
+     * @return Metric name to value mapping, times in milliseconds
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Double> collect(WebDriver driver) {
+        Map<String, Object> raw = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(COLLECT_SCRIPT);
+        Map<String, Double> metrics = new LinkedHashMap<>();
+        for (String metric : METRICS) {
+            Object value = raw.get(metric);
+            metrics.put(metric, value instanceof Number ? ((Number) value).doubleValue() : 0.0);
+        }
+        return metrics;
+    }
+    
+    /**
+     * Add collected metrics to the run-wide aggregate
+     * @param route Route pattern the metrics belong to
+     * @param metrics Collected metrics
+     */
+    public static void record(String route, Map<String, Double> metrics) {
+        Map<String, List<Double>> routeSamples = SAMPLES_BY_ROUTE.computeIfAbsent(route, key -> new ConcurrentHashMap<>());
+        for (Map.Entry<String, Double> metric : metrics.entrySet()) {
+            routeSamples.computeIfAbsent(metric.getKey(), key -> Collections.synchronizedList(new ArrayList<>()))
+                .add(metric.getValue());
+        }
+    }
+    
+    /**
+     * Write the per-route summary of all samples recorded in this run
+     * @param reportPath Destination CSV file
+     * @param budget Budget used to annotate the summary, may be null
+     */
+    public static void writeSummary(String reportPath, PerformanceBudget budget) {
+        if (SAMPLES_BY_ROUTE.isEmpty()) {
+            return;
+        }
+        new File(reportPath).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(reportPath)) {
+            writer.println("route,metric,samples,p50,p75,p95,max,budget");
+            for (Map.Entry<String, Map<String, List<Double>>> route : new TreeMap<>(SAMPLES_BY_ROUTE).entrySet()) {
+                System.out.println("Web vitals for " + route.getKey() + ":");
+                for (String metric : METRICS) {
+                    List<Double> samples = route.getValue().get(metric);
+                    if (samples == null) {
+                        continue;
+                    }
+                    Double limit = budget == null ? null : budget.getBudget(route.getKey(), metric);
+                    writer.printf(Locale.ROOT, "%s,%s,%d,%.2f,%.2f,%.2f,%.2f,%s%n", route.getKey(), metric, samples.size(),
+                        Stats.percentile(samples, 50), Stats.percentile(samples, 75),
+                        Stats.percentile(samples, 95), Stats.max(samples), limit == null ? "" : limit);
+                    System.out.println("  " + metric + ": " + Stats.summarize(samples));
+                }
+            }
+            System.out.println("Web vitals summary written: " + reportPath);
+        } catch (IOException e) {
+            System.err.println("Failed to write web vitals summary: " + e.getMessage());
+        }
+    }
+}
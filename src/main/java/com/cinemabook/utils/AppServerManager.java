@@ -0,0 +1,247 @@
+package com.cinemabook.utils;
+
+import com.cinemabook.performance.AppRoutes;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AppServerManager class launches the app for the suite and waits until it is usable
+ * Starts the configured command (next dev or next start) on a free port, polls a
+ * readiness URL and then requests every known route in parallel, so on-demand
+ * compilation happens before the first test instead of inside it. The first
+ * request per route is timed against a second, already compiled one
+ */
+public class AppServerManager {
+    
+    private final String command;
+    private final File workingDirectory;
+    private final File logFile;
+    private final Map<String, long[]> warmUp = new LinkedHashMap<>();
+    private Process process;
+    private int port;
+    private long readyMillis;
+    
+    /**
+     * Constructor
+     * @param command Command line with {port} where the port goes, e.g. npx next dev -p {port}
+     * @param workingDirectory Directory of the app's package.json
+     * @param logFile File receiving the server output
+     */
+    public AppServerManager(String command, File workingDirectory, File logFile) {
+        this.command = command;
+        this.workingDirectory = workingDirectory;
+        this.logFile = logFile;
+    }
+    
+    /**
+     * Start the server on a free port and wait until the readiness path answers
+     * @param readyPath Path polled for readiness
+     * @param timeoutSeconds Time to wait for readiness
+     */
+    public void start(String readyPath, long timeoutSeconds) {
+        port = findFreePort();
+        List<String> commandLine = new ArrayList<>();
+        if (System.getProperty("os.name").toLowerCase(Locale.ROOT).contains("win")) {
+            // npx and npm are batch files on Windows
+            commandLine.addAll(Arrays.asList("cmd", "/c"));
+        }
+        for (String part : command.trim().split("\\s+")) {
+            commandLine.add(part.replace("{port}", String.valueOf(port)));
+        }
+        
+        logFile.getParentFile().mkdirs();
+        long start = System.nanoTime();
+        try {
+            ProcessBuilder builder = new ProcessBuilder(commandLine)
+                .directory(workingDirectory)
+                .redirectErrorStream(true)
+                .redirectOutput(logFile);
+            builder.environment().put("PORT", String.valueOf(port));
+            builder.environment().put("NEXT_TELEMETRY_DISABLED", "1");
+            process = builder.start();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start app server with '" + command + "': " + e.getMessage(), e);
+        }
+        
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(2)).build();
+        URI readyUri = URI.create(getBaseUrl() + readyPath);
+        long deadline = start + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (true) {
+            if (!process.isAlive()) {
+                throw new RuntimeException("App server exited with code " + process.exitValue() + " before it was ready: "
+                    + readLogTail());
+            }
+            try {
+                HttpResponse<Void> response = client.send(HttpRequest.newBuilder(readyUri)
+                    .timeout(Duration.ofSeconds(timeoutSeconds)).GET().build(), HttpResponse.BodyHandlers.discarding());
+                if (response.statusCode() < 500) {
+                    break;
+                }
+            } catch (IOException e) {
+                // Not listening yet
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stop();
+                throw new RuntimeException("Interrupted while waiting for the app server", e);
+            }
+            if (System.nanoTime() > deadline) {
+                stop();
+                throw new RuntimeException("App server not ready after " + timeoutSeconds + " s: " + readLogTail());
+            }
+            try {
+                Thread.sleep(250);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                stop();
+                throw new RuntimeException("Interrupted while waiting for the app server", e);
+            }
+        }
+        readyMillis = (System.nanoTime() - start) / 1000000;
+    }
+    
+    /**
+     * Request every known route in parallel, then once more to separate compile from serve time
+     * @param id Value used for dynamic route segments
+     * @param timeoutSeconds Timeout of a single request
+     * @return Wall time of the whole warm-up in milliseconds
+     */
+    public long warmRoutes(String id, long timeoutSeconds) {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(timeoutSeconds)).build();
+        List<String> paths = new ArrayList<>();
+        for (String route : AppRoutes.getRoutes()) {
+            paths.add(AppRoutes.toConcretePath(route, id));
+        }
+        
+        long start = System.nanoTime();
+        List<CompletableFuture<long[]>> first = new ArrayList<>();
+        for (String path : paths) {
+            first.add(timedGet(client, path, timeoutSeconds));
+        }
+        CompletableFuture.allOf(first.toArray(new CompletableFuture<?>[0])).join();
+        long wallMillis = (System.nanoTime() - start) / 1000000;
+        
+        for (int i = 0; i < paths.size(); i++) {
+            long[] cold = first.get(i).join();
+            long[] warm = timedGet(client, paths.get(i), timeoutSeconds).join();
+            warmUp.put(paths.get(i), new long[] {cold[0], cold[1], warm[1]});
+        }
+        return wallMillis;
+    }
+    
+    /**
+     * Write the warm-up results
+     * @param reportPath Destination CSV file
+     */
+    public void writeWarmUpReport(String reportPath) {
+        new File(reportPath).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(reportPath)) {
+            writer.println("path,status,firstRequestMs,warmRequestMs,compileMs");
+            for (Map.Entry<String, long[]> route : warmUp.entrySet()) {
+                long[] times = route.getValue();
+                writer.printf(Locale.ROOT, "%s,%d,%d,%d,%d%n", route.getKey(), times[0], times[1], times[2],
+                    Math.max(0, times[1] - times[2]));
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write app server warm-up: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Stop the server and every process it started
+     */
+    public void stop() {
+        if (process == null) {
+            return;
+        }
+        process.descendants().forEach(ProcessHandle::destroy);
+        process.destroy();
+        try {
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.descendants().forEach(ProcessHandle::destroyForcibly);
+                process.destroyForcibly();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        process = null;
+    }
+    
+    /**
+     * Get URL the server listens on
+     * @return Base URL without trailing slash
+     */
+    public String getBaseUrl() {
+        return "http://localhost:" + port;
+    }
+    
+    /**
+     * Get time from launch until the readiness path answered
+     * @return Milliseconds
+     */
+    public long getReadyMillis() {
+        return readyMillis;
+    }
+    
+    /**
+     * Get warm-up results by path
+     * @return Status, first request and warm request milliseconds per path
+     */
+    public Map<String, long[]> getWarmUp() {
+        return warmUp;
+    }
+    
+    /**
+     * Request a path and time it
+     * @param client HTTP client
+     * @param path Path to request
+     * @param timeoutSeconds Request timeout
+     * @return Status (0 on error) and milliseconds
+     */
+    private CompletableFuture<long[]> timedGet(HttpClient client, String path, long timeoutSeconds) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(getBaseUrl() + path))
+            .timeout(Duration.ofSeconds(timeoutSeconds)).GET().build();
+        long start = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+            .handle((response, error) -> new long[] {error == null ? response.statusCode() : 0,
+                (System.nanoTime() - start) / 1000000});
+    }
+    
+    /**
+     * Get the last lines the server printed
+     * @return Log tail for error messages
+     */
+    private String readLogTail() {
+        try {
+            List<String> lines = Files.readAllLines(logFile.toPath(), StandardCharsets.UTF_8);
+            return String.join(" | ", lines.subList(Math.max(0, lines.size() - 5), lines.size()));
+        } catch (IOException e) {
+            return "see " + logFile;
+        }
+    }
+    
+    private static int findFreePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new RuntimeException("No free port for the app server: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,398 @@
+package com.cinemabook.utils;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * AssetCacheProxy class is an HTTP proxy shared by every browser session of the run
+ * Listens on an ephemeral loopback port and is set as the browsers' proxy by
+ * DriverFactory. Content-hashed /_next/static assets are answered from an in-memory
+ * LRU bounded by size, so a new session with a cold HTTP cache does not download the
+ * same chunks, CSS and fonts from the app again. A 200 response is kept only when the
+ * app marks it immutable or its file name carries a content hash; next dev serves
+ * unhashed chunks that change on every recompile, and those are always forwarded.
+ * Every other request is forwarded unchanged. Concurrent misses for one asset share a
+ * single upstream request when it answers 200, otherwise each session asks the app itself
+ */
+public class AssetCacheProxy {
+    
+    private static final String CACHEABLE_PREFIX = "/_next/static/";
+    // A hex run of 8 or more between separators in the file name, e.g. page-8f2c1a3b4d5e6f70.js
+    private static final Pattern CONTENT_HASH = Pattern.compile("(^|[-.])[0-9a-f]{8,}([-.]|$)");
+    private static final Set<String> HOP_BY_HOP = new HashSet<>(Arrays.asList("connection", "keep-alive",
+        "proxy-connection", "proxy-authorization", "proxy-authenticate", "te", "trailer", "transfer-encoding",
+        "upgrade", "content-length", "host", "expect", "date", "from", "via", "warning"));
+    
+    private final long maxBytes;
+    private final LinkedHashMap<String, CachedResponse> cache = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong cacheableRequests = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+    private final AtomicLong bytesFetched = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long cachedBytes;
+    private HttpClient client;
+    private HttpServer server;
+    private ExecutorService workers;
+    
+    /**
+     * CachedResponse class holds one upstream response kept for reuse
+     */
+    private static class CachedResponse {
+        private final int status;
+        private final Map<String, List<String>> headers;
+        private final byte[] body;
+        
+        CachedResponse(int status, Map<String, List<String>> headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+    }
+    
+    /**
+     * Constructor
+     * @param maxBytes Largest total size of cached response bodies
+     */
+    public AssetCacheProxy(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+    
+    /**
+     * Start the proxy on an ephemeral loopback port
+     * @param threads Number of request handler threads
+     */
+    public void start(int threads) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "asset-cache-proxy-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start asset cache proxy: " + e.getMessage(), e);
+        }
+        server.createContext("/", this::handle);
+        server.setExecutor(workers);
+        server.start();
+    }
+    
+    /**
+     * Stop the proxy
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            workers.shutdownNow();
+            server = null;
+        }
+    }
+    
+    /**
+     * Get address browsers use as their HTTP proxy
+     * @return host:port
+     */
+    public String getAddress() {
+        return InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getAddress().getPort();
+    }
+    
+    /**
+     * Get number of proxied requests
+     * @return Request count
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+    
+    /**
+     * Get number of requests for /_next/static assets
+     * @return Cacheable request count
+     */
+    public long getCacheableRequestCount() {
+        return cacheableRequests.get();
+    }
+    
+    /**
+     * Get number of cacheable requests answered without asking the app
+     * @return Hit count
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+    
+    /**
+     * Get share of cacheable requests answered from the cache
+     * @return Hit rate between 0 and 1
+     */
+    public double getHitRate() {
+        long cacheable = cacheableRequests.get();
+        return cacheable == 0 ? 0 : (double) hits.get() / cacheable;
+    }
+    
+    /**
+     * Get response body bytes served from the cache instead of the app
+     * @return Bytes saved
+     */
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+    
+    /**
+     * Get response body bytes received from the app
+     * @return Bytes fetched upstream
+     */
+    public long getBytesFetched() {
+        return bytesFetched.get();
+    }
+    
+    /**
+     * Write the cache statistics of the run
+     * @param reportPath Destination CSV file
+     */
+    public void writeReport(String reportPath) {
+        int entries;
+        long size;
+        synchronized (cache) {
+            entries = cache.size();
+            size = cachedBytes;
+        }
+        new File(reportPath).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(reportPath)) {
+            writer.println("requests,cacheableRequests,hits,misses,hitRate,bytesSaved,bytesFetched,entries,cachedBytes,maxBytes,evictions");
+            writer.printf(Locale.ROOT, "%d,%d,%d,%d,%.4f,%d,%d,%d,%d,%d,%d%n", requests.get(), cacheableRequests.get(),
+                hits.get(), cacheableRequests.get() - hits.get(), getHitRate(), bytesSaved.get(), bytesFetched.get(),
+                entries, size, maxBytes, evictions.get());
+        } catch (IOException e) {
+            System.err.println("Failed to write asset cache report: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Answer one proxied request
+     * @param exchange HTTP exchange, the request URI is absolute as sent to a proxy
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            URI uri = exchange.getRequestURI();
+            String method = exchange.getRequestMethod();
+            if (uri.getScheme() == null || method.equals("CONNECT")) {
+                // Only plain HTTP is proxied, the app runs on http://localhost
+                exchange.sendResponseHeaders(501, -1);
+                return;
+            }
+            
+            boolean cacheable = (method.equals("GET") || method.equals("HEAD")) && uri.getPath() != null
+                && uri.getPath().startsWith(CACHEABLE_PREFIX);
+            if (!cacheable) {
+                send(exchange, forward(exchange, uri, method), "BYPASS");
+                return;
+            }
+            
+            cacheableRequests.incrementAndGet();
+            // Browsers ask for the same encodings on every request, so the encoding stays part of the key
+            String key = uri + "|" + exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            CachedResponse cached;
+            synchronized (cache) {
+                cached = cache.get(key);
+            }
+            if (cached != null) {
+                recordHit(method, cached);
+                send(exchange, cached, "HIT");
+                return;
+            }
+            
+            CompletableFuture<CachedResponse> pending = new CompletableFuture<>();
+            CompletableFuture<CachedResponse> existing = inFlight.putIfAbsent(key, pending);
+            if (existing != null) {
+                // Another session is downloading the asset right now, its answer is reused only if it is a 200
+                CachedResponse shared;
+                try {
+                    shared = existing.join();
+                } catch (CompletionException e) {
+                    shared = null;
+                }
+                if (shared != null && shared.status == 200) {
+                    recordHit(method, shared);
+                    send(exchange, shared, "HIT");
+                } else {
+                    send(exchange, forward(exchange, uri, method), "MISS");
+                }
+                return;
+            }
+            try {
+                CachedResponse response = forward(exchange, uri, "GET");
+                if (response.status == 200 && isImmutable(uri, response)) {
+                    store(key, response);
+                }
+                pending.complete(response);
+                send(exchange, response, "MISS");
+            } catch (RuntimeException | IOException e) {
+                pending.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(key);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Asset cache proxy failed for " + exchange.getRequestURI() + ": " + e.getMessage());
+            try {
+                exchange.sendResponseHeaders(502, -1);
+            } catch (IOException alreadySent) {
+                // The response has started, closing the exchange ends it
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    /**
+     * Send a request on to the app
+     * @param exchange Browser request
+     * @param uri Absolute target URI
+     * @param method Request method
+     * @return Upstream response
+     */
+    private CachedResponse forward(HttpExchange exchange, URI uri, String method) throws IOException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60));
+        for (Map.Entry<String, List<String>> header : exchange.getRequestHeaders().entrySet()) {
+            if (!HOP_BY_HOP.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                for (String value : header.getValue()) {
+                    request.header(header.getKey(), value);
+                }
+            }
+        }
+        byte[] requestBody;
+        try (InputStream in = exchange.getRequestBody()) {
+            requestBody = in.readAllBytes();
+        }
+        request.method(method, requestBody.length == 0 ? HttpRequest.BodyPublishers.noBody()
+            : HttpRequest.BodyPublishers.ofByteArray(requestBody));
+        
+        HttpResponse<byte[]> response;
+        try {
+            response = client.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while forwarding " + uri, e);
+        }
+        bytesFetched.addAndGet(response.body().length);
+        return new CachedResponse(response.statusCode(), response.headers().map(), response.body());
+    }
+    
+    /**
+     * Check if an asset can be reused for the rest of the run
+     * @param uri Asset URI
+     * @param response Upstream response
+     * @return true if the app marked it immutable or its file name carries a content hash
+     */
+    private static boolean isImmutable(URI uri, CachedResponse response) {
+        for (Map.Entry<String, List<String>> header : response.headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase("Cache-Control")) {
+                for (String value : header.getValue()) {
+                    if (value.toLowerCase(Locale.ROOT).contains("immutable")) {
+                        return true;
+                    }
+                }
+            }
+        }
+        String path = uri.getPath();
+        String name = path.substring(path.lastIndexOf('/') + 1);
+        return CONTENT_HASH.matcher(name).find();
+    }
+    
+    /**
+     * Add a response to the cache and evict the least recently used ones beyond the size limit
+     * @param key Cache key
+     * @param response Upstream response
+     */
+    private void store(String key, CachedResponse response) {
+        if (response.body.length > maxBytes) {
+            return;
+        }
+        synchronized (cache) {
+            CachedResponse replaced = cache.put(key, response);
+            cachedBytes += response.body.length - (replaced == null ? 0 : replaced.body.length);
+            Iterator<CachedResponse> eldest = cache.values().iterator();
+            while (cachedBytes > maxBytes && eldest.hasNext()) {
+                cachedBytes -= eldest.next().body.length;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+    
+    /**
+     * Count a request answered without asking the app
+     * @param method Request method, HEAD requests save no body
+     * @param response Response served
+     */
+    private void recordHit(String method, CachedResponse response) {
+        hits.incrementAndGet();
+        if (!method.equals("HEAD")) {
+            bytesSaved.addAndGet(response.body.length);
+        }
+    }
+    
+    /**
+     * Write a response to the browser
+     * @param exchange Browser request
+     * @param response Response to send
+     * @param cacheStatus HIT, MISS or BYPASS for the X-Cache header
+     */
+    private static void send(HttpExchange exchange, CachedResponse response, String cacheStatus) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        for (Map.Entry<String, List<String>> header : response.headers.entrySet()) {
+            if (!header.getKey().startsWith(":") && !HOP_BY_HOP.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                headers.put(header.getKey(), header.getValue());
+            }
+        }
+        headers.set("X-Cache", cacheStatus);
+        boolean noBody = exchange.getRequestMethod().equals("HEAD") || response.body.length == 0
+            || response.status == 204 || response.status == 304;
+        exchange.sendResponseHeaders(response.status, noBody ? -1 : response.body.length);
+        if (!noBody) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response.body);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.cinemabook.utils;
+
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * CdpUtils utility class for Chrome DevTools Protocol commands
+ * Wraps raw CDP calls so callers do not depend on a specific DevTools version
+ */
+public class CdpUtils {
+    
+    /**
+     * Check if the driver can execute CDP commands
+     * @param driver WebDriver instance
+     * @return true if the driver is Chromium based, locally or on a Selenium Grid
+     */
+    public static boolean isCdpAvailable(WebDriver driver) {
+        return driver instanceof HasCdp || isRemoteChromium(driver);
+    }
+    
+    /**
+     * Execute a CDP command
+     * @param driver WebDriver instance
+     * @param command CDP command name, e.g. Performance.getMetrics
+     * @param parameters Command parameters
+     * @return Command result
+     */
+    public static Map<String, Object> executeCdpCommand(WebDriver driver, String command, Map<String, Object> parameters) {
+        if (!isCdpAvailable(driver)) {
+            throw new UnsupportedOperationException("CDP is not supported by " + driver.getClass().getSimpleName());
+        }
+        if (driver instanceof HasCdp) {
+            return ((HasCdp) driver).executeCdpCommand(command, parameters);
+        }
+        // Grid sessions reach CDP over the DevTools connection the Augmenter added
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        return devTools.send(new Command<Map<String, Object>>(command, parameters, input -> input.read(Json.MAP_TYPE)));
+    }
+    
+    /**
+     * Execute a CDP command without parameters
+     * @param driver WebDriver instance
+     * @param command CDP command name
+     * @return Command result
+     */
+    public static Map<String, Object> executeCdpCommand(WebDriver driver, String command) {
+        return executeCdpCommand(driver, command, Collections.emptyMap());
+    }
+    
+    /**
+     * Register a script that runs before any page script on every new document
+     * @param driver WebDriver instance
+     * @param source JavaScript source to inject
+     * @return true if the script was registered, false when CDP is not available
+     */
+    public static boolean addScriptToEvaluateOnNewDocument(WebDriver driver, String source) {
+        if (!isCdpAvailable(driver)) {
+            return false;
+        }
+        Map<String, Object> parameters = new HashMap<>();
+        parameters.put("source", source);
+        executeCdpCommand(driver, "Page.addScriptToEvaluateOnNewDocument", parameters);
+        return true;
+    }
+    
+    /**
+     * Check if the driver is an augmented Chromium session on a Selenium Grid
+     * @param driver WebDriver instance
+     * @return true if CDP commands can be sent over DevTools
+     */
+    private static boolean isRemoteChromium(WebDriver driver) {
+        if (!(driver instanceof HasDevTools) || !(driver instanceof HasCapabilities)) {
+            return false;
+        }
+        String browserName = ((HasCapabilities) driver).getCapabilities().getBrowserName();
+        return "chrome".equalsIgnoreCase(browserName) || "MicrosoftEdge".equalsIgnoreCase(browserName);
+    }
+}
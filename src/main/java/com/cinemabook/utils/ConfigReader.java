@@ -2,7 +2,12 @@ package com.cinemabook.utils;
 
 import java.io.FileInputStream;
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * ConfigReader utility class for reading configuration properties
@@ -38,7 +43,7 @@ public class ConfigReader {
      * @return Base URL string
      */
     public String getBaseUrl() {
-        return properties.getProperty("base.url");
+        return getProperty("base.url");
     }
     
     /**
@@ -46,7 +51,7 @@ public class ConfigReader {
      * @return Browser name
      */
     public String getBrowser() {
-        return properties.getProperty("browser");
+        return getProperty("browser");
     }
     
     /**
@@ -54,7 +59,7 @@ public class ConfigReader {
      * @return Implicit wait timeout in seconds
      */
     public int getImplicitWait() {
-        return Integer.parseInt(properties.getProperty("implicit.wait"));
+        return Integer.parseInt(getProperty("implicit.wait"));
     }
     
     /**
@@ -62,7 +67,7 @@ public class ConfigReader {
      * @return Explicit wait timeout in seconds
      */
     public int getExplicitWait() {
-        return Integer.parseInt(properties.getProperty("explicit.wait"));
+        return Integer.parseInt(getProperty("explicit.wait"));
     }
     
     /**
@@ -70,7 +75,7 @@ public class ConfigReader {
      * @return Page load timeout in seconds
      */
     public int getPageLoadTimeout() {
-        return Integer.parseInt(properties.getProperty("page.load.timeout"));
+        return Integer.parseInt(getProperty("page.load.timeout"));
     }
     
     /**
@@ -78,7 +83,7 @@ public class ConfigReader {
      * @return Valid email address
      */
     public String getValidEmail() {
-        return properties.getProperty("valid.email");
+        return getProperty("valid.email");
     }
     
     /**
@@ -86,7 +91,7 @@ public class ConfigReader {
      * @return Valid password
      */
     public String getValidPassword() {
-        return properties.getProperty("valid.password");
+        return getProperty("valid.password");
     }
     
     /**
@@ -94,7 +99,7 @@ public class ConfigReader {
      * @return Invalid email address
      */
     public String getInvalidEmail() {
-        return properties.getProperty("invalid.email");
+        return getProperty("invalid.email");
     }
     
     /**
@@ -102,7 +107,7 @@ public class ConfigReader {
      * @return Invalid password
      */
     public String getInvalidPassword() {
-        return properties.getProperty("invalid.password");
+        return getProperty("invalid.password");
     }
     
     /**
@@ -110,7 +115,7 @@ public class ConfigReader {
      * @return Screenshot directory path
      */
     public String getScreenshotPath() {
-        return properties.getProperty("screenshot.path");
+        return getProperty("screenshot.path");
     }
     
     /**
@@ -118,7 +123,7 @@ public class ConfigReader {
      * @return Report directory path
      */
     public String getReportPath() {
-        return properties.getProperty("report.path");
+        return getProperty("report.path");
     }
     
     /**
@@ -127,6 +132,352 @@ public class ConfigReader {
      * @return Property value
      */
     public String getProperty(String key) {
-        return properties.getProperty(key);
+        // System properties take precedence so modes can be switched from the command line
+        String override = System.getProperty(key);
+        return override != null ? override : properties.getProperty(key);
     }
-}
\ No newline at end of file
+    
+    /**
+     * Get keys of every configured property
+     * @return Property keys of the configuration file in sorted order
+     */
+    public Set<String> getPropertyNames() {
+        return new TreeSet<>(properties.stringPropertyNames());
+    }
+    
+    /**
+     * Get property value by key with a fallback
+     * @param key Property key
+     * @param defaultValue Value returned when the key is not configured
+     * @return Property value
+     */
+    public String getProperty(String key, String defaultValue) {
+        String value = getProperty(key);
+        return value == null || value.trim().isEmpty() ? defaultValue : value.trim();
+    }
+    
+    /**
+     * Get boolean property value by key with a fallback
+     * @param key Property key
+     * @param defaultValue Value returned when the key is not configured
+     * @return Property value as boolean
+     */
+    public boolean getBooleanProperty(String key, boolean defaultValue) {
+        return Boolean.parseBoolean(getProperty(key, String.valueOf(defaultValue)));
+    }
+    
+    /**
+     * Get numeric property value by key with a fallback
+     * @param key Property key
+     * @param defaultValue Value returned when the key is not configured
+     * @return Property value as long
+     */
+    public long getLongProperty(String key, long defaultValue) {
+        return Long.parseLong(getProperty(key, String.valueOf(defaultValue)));
+    }
+    
+    /**
+     * Get comma separated integers in ascending order
+     * @param key Property key
+     * @param defaultValue Value used when the property is not set
+     * @return Sorted integers
+     */
+    public List<Integer> getSortedIntegerListProperty(String key, String defaultValue) {
+        List<Integer> values = new ArrayList<>();
+        for (String value : getProperty(key, defaultValue).split(",")) {
+            values.add(Integer.parseInt(value.trim()));
+        }
+        Collections.sort(values);
+        return values;
+    }
+    
+    /**
+     * Get test data workbook path
+     * @return Path to the .xlsx file read by the Excel data providers
+     */
+    public String getTestDataFile() {
+        return getProperty("test.data.file", "src/test/resources/testdata/cinemabook-testdata.xlsx");
+    }
+    
+    /**
+     * Check if the suite should serve a prebuilt static export of the app itself
+     * @return true to start the embedded server and point base.url at it
+     */
+    public boolean isStaticAppServerEnabled() {
+        return getBooleanProperty("app.static.enabled", false);
+    }
+    
+    /**
+     * Get directory of the prebuilt static export
+     * @return Export directory
+     */
+    public String getStaticAppDirectory() {
+        return getProperty("app.static.dir", "out");
+    }
+    
+    /**
+     * Check if the suite should launch the app itself
+     * @return true to start the configured app server command and point base.url at it
+     */
+    public boolean isManagedAppServerEnabled() {
+        return getBooleanProperty("app.server.enabled", false);
+    }
+    
+    /**
+     * Get command that launches the app
+     * @return Command line, {port} is replaced with a free port
+     */
+    public String getAppServerCommand() {
+        return getProperty("app.server.command", "npx next dev -p {port}");
+    }
+    
+    /**
+     * Check if the shared browser should run without a window
+     * @return true for headless sessions
+     */
+    public boolean isHeadless() {
+        return getBooleanProperty("browser.headless", false);
+    }
+    
+    /**
+     * Check if the shared browser should be kept open between test methods
+     * @return true to reset and reuse the session, false to start a fresh browser per method
+     */
+    public boolean isBrowserReuseEnabled() {
+        return getBooleanProperty("browser.reuse", false);
+    }
+    
+    /**
+     * Check if tests that need a logged in user should seed the session instead of using the login form
+     * @return true to seed the user into localStorage
+     */
+    public boolean isSeededLoginEnabled() {
+        return getBooleanProperty("session.login.seeded", false);
+    }
+    
+    /**
+     * Check if tests with a shared flow prefix should fork from a checkpoint of its end state
+     * @return true to run each prefix once and restore it in later tests
+     */
+    public boolean isFlowCheckpointEnabled() {
+        return getBooleanProperty("session.checkpoint.enabled", false);
+    }
+    
+    /**
+     * Check if named storage snapshots should be saved to and restored from session.snapshot.dir
+     * @return true to keep snapshots across runs and workers
+     */
+    public boolean isStorageSnapshotEnabled() {
+        return getBooleanProperty("session.snapshot.enabled", false);
+    }
+    
+    /**
+     * Check if browsers should load /_next/static assets through the shared in-JVM cache
+     * @return true to start the asset cache proxy and set it on every session
+     */
+    public boolean isAssetCacheProxyEnabled() {
+        return getBooleanProperty("asset.proxy.enabled", false);
+    }
+    
+    /**
+     * Check if Chrome sessions should start from a clone of a profile warmed at suite start
+     * @return true to build the profile template and clone it per session
+     */
+    public boolean isProfileTemplateEnabled() {
+        return getBooleanProperty("browser.profile.template.enabled", false);
+    }
+    
+    /**
+     * Check if browser sessions should be created on a Selenium Grid
+     * @return true for RemoteWebDriver sessions, false for local drivers
+     */
+    public boolean isGridEnabled() {
+        return getBooleanProperty("grid.enabled", false);
+    }
+    
+    /**
+     * Get Selenium Grid hub URL
+     * @return Grid URL, unused when grid.embedded starts a grid in the test JVM
+     */
+    public String getGridUrl() {
+        return getProperty("grid.url", "http://localhost:4444");
+    }
+    
+    /**
+     * Check if failure bundles should be captured for failed tests
+     * @return true if failure bundles are enabled
+     */
+    public boolean isFailureBundleEnabled() {
+        return getBooleanProperty("failure.bundle.enabled", true);
+    }
+    
+    /**
+     * Get hard time budget for collecting a failure bundle
+     * @return Collection timeout in milliseconds
+     */
+    public long getFailureBundleTimeout() {
+        return getLongProperty("failure.bundle.timeout.ms", 5000);
+    }
+    
+    /**
+     * Check if web vitals should be collected after each navigation
+     * @return true if web vitals collection is enabled
+     */
+    public boolean isWebVitalsEnabled() {
+        return getBooleanProperty("perf.vitals.enabled", true);
+    }
+    
+    /**
+     * Check if exceeding a performance budget should fail the test
+     * Off by default so local runs on slower machines only report budgets; CI turns it on
+     * @return true if budgets are enforced
+     */
+    public boolean isPerformanceBudgetEnforced() {
+        return getBooleanProperty("perf.budget.enforce", false);
+    }
+    
+    /**
+     * Check if the requests of each page should be audited for weight
+     * @return true if the resource audit is enabled
+     */
+    public boolean isResourceAuditEnabled() {
+        return getBooleanProperty("perf.resources.enabled", true);
+    }
+    
+    /**
+     * Check if exceeding a resource weight budget should fail the test
+     * @return true if weight budgets are enforced
+     */
+    public boolean isResourceBudgetEnforced() {
+        return getBooleanProperty("perf.resources.enforce", false);
+    }
+    
+    /**
+     * Check if JavaScript coverage should be collected for every session
+     * @return true if coverage collection is enabled
+     */
+    public boolean isCoverageEnabled() {
+        return getBooleanProperty("perf.coverage.enabled", false);
+    }
+    
+    /**
+     * Get performance budget file path
+     * @return Budget properties file path
+     */
+    public String getPerformanceBudgetFile() {
+        return getProperty("perf.budget.file", "src/test/resources/performance-budgets.properties");
+    }
+    
+    /**
+     * Get device profile emulated during the run
+     * @return Profile name from device-profiles.properties
+     */
+    public String getDeviceProfile() {
+        return getProperty("perf.device.profile", "desktop");
+    }
+    
+    /**
+     * Check if requests to hosts outside the allow-list should be intercepted in every suite
+     * Suites passing an allowedHosts parameter turn blocking on for themselves
+     * @return true if external request blocking is enabled
+     */
+    public boolean isExternalRequestBlockingEnabled() {
+        return getBooleanProperty("net.block.enabled", false);
+    }
+    
+    /**
+     * Check if blocked requests should be answered with placeholders instead of failing
+     * @return true in stub mode, false in block mode
+     */
+    public boolean isExternalRequestStubbingEnabled() {
+        return "stub".equalsIgnoreCase(getProperty("net.block.mode", "stub"));
+    }
+    
+    /**
+     * Get hosts the browser may reach when no suite allow-list is given
+     * @return Comma separated host names
+     */
+    public String getAllowedHosts() {
+        return getProperty("net.allowed.hosts", "localhost,127.0.0.1");
+    }
+    
+    /**
+     * Check if client-side route changes should be timed
+     * @return true if soft navigation timing is enabled
+     */
+    public boolean isSoftNavigationTimingEnabled() {
+        return getBooleanProperty("perf.softnav.enabled", false);
+    }
+    
+    /**
+     * Get maximum time to wait for a soft navigation to commit and paint
+     * @return Timeout in milliseconds
+     */
+    public long getSoftNavigationTimeout() {
+        return getLongProperty("perf.softnav.timeout.ms", 10000);
+    }
+    
+    /**
+     * Check if the seat click latency benchmark should run
+     * @return true if the seat click benchmark is enabled
+     */
+    public boolean isSeatClickBenchmarkEnabled() {
+        return getBooleanProperty("perf.seatbench.enabled", false);
+    }
+    
+    /**
+     * Get number of select/deselect sweeps for the seat click benchmark
+     * @return Number of iterations
+     */
+    public int getSeatClickBenchmarkIterations() {
+        return (int) getLongProperty("perf.seatbench.iterations", 5);
+    }
+    
+    /**
+     * Get largest selection size for the seat click benchmark
+     * @return Maximum number of selected seats, the app allows 10 per booking
+     */
+    public int getSeatClickBenchmarkMaxSelection() {
+        return (int) getLongProperty("perf.seatbench.max.selection", 10);
+    }
+    
+    /**
+     * Check if the booking history scalability test should run
+     * @return true if the scalability test is enabled
+     */
+    public boolean isScalabilityTestEnabled() {
+        return getBooleanProperty("perf.scale.enabled", false);
+    }
+    
+    /**
+     * Get booking history sizes to measure
+     * @return Sizes in ascending order
+     */
+    public List<Integer> getScalabilitySizes() {
+        return getSortedIntegerListProperty("perf.scale.sizes", "1000,10000,100000");
+    }
+    
+    /**
+     * Get maximum time a page may take to render a seeded booking history
+     * @return Timeout in milliseconds
+     */
+    public long getScalabilityRenderTimeout() {
+        return getLongProperty("perf.scale.render.timeout.ms", 60000);
+    }
+    
+    /**
+     * Check if the concurrent booking throughput test should run
+     * @return true if the throughput test is enabled
+     */
+    public boolean isBookingThroughputEnabled() {
+        return getBooleanProperty("perf.throughput.enabled", false);
+    }
+    
+    /**
+     * Get numbers of concurrent browser sessions to step through
+     * @return Session counts in ascending order
+     */
+    public List<Integer> getThroughputSessionLevels() {
+        return getSortedIntegerListProperty("perf.throughput.sessions", "1,2,4,8");
+    }
+}
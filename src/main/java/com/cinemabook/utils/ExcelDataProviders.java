@@ -0,0 +1,74 @@
+package com.cinemabook.utils;
+
+import org.testng.annotations.DataProvider;
+
+import java.lang.reflect.Method;
+import java.util.Iterator;
+
+/**
+ * ExcelDataProviders class exposes the QA spreadsheets as TestNG data providers
+ * Each provider reads one sheet of the test data workbook and converts its
+ * columns to the parameter types of the requesting test method. Every sheet has two
+ * providers:
+ * - loginCredentials, seatSelections: parallel. TestNG turns all rows of a parallel
+ *   provider into worker tasks up front, so the sheet's rows are in memory together.
+ *   Use them for the small sheets that ship with the suite
+ * - loginCredentialsStreamed, seatSelectionsStreamed: sequential. TestNG pulls one row
+ *   per invocation, so only the reader's bounded queue is held. Use them for large
+ *   sheets (thousands of rows and up), trading parallel rows for flat memory
+ */
+public class ExcelDataProviders {
+    
+    public static final String LOGIN_SHEET = "login";
+    public static final String SEATS_SHEET = "seats";
+    
+    /**
+     * Login scenarios: email, password and whether the login should succeed
+     * @param method Test method receiving the rows
+     * @return Iterator over the sheet rows
+     */
+    @DataProvider(name = "loginCredentials", parallel = true)
+    public static Iterator<Object[]> loginCredentials(Method method) {
+        return sheet(LOGIN_SHEET, method);
+    }
+    
+    /**
+     * Seat scenarios: seats to select and the selection the app should keep
+     * @param method Test method receiving the rows
+     * @return Iterator over the sheet rows
+     */
+    @DataProvider(name = "seatSelections", parallel = true)
+    public static Iterator<Object[]> seatSelections(Method method) {
+        return sheet(SEATS_SHEET, method);
+    }
+    
+    /**
+     * Login scenarios read one row per invocation, for large sheets
+     * @param method Test method receiving the rows
+     * @return Iterator over the sheet rows
+     */
+    @DataProvider(name = "loginCredentialsStreamed")
+    public static Iterator<Object[]> loginCredentialsStreamed(Method method) {
+        return sheet(LOGIN_SHEET, method);
+    }
+    
+    /**
+     * Seat scenarios read one row per invocation, for large sheets
+     * @param method Test method receiving the rows
+     * @return Iterator over the sheet rows
+     */
+    @DataProvider(name = "seatSelectionsStreamed")
+    public static Iterator<Object[]> seatSelectionsStreamed(Method method) {
+        return sheet(SEATS_SHEET, method);
+    }
+    
+    /**
+     * Read a sheet of the configured workbook typed for a test method
+     * @param sheetName Sheet to read
+     * @param method Test method whose parameter types define the columns
+     * @return Lazy iterator over the sheet rows
+     */
+    private static Iterator<Object[]> sheet(String sheetName, Method method) {
+        return ExcelDataReader.stream(new ConfigReader().getTestDataFile(), sheetName, method.getParameterTypes());
+    }
+}
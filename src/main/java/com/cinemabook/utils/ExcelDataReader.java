@@ -0,0 +1,226 @@
+package com.cinemabook.utils;
+
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * ExcelDataReader class streams test data rows from an .xlsx sheet
+ * Parses the sheet with the POI event (SAX) API on a background thread and hands
+ * rows over through a small bounded queue, so the workbook is never loaded as a
+ * whole. A sequential consumer (the *Streamed providers) holds only a few rows at a
+ * time; a parallel TestNG data provider drains the iterator into worker tasks before
+ * the first row runs, so there every converted row is held until the test method finishes.
+ * The first row is a header and is skipped
+ */
+public class ExcelDataReader {
+    
+    private static final int QUEUE_CAPACITY = 256;
+    private static final Object[] END_OF_SHEET = new Object[0];
+    
+    /**
+     * Stream the rows of a sheet converted to the given column types
+     * @param filePath Path to the .xlsx file
+     * @param sheetName Sheet to read
+     * @param types Column types in column order: String, int, long, double or boolean
+     * @return Lazy iterator over the data rows, safe to consume from several threads
+     */
+    public static Iterator<Object[]> stream(String filePath, String sheetName, Class<?>[] types) {
+        BlockingQueue<Object> rows = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        Thread parser = new Thread(() -> parse(filePath, sheetName, types, rows), "excel-reader-" + sheetName);
+        parser.setDaemon(true);
+        parser.start();
+        return new RowIterator(rows, filePath + "#" + sheetName);
+    }
+    
+    /**
+     * Convert a cell value to a column type
+     * @param value Formatted cell value
+     * @param type Target type
+     * @return Converted value
+     */
+    public static Object convert(String value, Class<?> type) {
+        String trimmed = value.trim();
+        if (type == String.class) {
+            return value;
+        }
+        if (trimmed.isEmpty()) {
+            if (type.isPrimitive()) {
+                throw new IllegalArgumentException("Empty cell for " + type.getSimpleName() + " column");
+            }
+            return null;
+        }
+        if (type == int.class || type == Integer.class) {
+            return (int) Double.parseDouble(trimmed);
+        }
+        if (type == long.class || type == Long.class) {
+            return (long) Double.parseDouble(trimmed);
+        }
+        if (type == double.class || type == Double.class) {
+            return Double.parseDouble(trimmed);
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            String flag = trimmed.toLowerCase(Locale.ROOT);
+            if (flag.equals("true") || flag.equals("yes") || flag.equals("y") || flag.equals("1")) {
+                return true;
+            }
+            if (flag.equals("false") || flag.equals("no") || flag.equals("n") || flag.equals("0")) {
+                return false;
+            }
+            throw new IllegalArgumentException("Not a boolean: " + value);
+        }
+        throw new IllegalArgumentException("Unsupported column type: " + type.getName());
+    }
+    
+    /**
+     * Parse the sheet and put converted rows on the queue, ending with END_OF_SHEET
+     * or the exception that stopped parsing
+     * @param filePath Path to the .xlsx file
+     * @param sheetName Sheet to read
+     * @param types Column types in column order
+     * @param rows Queue receiving the rows
+     */
+    private static void parse(String filePath, String sheetName, Class<?>[] types, BlockingQueue<Object> rows) {
+        try (OPCPackage pkg = OPCPackage.open(filePath, PackageAccess.READ)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            while (sheets.hasNext()) {
+                try (InputStream sheet = sheets.next()) {
+                    if (!sheets.getSheetName().equals(sheetName)) {
+                        continue;
+                    }
+                    XMLReader xmlReader = XMLHelper.newXMLReader();
+                    xmlReader.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(),
+                        new ReadOnlySharedStringsTable(pkg), new RowHandler(types, rows), new DataFormatter(), false));
+                    xmlReader.parse(new InputSource(sheet));
+                    rows.put(END_OF_SHEET);
+                    return;
+                }
+            }
+            throw new IllegalArgumentException("Sheet not found: " + sheetName);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception | LinkageError e) {
+            // Hand the failure to the consumer, which would otherwise wait for rows forever
+            try {
+                rows.put(new RuntimeException("Failed to read test data " + filePath + "#" + sheetName + ": " + e.getMessage(), e));
+            } catch (InterruptedException interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    /**
+     * RowHandler class converts SAX cell callbacks into typed rows
+     */
+    private static class RowHandler implements XSSFSheetXMLHandler.SheetContentsHandler {
+        
+        private final Class<?>[] types;
+        private final BlockingQueue<Object> rows;
+        private final List<String> cells = new ArrayList<>();
+        
+        RowHandler(Class<?>[] types, BlockingQueue<Object> rows) {
+            this.types = types;
+            this.rows = rows;
+        }
+        
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+        
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // Empty cells are not reported, so place values by their column
+            int column = new CellReference(cellReference).getCol();
+            if (column >= types.length) {
+                return;
+            }
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            cells.add(formattedValue == null ? "" : formattedValue);
+        }
+        
+        @Override
+        public void endRow(int rowNum) {
+            if (rowNum == 0 || cells.stream().allMatch(String::isEmpty)) {
+                return;
+            }
+            Object[] row = new Object[types.length];
+            for (int column = 0; column < types.length; column++) {
+                String value = column < cells.size() ? cells.get(column) : "";
+                try {
+                    row[column] = convert(value, types[column]);
+                } catch (IllegalArgumentException e) {
+                    throw new IllegalArgumentException("Row " + (rowNum + 1) + ", column "
+                        + CellReference.convertNumToColString(column) + ": " + e.getMessage(), e);
+                }
+            }
+            try {
+                rows.put(row);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while streaming test data", e);
+            }
+        }
+    }
+    
+    /**
+     * RowIterator class hands queued rows to TestNG, one consumer at a time
+     */
+    private static class RowIterator implements Iterator<Object[]> {
+        
+        private final BlockingQueue<Object> rows;
+        private final String source;
+        private Object next;
+        
+        RowIterator(BlockingQueue<Object> rows, String source) {
+            this.rows = rows;
+            this.source = source;
+        }
+        
+        @Override
+        public synchronized boolean hasNext() {
+            if (next == null) {
+                try {
+                    next = rows.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while reading " + source, e);
+                }
+            }
+            if (next instanceof RuntimeException) {
+                throw (RuntimeException) next;
+            }
+            return next != END_OF_SHEET;
+        }
+        
+        @Override
+        public synchronized Object[] next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No more rows in " + source);
+            }
+            Object[] row = (Object[]) next;
+            next = null;
+            return row;
+        }
+    }
+}
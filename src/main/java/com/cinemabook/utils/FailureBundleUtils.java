@@ -0,0 +1,252 @@
+package com.cinemabook.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.logging.LogEntry;
+import org.openqa.selenium.logging.LogType;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * FailureBundleUtils utility class for capturing failure artifacts
+ * Collects DOM, storage, console, network and timing data in parallel under a hard
+ * time budget and compresses them into a single archive on a background thread
+ */
+public class FailureBundleUtils {
+    
+    private static final String BUNDLE_DIR = "test-output/failure-bundles/";
+    
+    private static final ExecutorService COLLECTOR_POOL =
+        Executors.newCachedThreadPool(daemonThreadFactory("failure-bundle-collector"));
+    private static final ExecutorService WRITER =
+        Executors.newSingleThreadExecutor(daemonThreadFactory("failure-bundle-writer"));
+    private static final Queue<Future<?>> PENDING_WRITES = new ConcurrentLinkedQueue<>();
+    
+    private static final String DOM_SCRIPT =
+        "var doctype = document.doctype ? new XMLSerializer().serializeToString(document.doctype) : '';" +
+        "return doctype + document.documentElement.outerHTML;";
+    
+    private static final String STORAGE_SCRIPT =
+        "var out = {};" +
+        "['user', 'bookings'].forEach(function(key) {" +
+        "  var value = localStorage.getItem(key);" +
+        "  try { out[key] = value === null ? null : JSON.parse(value); } catch (e) { out[key] = value; }" +
+        "});" +
+        "out._keys = Object.keys(localStorage);" +
+        "return JSON.stringify(out, null, 2);";
+    
+    private static final String NETWORK_SCRIPT =
+        "var entries = performance.getEntriesByType('navigation').concat(performance.getEntriesByType('resource'));" +
+        "var har = entries.map(function(e) {" +
+        "  return {" +
+        "    startedDateTime: new Date(performance.timeOrigin + e.startTime).toISOString()," +
+        "    time: e.duration," +
+        "    request: { method: 'GET', url: e.name }," +
+        "    response: { status: e.responseStatus || 0, bodySize: e.encodedBodySize, content: { size: e.decodedBodySize } }," +
+        "    timings: {" +
+        "      dns: e.domainLookupEnd - e.domainLookupStart," +
+        "      connect: e.connectEnd - e.connectStart," +
+        "      wait: e.responseStart - e.requestStart," +
+        "      receive: e.responseEnd - e.responseStart" +
+        "    }," +
+        "    _initiatorType: e.initiatorType || 'navigation'," +
+        "    _transferSize: e.transferSize" +
+        "  };" +
+        "});" +
+        "return JSON.stringify({ log: { version: '1.2', creator: { name: 'CinemaBook failure bundle' }, entries: har } }, null, 2);";
+    
+    private static final String PAGE_SCRIPT =
+        "var nav = performance.getEntriesByType('navigation')[0];" +
+        "return JSON.stringify({" +
+        "  url: location.href," +
+        "  title: document.title," +
+        "  readyState: document.readyState," +
+        "  capturedAt: new Date().toISOString()," +
+        "  sinceNavigationStartMs: performance.now()," +
+        "  navigationTiming: nav ? nav.toJSON() : null" +
+        "}, null, 2);";
+    
+    /**
+     * Collect a failure bundle and queue it for compression
+     * @param driver WebDriver instance
+     * @param testName Name of the failed test for file naming
+     * @param screenshotPath Path to an already captured screenshot, may be null
+     * @param timeoutMillis Hard time budget for collecting artifacts from the browser
+     * @return Path the archive will be written to
+     */
+    public static String captureFailureBundle(WebDriver driver, String testName, String screenshotPath,
+                                              long timeoutMillis) {
+        String timestamp = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+        String bundlePath = BUNDLE_DIR + testName + "_" + timestamp + ".zip";
+        
+        Map<String, Callable<byte[]>> collectors = new LinkedHashMap<>();
+        collectors.put("dom.html", () -> executeScript(driver, DOM_SCRIPT));
+        collectors.put("storage.json", () -> executeScript(driver, STORAGE_SCRIPT));
+        collectors.put("console.log", () -> collectConsoleLogs(driver));
+        collectors.put("network.har.json", () -> executeScript(driver, NETWORK_SCRIPT));
+        collectors.put("page.json", () -> executeScript(driver, PAGE_SCRIPT));
+        if (screenshotPath != null) {
+            collectors.put("screenshot.png", () -> Files.readAllBytes(new File(screenshotPath).toPath()));
+        }
+        
+        Map<String, byte[]> artifacts = collectWithinBudget(collectors, timeoutMillis);
+        PENDING_WRITES.add(WRITER.submit(() -> {
+            writeArchive(bundlePath, artifacts);
+            return bundlePath;
+        }));
+        return bundlePath;
+    }
+    
+    /**
+     * Wait for queued archives to be written, typically before the report is flushed
+     * @param timeoutMillis Maximum time to wait for all pending writes
+     */
+    public static void awaitPendingBundles(long timeoutMillis) {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        Future<?> pending;
+        while ((pending = PENDING_WRITES.poll()) != null) {
+            try {
+                pending.get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            } catch (TimeoutException e) {
+                System.err.println("Failure bundle still being written at suite end");
+            } catch (ExecutionException e) {
+                System.err.println("Failed to write failure bundle: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+    
+    /**
+     * Run all collectors in parallel and keep whatever finished within the budget
+     * @param collectors Artifact name to collector mapping
+     * @param timeoutMillis Hard time budget in milliseconds
+     * @return Collected artifacts including a manifest of what was skipped
+     */
+    private static Map<String, byte[]> collectWithinBudget(Map<String, Callable<byte[]>> collectors,
+                                                           long timeoutMillis) {
+        List<String> names = new ArrayList<>(collectors.keySet());
+        Map<String, byte[]> artifacts = new LinkedHashMap<>();
+        StringBuilder manifest = new StringBuilder("Failure bundle manifest\n");
+        
+        List<Future<byte[]>> futures;
+        try {
+            futures = COLLECTOR_POOL.invokeAll(new ArrayList<>(collectors.values()),
+                timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return artifacts;
+        }
+        
+        for (int i = 0; i < futures.size(); i++) {
+            String name = names.get(i);
+            try {
+                byte[] content = futures.get(i).get();
+                if (content != null) {
+                    artifacts.put(name, content);
+                }
+                manifest.append(name).append(": collected\n");
+            } catch (CancellationException e) {
+                manifest.append(name).append(": timed out after ").append(timeoutMillis).append(" ms\n");
+            } catch (ExecutionException e) {
+                manifest.append(name).append(": failed - ").append(e.getCause().getMessage()).append("\n");
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        
+        artifacts.put("manifest.txt", manifest.toString().getBytes(StandardCharsets.UTF_8));
+        return artifacts;
+    }
+    
+    /**
+     * Compress collected artifacts into a single zip archive
+     * @param bundlePath Destination archive path
+     * @param artifacts Artifact name to content mapping
+     */
+    private static void writeArchive(String bundlePath, Map<String, byte[]> artifacts) throws IOException {
+        File bundleDir = new File(BUNDLE_DIR);
+        if (!bundleDir.exists()) {
+            bundleDir.mkdirs();
+        }
+        
+        try (ZipOutputStream zip = new ZipOutputStream(new FileOutputStream(bundlePath))) {
+            for (Map.Entry<String, byte[]> artifact : artifacts.entrySet()) {
+                zip.putNextEntry(new ZipEntry(artifact.getKey()));
+                zip.write(artifact.getValue());
+                zip.closeEntry();
+            }
+        }
+        System.out.println("Failure bundle written: " + bundlePath);
+    }
+    
+    /**
+     * Execute a script returning a string and encode it as UTF-8
+     * @param driver WebDriver instance
+     * @param script Script returning a string
+     * @return Script result as bytes
+     */
+    private static byte[] executeScript(WebDriver driver, String script) {
+        Object result = ((JavascriptExecutor) driver).executeScript(script);
+        return String.valueOf(result).getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Read browser console logs where the driver supports the logging API
+     * @param driver WebDriver instance
+     * @return Console log lines as bytes
+     */
+    private static byte[] collectConsoleLogs(WebDriver driver) {
+        StringBuilder logs = new StringBuilder();
+        try {
+            for (LogEntry entry : driver.manage().logs().get(LogType.BROWSER)) {
+                logs.append(new Date(entry.getTimestamp()))
+                    .append(" [").append(entry.getLevel()).append("] ")
+                    .append(entry.getMessage()).append("\n");
+            }
+        } catch (Exception e) {
+            logs.append("Console logs not available for this browser: ").append(e.getMessage());
+        }
+        return logs.toString().getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Create a thread factory producing named daemon threads
+     * @param prefix Thread name prefix
+     * @return ThreadFactory instance
+     */
+    private static ThreadFactory daemonThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
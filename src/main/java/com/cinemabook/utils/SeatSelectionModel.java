@@ -0,0 +1,103 @@
+package com.cinemabook.utils;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * SeatSelectionModel class is a reference implementation of the seat picker rules
+ * Mirrors the app: booked seats ignore clicks, a selected seat is deselected on
+ * click, at most 10 seats per booking, premium seats cost 300, regular seats 200
+ * and every seat adds a convenience fee of 20
+ */
+public class SeatSelectionModel {
+    
+    public static final int MAX_SEATS = 10;
+    public static final int PREMIUM_PRICE = 300;
+    public static final int REGULAR_PRICE = 200;
+    public static final int CONVENIENCE_FEE = 20;
+    
+    private final boolean[] premium;
+    private final boolean[] booked;
+    private final Set<Integer> selected = new LinkedHashSet<>();
+    private int rejectedClicks;
+    
+    /**
+     * Constructor
+     * @param premium Premium flag per seat index
+     * @param booked Booked flag per seat index
+     */
+    public SeatSelectionModel(boolean[] premium, boolean[] booked) {
+        this.premium = premium.clone();
+        this.booked = booked.clone();
+    }
+    
+    /**
+     * Apply a click on a seat
+     * @param seat Seat index
+     */
+    public void click(int seat) {
+        if (booked[seat]) {
+            return;
+        }
+        if (selected.contains(seat)) {
+            selected.remove(seat);
+        } else if (selected.size() >= MAX_SEATS) {
+            rejectedClicks++;
+        } else {
+            selected.add(seat);
+        }
+    }
+    
+    /**
+     * Clear the selection and the rejected click count
+     */
+    public void reset() {
+        selected.clear();
+        rejectedClicks = 0;
+    }
+    
+    /**
+     * Get number of selected seats
+     * @return Selected seat count
+     */
+    public int getSelectedCount() {
+        return selected.size();
+    }
+    
+    /**
+     * Get grand total of the selection
+     * @return Seat prices plus convenience fee, 0 without a selection
+     */
+    public int getTotal() {
+        int total = 0;
+        for (int seat : selected) {
+            total += (premium[seat] ? PREMIUM_PRICE : REGULAR_PRICE) + CONVENIENCE_FEE;
+        }
+        return total;
+    }
+    
+    /**
+     * Get number of clicks rejected because the selection was full
+     * @return Rejected click count since the last reset
+     */
+    public int getRejectedClicks() {
+        return rejectedClicks;
+    }
+    
+    /**
+     * Check if a seat is selected
+     * @param seat Seat index
+     * @return true if selected
+     */
+    public boolean isSelected(int seat) {
+        return selected.contains(seat);
+    }
+    
+    /**
+     * Get selected seats in selection order
+     * @return Selected seat indexes
+     */
+    public Set<Integer> getSelectedSeats() {
+        return new LinkedHashSet<>(selected);
+    }
+}
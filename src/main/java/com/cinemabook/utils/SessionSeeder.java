@@ -0,0 +1,113 @@
+package com.cinemabook.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * SessionSeeder utility class for preparing browser state without the UI
+ * Writes the same localStorage entries the app's AuthContext and BookingContext
+ * use, so tests can start logged in and with a given booking history
+ */
+public class SessionSeeder {
+    
+    public static final String SEEDED_BOOKING_PREFIX = "BKSEED";
+    
+    private static final String SEED_USER_SCRIPT =
+        "var email = arguments[0];" +
+        "localStorage.setItem('user', JSON.stringify({ id: '1', email: email, name: email.split('@')[0], phone: '1234567890' }));";
+    
+    private static final String SEED_BOOKINGS_SCRIPT =
+        "var count = arguments[0], prefix = arguments[1];" +
+        "var movies = [['1', 'Avengers: Endgame'], ['2', 'The Batman'], ['3', 'Top Gun: Maverick']," +
+        "  ['4', 'Doctor Strange: Multiverse'], ['5', 'Black Panther: Forever'], ['6', 'Spider-Man: New Universe']];" +
+        "var theaters = [['1', 'PVR Cinemas Phoenix', 'screen1'], ['2', 'INOX Megaplex', 'screen3'], ['3', 'Carnival Cinemas', 'screen5']];" +
+        "var showtimes = ['10:00 AM', '1:30 PM', '4:45 PM', '8:00 PM'];" +
+        "var day = 24 * 60 * 60 * 1000, now = Date.now();" +
+        "var bookings = new Array(count);" +
+        "for (var i = 0; i < count; i++) {" +
+        "  var movie = movies[i % movies.length], theater = theaters[i % theaters.length];" +
+        "  var premium = i % 3 === 0;" +
+        "  var seats = [1, 2].map(function(n) {" +
+        "    var number = (i % 12) + n;" +
+        "    return { id: (premium ? 'A' : 'E') + number, row: premium ? 'A' : 'E', number: number," +
+        "      type: premium ? 'premium' : 'regular', status: 'selected', price: premium ? 300 : 200 };" +
+        "  });" +
+        "  bookings[i] = {" +
+        "    id: prefix + i, movieId: movie[0], movieTitle: movie[1]," +
+        "    theaterId: theater[0], theaterName: theater[1], screenId: theater[2]," +
+        "    showtime: showtimes[i % showtimes.length]," +
+        // Half of the history is upcoming so both dashboard tabs are populated
+        "    date: new Date(now + (i % 2 === 0 ? 1 : -1) * ((i % 60) + 1) * day).toISOString()," +
+        "    seats: seats, totalAmount: seats.length * (premium ? 320 : 220)," +
+        "    bookingDate: new Date(now - (count - i) * 60000).toISOString(), status: 'confirmed'" +
+        "  };" +
+        "}" +
+        "try {" +
+        "  localStorage.setItem('bookings', JSON.stringify(bookings));" +
+        "  return true;" +
+        "} catch (e) {" +
+        "  if (e.name === 'QuotaExceededError' || e.code === 22) { return false; }" +
+        "  throw e;" +
+        "}";
+    
+    /**
+     * Store a logged in user for the current origin
+     * @param driver WebDriver instance on any page of the app
+     * @param email User email
+     */
+    public static void seedUser(WebDriver driver, String email) {
+        ((JavascriptExecutor) driver).executeScript(SEED_USER_SCRIPT, email);
+    }
+    
+    /**
+     * Replace the booking history with generated bookings
+     * Booking ids are SEEDED_BOOKING_PREFIX followed by the index, starting at 0
+     * @param driver WebDriver instance on any page of the app
+     * @param count Number of bookings to generate
+     * @return true if stored, false if the localStorage quota was exceeded
+     */
+    public static boolean seedBookings(WebDriver driver, int count) {
+        return Boolean.TRUE.equals(((JavascriptExecutor) driver).executeScript(SEED_BOOKINGS_SCRIPT, count, SEEDED_BOOKING_PREFIX));
+    }
+    
+    /**
+     * Keep only the most recent bookings so long runs work on a steady history
+     * @param driver WebDriver instance on any page of the app
+     * @param keep Number of bookings to keep
+     */
+    public static void trimBookings(WebDriver driver, int keep) {
+        ((JavascriptExecutor) driver).executeScript(
+            "var bookings = JSON.parse(localStorage.getItem('bookings') || '[]');" +
+            "if (bookings.length > arguments[0]) {" +
+            "  localStorage.setItem('bookings', JSON.stringify(bookings.slice(bookings.length - arguments[0])));" +
+            "}", keep);
+    }
+    
+    /**
+     * Get id of a seeded booking
+     * @param index Booking index
+     * @return Booking id
+     */
+    public static String getSeededBookingId(int index) {
+        return SEEDED_BOOKING_PREFIX + index;
+    }
+    
+    /**
+     * Get size of the stored booking history
+     * @param driver WebDriver instance on any page of the app
+     * @return Number of characters stored under the bookings key
+     */
+    public static long getBookingsStorageSize(WebDriver driver) {
+        Object size = ((JavascriptExecutor) driver).executeScript(
+            "var value = localStorage.getItem('bookings'); return value ? value.length : 0;");
+        return ((Number) size).longValue();
+    }
+    
+    /**
+     * Remove user and bookings for the current origin
+     * @param driver WebDriver instance on any page of the app
+     */
+    public static void clearSession(WebDriver driver) {
+        ((JavascriptExecutor) driver).executeScript("localStorage.removeItem('user'); localStorage.removeItem('bookings');");
+    }
+}
@@ -0,0 +1,334 @@
+package com.cinemabook.utils;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * StaticAppServer class serves a prebuilt static export of the app from this JVM
+ * Binds to an ephemeral loopback port, so no npm or next process is needed at test
+ * time. Files are indexed at start and read into memory on first use (a background
+ * thread warms the rest); text assets are gzipped once and kept alongside. Hashed
+ * /_next/static assets are cached as immutable, pages are revalidated by ETag.
+ * Dynamic routes only exist for the ids their generateStaticParams lists: the fixture
+ * movies for /movie/{id}/..., and none for /booking/confirmation/{id}. Other ids get 404
+ */
+public class StaticAppServer {
+    
+    private static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final String REVALIDATE = "no-cache";
+    private static final String SHORT_LIVED = "public, max-age=3600";
+    private static final int MIN_COMPRESSED_SIZE = 1024;
+    private static final Map<String, String> CONTENT_TYPES = new HashMap<>();
+    
+    static {
+        CONTENT_TYPES.put("html", "text/html; charset=utf-8");
+        CONTENT_TYPES.put("js", "application/javascript; charset=utf-8");
+        CONTENT_TYPES.put("mjs", "application/javascript; charset=utf-8");
+        CONTENT_TYPES.put("css", "text/css; charset=utf-8");
+        CONTENT_TYPES.put("json", "application/json; charset=utf-8");
+        CONTENT_TYPES.put("txt", "text/plain; charset=utf-8");
+        CONTENT_TYPES.put("map", "application/json; charset=utf-8");
+        CONTENT_TYPES.put("svg", "image/svg+xml");
+        CONTENT_TYPES.put("png", "image/png");
+        CONTENT_TYPES.put("jpg", "image/jpeg");
+        CONTENT_TYPES.put("jpeg", "image/jpeg");
+        CONTENT_TYPES.put("gif", "image/gif");
+        CONTENT_TYPES.put("webp", "image/webp");
+        CONTENT_TYPES.put("avif", "image/avif");
+        CONTENT_TYPES.put("ico", "image/x-icon");
+        CONTENT_TYPES.put("woff", "font/woff");
+        CONTENT_TYPES.put("woff2", "font/woff2");
+    }
+    
+    private final Path root;
+    private final Map<String, Asset> assets = new HashMap<>();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong bytesSent = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    private HttpServer server;
+    private ExecutorService workers;
+    
+    /**
+     * Asset class holds one exported file and its cached representations
+     */
+    private static class Asset {
+        private final Path file;
+        private final String contentType;
+        private final String cacheControl;
+        private final String etag;
+        private volatile byte[] content;
+        private volatile byte[] gzipped;
+        
+        Asset(Path file, String contentType, String cacheControl, String etag) {
+            this.file = file;
+            this.contentType = contentType;
+            this.cacheControl = cacheControl;
+            this.etag = etag;
+        }
+        
+        /**
+         * Read the file and compress it on first use
+         */
+        void load() {
+            if (content != null) {
+                return;
+            }
+            synchronized (this) {
+                if (content != null) {
+                    return;
+                }
+                try {
+                    byte[] bytes = Files.readAllBytes(file);
+                    if (bytes.length >= MIN_COMPRESSED_SIZE && isCompressible(contentType)) {
+                        byte[] compressed = gzip(bytes);
+                        gzipped = compressed.length < bytes.length ? compressed : null;
+                    }
+                    content = bytes;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+    
+    /**
+     * Constructor
+     * @param root Export directory, the output of npm run export
+     */
+    public StaticAppServer(Path root) {
+        this.root = root.toAbsolutePath().normalize();
+    }
+    
+    /**
+     * Index the export and start serving it on an ephemeral loopback port
+     * @param threads Number of request handler threads
+     */
+    public void start(int threads) {
+        if (!Files.isRegularFile(root.resolve("index.html"))) {
+            throw new RuntimeException("No static export found at " + root + ", run npm run export first");
+        }
+        try (Stream<Path> files = Files.walk(root)) {
+            files.filter(Files::isRegularFile).forEach(this::index);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to index static export " + root + ": " + e.getMessage(), e);
+        }
+        
+        AtomicInteger threadNumber = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "static-app-server-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1024);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to start static app server: " + e.getMessage(), e);
+        }
+        server.createContext("/", this::handle);
+        server.setExecutor(workers);
+        server.start();
+        
+        // Warm the in-memory cache while the first browser starts
+        Thread warmer = new Thread(() -> assets.values().forEach(asset -> {
+            try {
+                asset.load();
+            } catch (UncheckedIOException e) {
+                // Reported when the asset is requested
+            }
+        }), "static-app-server-warmer");
+        warmer.setDaemon(true);
+        warmer.start();
+    }
+    
+    /**
+     * Stop serving
+     */
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            workers.shutdownNow();
+            server = null;
+        }
+    }
+    
+    /**
+     * Get URL the export is served at
+     * @return Base URL without trailing slash
+     */
+    public String getBaseUrl() {
+        return "http://" + InetAddress.getLoopbackAddress().getHostAddress() + ":" + server.getAddress().getPort();
+    }
+    
+    /**
+     * Get number of exported files being served
+     * @return File count
+     */
+    public int getAssetCount() {
+        return assets.size();
+    }
+    
+    /**
+     * Get number of requests handled
+     * @return Request count
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+    
+    /**
+     * Get number of requests answered with 304 Not Modified
+     * @return Revalidated request count
+     */
+    public long getNotModifiedCount() {
+        return notModified.get();
+    }
+    
+    /**
+     * Get response body bytes sent
+     * @return Bytes sent after compression
+     */
+    public long getBytesSent() {
+        return bytesSent.get();
+    }
+    
+    /**
+     * Add an exported file under its URL path
+     * @param file Exported file
+     */
+    private void index(Path file) {
+        String path = "/" + root.relativize(file).toString().replace('\\', '/');
+        String name = file.getFileName().toString();
+        String extension = name.contains(".") ? name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT) : "";
+        String contentType = CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+        String cacheControl = path.startsWith("/_next/static/") ? IMMUTABLE
+            : extension.equals("html") || extension.equals("txt") ? REVALIDATE : SHORT_LIVED;
+        try {
+            String etag = "\"" + Long.toHexString(Files.size(file)) + "-"
+                + Long.toHexString(Files.getLastModifiedTime(file).toMillis()) + "\"";
+            assets.put(path, new Asset(file, contentType, cacheControl, etag));
+        } catch (IOException e) {
+            System.err.println("Skipping unreadable export file " + file + ": " + e.getMessage());
+        }
+    }
+    
+    /**
+     * Answer one request
+     * @param exchange HTTP exchange
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            String method = exchange.getRequestMethod();
+            boolean head = method.equals("HEAD");
+            if (!head && !method.equals("GET")) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            
+            int status = 200;
+            Asset asset = resolve(exchange.getRequestURI());
+            if (asset == null) {
+                status = 404;
+                asset = assets.get("/404.html");
+                if (asset == null) {
+                    exchange.sendResponseHeaders(404, -1);
+                    return;
+                }
+            }
+            
+            Headers headers = exchange.getResponseHeaders();
+            headers.set("Content-Type", asset.contentType);
+            headers.set("Cache-Control", status == 200 ? asset.cacheControl : REVALIDATE);
+            headers.set("ETag", asset.etag);
+            headers.set("Vary", "Accept-Encoding");
+            if (status == 200 && asset.etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                notModified.incrementAndGet();
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            
+            asset.load();
+            byte[] body = asset.content;
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            if (asset.gzipped != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+                body = asset.gzipped;
+                headers.set("Content-Encoding", "gzip");
+            }
+            if (head) {
+                headers.set("Content-Length", String.valueOf(body.length));
+                exchange.sendResponseHeaders(status, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(status, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+            bytesSent.addAndGet(body.length);
+        } catch (UncheckedIOException e) {
+            System.err.println("Failed to serve " + exchange.getRequestURI() + ": " + e.getCause().getMessage());
+            exchange.sendResponseHeaders(500, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    /**
+     * Find the exported file for a request path
+     * Tries the path itself, path.html and path/index.html like a static host does
+     * Ids that were not exported are not mapped to another id's page, since the app router
+     * would take its params and URL from the page that was built
+     * @param uri Request URI
+     * @return Asset, or null when nothing was exported for the path
+     */
+    private Asset resolve(URI uri) {
+        String path = uri.getPath();
+        if (path == null || path.contains("..")) {
+            return null;
+        }
+        if (path.length() > 1 && path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        Asset asset = assets.get(path);
+        if (asset == null) {
+            asset = assets.get(path + ".html");
+        }
+        if (asset == null) {
+            asset = assets.get(path.equals("/") ? "/index.html" : path + "/index.html");
+        }
+        return asset;
+    }
+    
+    private static boolean isCompressible(String contentType) {
+        return contentType.startsWith("text/") || contentType.startsWith("application/javascript")
+            || contentType.startsWith("application/json") || contentType.startsWith("image/svg");
+    }
+    
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(bytes.length / 3);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+}
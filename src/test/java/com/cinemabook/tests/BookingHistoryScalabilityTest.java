@@ -0,0 +1,154 @@
+package com.cinemabook.tests;
+
+import com.aventstack.extentreports.Status;
+import com.cinemabook.base.BaseTest;
+import com.cinemabook.performance.BrowserMetrics;
+import com.cinemabook.performance.LatencyCurve;
+import com.cinemabook.performance.WebVitalsCollector;
+import com.cinemabook.utils.SessionSeeder;
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * BookingHistoryScalabilityTest class measures how the dashboard and confirmation
+ * pages scale with the number of stored bookings
+ * Seeds growing booking histories into localStorage and records time to interactive,
+ * main-thread blocking and JS heap per size until a breaking point is found
+ */
+public class BookingHistoryScalabilityTest extends BaseTest {
+    
+    private static final String SAMPLES_REPORT = "test-output/reports/booking-scale-samples.csv";
+    private static final String CURVE_REPORT = "test-output/reports/booking-scale-curve.csv";
+    
+    private static final String PARSE_SCRIPT =
+        "var start = performance.now();" +
+        "JSON.parse(localStorage.getItem('bookings') || '[]');" +
+        "return performance.now() - start;";
+    
+    /**
+     * Scalability: dashboard and confirmation rendering cost per booking history size
+     */
+    @Test(description = "Measure dashboard and confirmation cost as the booking history grows")
+    public void testBookingHistoryScalability() throws InterruptedException {
+        test = extent.createTest("Booking History Scalability");
+        if (!config.isScalabilityTestEnabled()) {
+            throw new SkipException("Scalability test is disabled, set perf.scale.enabled=true");
+        }
+        
+        // Long tasks are only observed from document start
+        WebVitalsCollector.install(driver);
+        SessionSeeder.seedUser(driver, config.getValidEmail());
+        
+        List<Integer> sizes = config.getScalabilitySizes();
+        boolean untilQuota = config.getBooleanProperty("perf.scale.until.quota", true);
+        long maxBookings = config.getLongProperty("perf.scale.max.bookings", 1000000);
+        double maxTti = Double.parseDouble(config.getProperty("perf.scale.max.tti.ms", "5000"));
+        
+        LatencyCurve curve = new LatencyCurve("bookings");
+        int lastPassingSize = 0;
+        String breakingPoint = null;
+        int size = sizes.get(0);
+        for (int index = 0; breakingPoint == null; index++) {
+            if (index < sizes.size()) {
+                size = sizes.get(index);
+            } else if (untilQuota && size * 2L <= maxBookings) {
+                // Keep doubling past the configured sizes until something gives way
+                size = size * 2;
+            } else {
+                break;
+            }
+            
+            if (!SessionSeeder.seedBookings(driver, size)) {
+                breakingPoint = size + " bookings: localStorage quota exceeded";
+                break;
+            }
+            long storedChars = SessionSeeder.getBookingsStorageSize(driver);
+            test.log(Status.INFO, String.format("Seeded %d bookings (%.1f MB of JSON)", size, storedChars / 1048576.0));
+            
+            try {
+                Map<String, Double> dashboard = measurePage("/dashboard",
+                    By.xpath("//p[text()='" + size + "']"));
+                dashboard.put("storedChars", (double) storedChars);
+                curve.add("dashboard", size, dashboard);
+                
+                // The newest booking is last, so confirmation has to scan the whole history
+                Map<String, Double> confirmation = measurePage(
+                    "/booking/confirmation/" + SessionSeeder.getSeededBookingId(size - 1),
+                    By.xpath("//h1[contains(text(), 'Booking Confirmed')]"));
+                confirmation.put("storedChars", (double) storedChars);
+                curve.add("confirmation", size, confirmation);
+                
+                test.log(Status.INFO, String.format("%d bookings: dashboard tti %.0f ms, tbt %.0f ms, heap %.1f MB;"
+                        + " confirmation tti %.0f ms, tbt %.0f ms, heap %.1f MB",
+                    size, dashboard.get("tti"), dashboard.get("tbt"), dashboard.getOrDefault("jsHeapMb", 0.0),
+                    confirmation.get("tti"), confirmation.get("tbt"), confirmation.getOrDefault("jsHeapMb", 0.0)));
+                
+                double worstTti = Math.max(dashboard.get("tti"), confirmation.get("tti"));
+                if (worstTti > maxTti) {
+                    breakingPoint = String.format("%d bookings: time to interactive %.0f ms exceeds %.0f ms", size, worstTti, maxTti);
+                } else {
+                    lastPassingSize = size;
+                }
+            } catch (TimeoutException e) {
+                breakingPoint = size + " bookings: page did not render within " + config.getScalabilityRenderTimeout() + " ms";
+            }
+            
+            // Return to a light page so the next seed is not competing with a rendered history
+            driver.get(config.getBaseUrl());
+        }
+        
+        curve.writeSamples(SAMPLES_REPORT);
+        curve.writeCurve(CURVE_REPORT);
+        test.log(Status.INFO, "Dashboard tti per size (p50): " + curve.medians("dashboard", "tti"));
+        test.log(Status.INFO, "Confirmation tti per size (p50): " + curve.medians("confirmation", "tti"));
+        test.log(Status.INFO, String.format("Growth exponent of dashboard tti %.3f, confirmation tti %.3f",
+            curve.growthExponent("dashboard", "tti"), curve.growthExponent("confirmation", "tti")));
+        test.log(Status.INFO, "Breaking point: " + (breakingPoint == null ? "not reached up to " + size + " bookings" : breakingPoint));
+        
+        SessionSeeder.clearSession(driver);
+        
+        long requiredBookings = config.getLongProperty("perf.scale.required.bookings", 1000);
+        Assert.assertTrue(lastPassingSize >= requiredBookings,
+            "Booking history should stay usable up to " + requiredBookings + " bookings, last passing size was "
+                + lastPassingSize + (breakingPoint == null ? "" : " (" + breakingPoint + ")"));
+        test.log(Status.PASS, "Booking history scales to at least " + lastPassingSize + " bookings");
+    }
+    
+    /**
+     * Load a page with a full navigation and collect its cost once it has rendered
+     * @param path Route path
+     * @param readyLocator Locator of an element that is shown once the history is rendered
+     * @return Metric name to value mapping
+     */
+    private Map<String, Double> measurePage(String path, By readyLocator) throws InterruptedException {
+        long start = System.nanoTime();
+        driver.get(config.getBaseUrl() + path);
+        new WebDriverWait(driver, Duration.ofMillis(config.getScalabilityRenderTimeout()))
+            .until(ExpectedConditions.visibilityOfElementLocated(readyLocator));
+        double renderMs = (System.nanoTime() - start) / 1e6;
+        
+        // Give trailing long tasks a chance to be reported before reading TBT
+        Thread.sleep(500);
+        Map<String, Double> metrics = new HashMap<>(WebVitalsCollector.collect(driver));
+        metrics.put("renderMs", renderMs);
+        
+        Map<String, Double> browser = BrowserMetrics.getMetrics(driver);
+        if (browser.containsKey(BrowserMetrics.JS_HEAP_USED_SIZE)) {
+            metrics.put("jsHeapMb", browser.get(BrowserMetrics.JS_HEAP_USED_SIZE) / 1048576.0);
+        }
+        metrics.put("domNodes", browser.getOrDefault(BrowserMetrics.NODES, 0.0));
+        metrics.put("parseMs", ((Number) ((JavascriptExecutor) driver).executeScript(PARSE_SCRIPT)).doubleValue());
+        return metrics;
+    }
+}
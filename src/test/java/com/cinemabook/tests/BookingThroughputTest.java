@@ -0,0 +1,184 @@
+package com.cinemabook.tests;
+
+import com.aventstack.extentreports.Status;
+import com.cinemabook.base.BaseTest;
+import com.cinemabook.base.DriverFactory;
+import com.cinemabook.performance.BookingFlow;
+import com.cinemabook.performance.DeviceProfile;
+import com.cinemabook.performance.HostMonitor;
+import com.cinemabook.performance.LatencyCurve;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BookingThroughputTest class measures how many complete bookings one host can drive
+ * Runs the login to confirmation path in N concurrent headless sessions, stepping N
+ * up, and reports bookings per minute, error rate, step latency and host load per
+ * step together with the knee of the throughput curve
+ */
+public class BookingThroughputTest extends BaseTest {
+    
+    private static final String SAMPLES_REPORT = "test-output/reports/booking-throughput-samples.csv";
+    private static final String CURVE_REPORT = "test-output/reports/booking-throughput-curve.csv";
+    private static final String SUMMARY_REPORT = "test-output/reports/booking-throughput-summary.csv";
+    
+    /**
+     * Throughput: bookings per minute against the number of concurrent sessions
+     */
+    @Test(description = "Measure booking throughput as concurrent sessions increase")
+    public void testBookingThroughputCurve() throws Exception {
+        test = extent.createTest("Concurrent Booking Throughput");
+        if (!config.isBookingThroughputEnabled()) {
+            throw new SkipException("Booking throughput test is disabled, set perf.throughput.enabled=true");
+        }
+        
+        List<Integer> levels = config.getThroughputSessionLevels();
+        long stepMillis = config.getLongProperty("perf.throughput.step.duration.s", 120) * 1000;
+        test.log(Status.INFO, "Stepping through " + levels + " sessions, " + stepMillis / 1000 + " s per step");
+        
+        LatencyCurve curve = new LatencyCurve("sessions");
+        for (int sessions : levels) {
+            Map<String, Double> step = runStep(sessions, stepMillis, curve);
+            curve.add("throughput", sessions, step);
+            test.log(Status.INFO, String.format(Locale.ROOT,
+                "%d sessions: %.1f bookings/min, error rate %.1f%%, booking p50 %.0f ms, host CPU %.0f%% (max %.0f%%), RSS max %.0f MB",
+                sessions, step.get("bookingsPerMinute"), step.get("errorRate") * 100,
+                curve.medians("booking", "total").getOrDefault((long) sessions, 0.0),
+                step.get("hostCpuMean"), step.get("hostCpuMax"), step.get("rssMaxMb")));
+        }
+        
+        Long knee = curve.kneePoint("throughput", "bookingsPerMinute");
+        test.log(Status.INFO, "Throughput knee: " + (knee == null ? "not reached in the tested range" : knee + " sessions"));
+        curve.writeSamples(SAMPLES_REPORT);
+        curve.writeCurve(CURVE_REPORT);
+        writeSummary(curve, levels, knee);
+        
+        double maxErrorRate = Double.parseDouble(config.getProperty("perf.throughput.max.error.rate", "0.05"));
+        double baselineErrorRate = curve.medians("throughput", "errorRate").firstEntry().getValue();
+        Assert.assertTrue(curve.medians("throughput", "bookings").firstEntry().getValue() > 0,
+            "No booking completed with a single session");
+        Assert.assertTrue(baselineErrorRate <= maxErrorRate,
+            String.format("Error rate %.1f%% at the lowest concurrency exceeds %.1f%%", baselineErrorRate * 100, maxErrorRate * 100));
+        test.log(Status.PASS, "Booking throughput curve recorded");
+    }
+    
+    /**
+     * Run one concurrency step
+     * @param sessions Number of concurrent browser sessions
+     * @param stepMillis How long new bookings are started
+     * @param curve Curve receiving the per-booking step latencies
+     * @return Throughput, error rate and host load of the step
+     */
+    private Map<String, Double> runStep(int sessions, long stepMillis, LatencyCurve curve) throws InterruptedException {
+        boolean headless = config.getBooleanProperty("perf.throughput.headless", true);
+        ExecutorService pool = Executors.newFixedThreadPool(sessions);
+        List<WebDriver> drivers = new ArrayList<>();
+        try {
+            // Launch the browsers first so start-up cost stays out of the measured window
+            List<Callable<WebDriver>> launches = new ArrayList<>();
+            for (int session = 0; session < sessions; session++) {
+                launches.add(() -> {
+                    WebDriver sessionDriver = DriverFactory.createDriver(config.getBrowser(), headless);
+                    DeviceProfile.forName(config.getDeviceProfile()).apply(sessionDriver);
+                    return sessionDriver;
+                });
+            }
+            for (Future<WebDriver> launch : pool.invokeAll(launches)) {
+                drivers.add(launch.get());
+            }
+            
+            AtomicInteger bookings = new AtomicInteger();
+            AtomicInteger errors = new AtomicInteger();
+            HostMonitor monitor = new HostMonitor();
+            monitor.start(1000);
+            long start = System.nanoTime();
+            long deadline = start + stepMillis * 1_000_000;
+            
+            List<Future<?>> runs = new ArrayList<>();
+            for (WebDriver sessionDriver : drivers) {
+                runs.add(pool.submit(() -> {
+                    BookingFlow flow = new BookingFlow(sessionDriver);
+                    while (System.nanoTime() < deadline) {
+                        try {
+                            curve.add("booking", sessions, flow.run());
+                            bookings.incrementAndGet();
+                        } catch (IllegalStateException | WebDriverException e) {
+                            errors.incrementAndGet();
+                            System.err.println("Booking failed with " + sessions + " sessions: " + e.getMessage());
+                        }
+                    }
+                }));
+            }
+            for (Future<?> run : runs) {
+                run.get();
+            }
+            double elapsedMinutes = (System.nanoTime() - start) / 60e9;
+            
+            Map<String, Double> step = new HashMap<>(monitor.stop());
+            int attempts = bookings.get() + errors.get();
+            step.put("bookings", (double) bookings.get());
+            step.put("errors", (double) errors.get());
+            step.put("bookingsPerMinute", bookings.get() / elapsedMinutes);
+            step.put("errorRate", attempts == 0 ? 0 : (double) errors.get() / attempts);
+            return step;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Throughput step with " + sessions + " sessions failed", e.getCause());
+        } finally {
+            for (WebDriver sessionDriver : drivers) {
+                try {
+                    sessionDriver.quit();
+                } catch (WebDriverException e) {
+                    System.err.println("Failed to quit session: " + e.getMessage());
+                }
+            }
+            pool.shutdownNow();
+        }
+    }
+    
+    /**
+     * Write one row per concurrency step with the knee marked
+     * @param curve Curve holding the throughput and booking series
+     * @param levels Session counts that were run
+     * @param knee Session count at the knee, may be null
+     */
+    private void writeSummary(LatencyCurve curve, List<Integer> levels, Long knee) {
+        String[] metrics = {"bookings", "errors", "bookingsPerMinute", "errorRate", "hostCpuMean", "hostCpuMax", "rssMaxMb", "cpuSeconds"};
+        new File(SUMMARY_REPORT).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(SUMMARY_REPORT)) {
+            writer.println("sessions," + String.join(",", metrics) + ",bookingP50Ms,bookingP95Ms,knee");
+            for (int sessions : levels) {
+                StringBuilder row = new StringBuilder(String.valueOf(sessions));
+                for (String metric : metrics) {
+                    row.append(String.format(Locale.ROOT, ",%.2f",
+                        curve.medians("throughput", metric).getOrDefault((long) sessions, 0.0)));
+                }
+                row.append(String.format(Locale.ROOT, ",%.2f,%.2f,%s",
+                    curve.medians("booking", "total").getOrDefault((long) sessions, 0.0),
+                    curve.aggregate("booking", "total", 95).getOrDefault((long) sessions, 0.0),
+                    knee != null && knee == sessions));
+                writer.println(row);
+            }
+            System.out.println("Booking throughput summary written: " + SUMMARY_REPORT);
+        } catch (IOException e) {
+            System.err.println("Failed to write booking throughput summary: " + e.getMessage());
+        }
+    }
+}
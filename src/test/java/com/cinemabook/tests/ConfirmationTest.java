@@ -2,9 +2,9 @@ package com.cinemabook.tests;
 
 import com.aventstack.extentreports.Status;
 import com.cinemabook.base.BaseTest;
+import com.cinemabook.base.FlowCheckpoint;
 import com.cinemabook.pages.ConfirmationPage;
 import com.cinemabook.pages.HomePage;
-import com.cinemabook.pages.LoginPage;
 import com.cinemabook.pages.SeatSelectionPage;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
@@ -19,24 +19,36 @@ public class ConfirmationTest extends BaseTest {
     private ConfirmationPage confirmationPage;
     private SeatSelectionPage seatSelectionPage;
     private HomePage homePage;
-    private LoginPage loginPage;
     
     @BeforeMethod
     public void setUpTest() {
         confirmationPage = new ConfirmationPage(driver);
         seatSelectionPage = new SeatSelectionPage(driver);
         homePage = new HomePage(driver);
-        loginPage = new LoginPage(driver);
     }
     
     /**
      * Helper method to complete booking flow and reach confirmation page
+     * With session.checkpoint.enabled one booking is made and later tests open its
+     * confirmation page with the same stored bookings
      */
     private void completeBookingFlow() throws InterruptedException {
+        if (config.isFlowCheckpointEnabled()) {
+            // The confirmation page reads the booking from localStorage, so opening the URL is enough
+            if (FlowCheckpoint.fork("booking-confirmation", driver, config.getBaseUrl(), this::runBookingPrefix, null)) {
+                test.log(Status.INFO, "Forked from the booking confirmation checkpoint");
+            }
+            return;
+        }
+        runBookingPrefix();
+    }
+    
+    /**
+     * Log in and book a seat through the UI
+     */
+    private void runBookingPrefix() throws InterruptedException {
         // Login first
-        loginPage.navigateToLoginPage();
-        loginPage.performLogin(config.getValidEmail(), config.getValidPassword());
-        Thread.sleep(3000);
+        logInAsValidUser();
         
         // Navigate to homepage and select a movie
         homePage.navigateToHomePage();
@@ -0,0 +1,130 @@
+package com.cinemabook.tests;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.cinemabook.base.BaseTest;
+import com.cinemabook.base.DriverFactory;
+import com.cinemabook.base.PageMetricsListener;
+import com.cinemabook.pages.HomePage;
+import com.cinemabook.pages.LoginPage;
+import com.cinemabook.pages.SeatSelectionPage;
+import com.cinemabook.performance.BookingFlow;
+import com.cinemabook.utils.ExcelDataProviders;
+import com.cinemabook.utils.SessionSeeder;
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+
+/**
+ * ExcelDataDrivenTest class runs login and seat scenarios from the QA spreadsheets
+ * Rows are read from the test data workbook and run in parallel, each in its
+ * own browser session, so this class does not use the shared BaseTest browser.
+ * For sheets too large to hold in memory, use the *Streamed providers instead
+ */
+public class ExcelDataDrivenTest extends BaseTest {
+    
+    private static final int MAX_SEATS_PER_BOOKING = 10;
+    
+    @Override
+    protected boolean usesSharedBrowser() {
+        return false;
+    }
+    
+    /**
+     * Data driven: login with every credential row of the login sheet
+     * @param email Email column
+     * @param password Password column
+     * @param expectSuccess Whether the row should log in
+     */
+    @Test(dataProvider = "loginCredentials", dataProviderClass = ExcelDataProviders.class,
+          description = "Login with credentials from the test data workbook")
+    public void testLoginFromSheet(String email, String password, boolean expectSuccess) {
+        ExtentTest rowTest = extent.createTest("Sheet Login: " + email);
+        WebDriver rowDriver = openSession();
+        try {
+            LoginPage loginPage = new LoginPage(rowDriver);
+            loginPage.navigateToLoginPage();
+            loginPage.performLogin(email, password);
+            rowTest.log(Status.INFO, "Submitted credentials, expecting " + (expectSuccess ? "success" : "rejection"));
+            
+            boolean loggedIn;
+            try {
+                new WebDriverWait(rowDriver, Duration.ofSeconds(config.getExplicitWait()))
+                    .until(ExpectedConditions.not(ExpectedConditions.urlContains("/login")));
+                loggedIn = new HomePage(rowDriver).isUserLoggedIn();
+            } catch (TimeoutException e) {
+                loggedIn = false;
+            }
+            
+            Assert.assertEquals(loggedIn, expectSuccess, "Login outcome for " + email);
+            rowTest.log(Status.PASS, "Login outcome matches the sheet");
+        } catch (AssertionError | RuntimeException e) {
+            rowTest.log(Status.FAIL, "Row failed: " + e.getMessage());
+            throw e;
+        } finally {
+            rowDriver.quit();
+        }
+    }
+    
+    /**
+     * Data driven: select seats as described by every row of the seats sheet
+     * @param movieId Movie whose seat map is opened
+     * @param seatCount Seats to click
+     * @param expectedSelected Seats the app should keep selected, at most 10 per booking
+     */
+    @Test(dataProvider = "seatSelections", dataProviderClass = ExcelDataProviders.class,
+          description = "Select seats as described in the test data workbook")
+    public void testSeatSelectionFromSheet(int movieId, int seatCount, int expectedSelected) {
+        ExtentTest rowTest = extent.createTest("Sheet Seat Selection: movie " + movieId + ", " + seatCount + " seats");
+        WebDriver rowDriver = openSession();
+        try {
+            WebDriverWait rowWait = new WebDriverWait(rowDriver, Duration.ofSeconds(config.getExplicitWait()));
+            rowDriver.get(config.getBaseUrl());
+            SessionSeeder.seedUser(rowDriver, config.getValidEmail());
+            new BookingFlow(rowDriver).openSeatMap(movieId);
+            SeatSelectionPage seatSelectionPage = new SeatSelectionPage(rowDriver);
+            Assert.assertTrue(seatSelectionPage.isSeatSelectionPageDisplayed(), "Seat selection page should be displayed");
+            
+            int allowedClicks = Math.min(seatCount, MAX_SEATS_PER_BOOKING);
+            seatSelectionPage.selectMultipleAvailableSeats(allowedClicks);
+            // Clicks past the limit are rejected with an alert that has to be answered
+            for (int click = allowedClicks; click < seatCount; click++) {
+                seatSelectionPage.selectFirstAvailableSeat();
+                Alert limitAlert = rowWait.until(ExpectedConditions.alertIsPresent());
+                Assert.assertEquals(limitAlert.getText(), "You can select maximum " + MAX_SEATS_PER_BOOKING + " seats",
+                    "Seat limit alert");
+                limitAlert.accept();
+            }
+            int selected = seatSelectionPage.getSelectedSeatsCount();
+            rowTest.log(Status.INFO, "Clicked " + seatCount + " seats, " + selected + " selected");
+            
+            Assert.assertEquals(selected, expectedSelected, "Selected seats for " + seatCount + " clicks");
+            Assert.assertEquals(seatSelectionPage.isProceedToPaymentButtonEnabled(), expectedSelected > 0,
+                "Proceed to payment should only be enabled with a selection");
+            rowTest.log(Status.PASS, "Seat selection matches the sheet");
+        } catch (AssertionError | RuntimeException e) {
+            rowTest.log(Status.FAIL, "Row failed: " + e.getMessage());
+            throw e;
+        } finally {
+            rowDriver.quit();
+        }
+    }
+    
+    /**
+     * Open a browser session for one row
+     * @return WebDriver instance owned by the row
+     */
+    private WebDriver openSession() {
+        WebDriver rowDriver = PageMetricsListener.decorate(DriverFactory.createDriver(config.getBrowser(),
+            config.getBooleanProperty("test.data.headless", true)));
+        rowDriver.manage().timeouts().implicitlyWait(Duration.ofSeconds(config.getImplicitWait()));
+        rowDriver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(config.getPageLoadTimeout()));
+        return rowDriver;
+    }
+}
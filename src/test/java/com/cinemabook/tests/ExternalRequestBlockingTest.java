@@ -0,0 +1,90 @@
+package com.cinemabook.tests;
+
+import com.aventstack.extentreports.Status;
+import com.cinemabook.base.BaseTest;
+import com.cinemabook.performance.Stats;
+import com.cinemabook.performance.WebVitalsCollector;
+import com.cinemabook.utils.CdpUtils;
+import org.openqa.selenium.TimeoutException;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * ExternalRequestBlockingTest class measures what blocking external hosts saves
+ * Loads the homepage, which pulls every poster from images.pexels.com, with and
+ * without interception and reports the blocked requests and the load time saved
+ */
+public class ExternalRequestBlockingTest extends BaseTest {
+    
+    private static final String SAVINGS_REPORT = "test-output/reports/external-blocking-savings.csv";
+    
+    /**
+     * Blocking: homepage load time with and without external requests
+     */
+    @Test(description = "Measure page-load time saved by blocking external hosts")
+    public void testBlockingSavesLoadTime() {
+        test = extent.createTest("External Request Blocking Savings");
+        if (requestBlocker == null) {
+            throw new SkipException("External request blocking is not active, pass allowedHosts or set net.block.enabled=true on Chrome");
+        }
+        
+        // Every load has to go to the network for the comparison to mean anything
+        CdpUtils.executeCdpCommand(driver, "Network.enable");
+        CdpUtils.executeCdpCommand(driver, "Network.setCacheDisabled", Collections.singletonMap("cache", true));
+        int loads = (int) config.getLongProperty("net.block.savings.loads", 3);
+        
+        int blockedBefore = requestBlocker.getBlockedCount();
+        List<Double> blockedLoads = measureHomepageLoads(loads);
+        double blockedPerLoad = (requestBlocker.getBlockedCount() - blockedBefore) / (double) loads;
+        
+        requestBlocker.stop();
+        List<Double> unblockedLoads = measureHomepageLoads(loads);
+        requestBlocker.start(driver);
+        
+        double blockedMedian = Stats.percentile(blockedLoads, 50);
+        double unblockedMedian = Stats.percentile(unblockedLoads, 50);
+        double savedMs = unblockedMedian - blockedMedian;
+        test.log(Status.INFO, String.format(Locale.ROOT,
+            "%.1f requests blocked per load; load event p50 %.0f ms blocked vs %.0f ms unblocked, %.0f ms saved",
+            blockedPerLoad, blockedMedian, unblockedMedian, savedMs));
+        
+        new File(SAVINGS_REPORT).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(SAVINGS_REPORT)) {
+            writer.println("loads,blockedPerLoad,blockedLoadP50Ms,unblockedLoadP50Ms,savedMs");
+            writer.printf(Locale.ROOT, "%d,%.1f,%.2f,%.2f,%.2f%n", loads, blockedPerLoad, blockedMedian, unblockedMedian, savedMs);
+        } catch (IOException e) {
+            System.err.println("Failed to write blocking savings: " + e.getMessage());
+        }
+        
+        Assert.assertTrue(blockedPerLoad > 0, "Homepage should request external poster images");
+        test.log(Status.PASS, "External request blocking savings recorded");
+    }
+    
+    /**
+     * Load the homepage repeatedly
+     * @param loads Number of loads
+     * @return Load event time of every load in milliseconds
+     */
+    private List<Double> measureHomepageLoads(int loads) {
+        List<Double> loadTimes = new ArrayList<>();
+        for (int load = 0; load < loads; load++) {
+            try {
+                driver.get(config.getBaseUrl());
+                loadTimes.add(WebVitalsCollector.collect(driver).get("load"));
+            } catch (TimeoutException e) {
+                // Hanging external requests are exactly what blocking avoids
+                loadTimes.add(config.getPageLoadTimeout() * 1000.0);
+            }
+        }
+        return loadTimes;
+    }
+}
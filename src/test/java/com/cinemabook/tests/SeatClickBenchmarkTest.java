@@ -0,0 +1,86 @@
+package com.cinemabook.tests;
+
+import com.aventstack.extentreports.Status;
+import com.cinemabook.base.BaseTest;
+import com.cinemabook.pages.SeatSelectionPage;
+import com.cinemabook.performance.InteractionProbe;
+import com.cinemabook.performance.LatencyCurve;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+/**
+ * SeatClickBenchmarkTest class measures seat click latency on the seat map
+ * Clicks seats repeatedly while the selection grows and shrinks, recording
+ * input-to-next-paint, long tasks and React commit timing per click
+ */
+public class SeatClickBenchmarkTest extends BaseTest {
+    
+    private static final String SAMPLES_REPORT = "test-output/reports/seat-click-samples.csv";
+    private static final String CURVE_REPORT = "test-output/reports/seat-click-curve.csv";
+    
+    private SeatSelectionPage seatSelectionPage;
+    
+    @BeforeMethod
+    public void setUpTest() {
+        seatSelectionPage = new SeatSelectionPage(driver);
+    }
+    
+    /**
+     * Benchmark: seat click latency curve from 1 to the maximum selection size
+     */
+    @Test(description = "Measure seat click latency as the selection size grows")
+    public void testSeatClickLatencyCurve() throws InterruptedException {
+        test = extent.createTest("Seat Click Latency Benchmark");
+        if (!config.isSeatClickBenchmarkEnabled()) {
+            throw new SkipException("Seat click benchmark is disabled, set perf.seatbench.enabled=true");
+        }
+        
+        // The React commit hook has to be registered before the app bundle loads
+        Assert.assertTrue(InteractionProbe.install(driver), "Interaction probe requires a Chromium browser");
+        openSeatSelectionPage();
+        Assert.assertTrue(seatSelectionPage.isSeatSelectionPageDisplayed(),
+            "Seat selection page should be displayed");
+        
+        int maxSelection = Math.min(config.getSeatClickBenchmarkMaxSelection(),
+            seatSelectionPage.getAvailableSeatsCount());
+        int iterations = config.getSeatClickBenchmarkIterations();
+        test.log(Status.INFO, "Benchmarking " + iterations + " sweeps up to " + maxSelection + " selected seats");
+        
+        LatencyCurve curve = new LatencyCurve("selectionSize");
+        for (int iteration = 0; iteration < iterations; iteration++) {
+            // Grow the selection one seat at a time
+            for (int selectionSize = 1; selectionSize <= maxSelection; selectionSize++) {
+                InteractionProbe.arm(driver);
+                seatSelectionPage.selectFirstAvailableSeat();
+                curve.add("select", selectionSize, InteractionProbe.read(driver));
+            }
+            
+            // Shrink it again so the next sweep starts from an empty selection
+            for (int selectionSize = maxSelection - 1; selectionSize >= 0; selectionSize--) {
+                InteractionProbe.arm(driver);
+                seatSelectionPage.deselectFirstSelectedSeat();
+                curve.add("deselect", selectionSize, InteractionProbe.read(driver));
+            }
+        }
+        
+        curve.writeSamples(SAMPLES_REPORT);
+        curve.writeCurve(CURVE_REPORT);
+        
+        double exponent = curve.growthExponent("select", "inputToNextPaint");
+        double worstMedian = curve.medians("select", "inputToNextPaint").values().stream()
+            .mapToDouble(Double::doubleValue).max().orElse(0);
+        test.log(Status.INFO, "Input-to-next-paint per selection size (p50): " + curve.medians("select", "inputToNextPaint"));
+        test.log(Status.INFO, "React commit latency per selection size (p50): " + curve.medians("select", "commitLatency"));
+        test.log(Status.INFO, String.format("Growth exponent %.3f, worst p50 %.1f ms", exponent, worstMedian));
+        
+        double maxExponent = Double.parseDouble(config.getProperty("perf.seatbench.max.exponent", "1.5"));
+        double maxInputToNextPaint = Double.parseDouble(config.getProperty("perf.seatbench.max.inp.ms", "200"));
+        Assert.assertTrue(exponent <= maxExponent,
+            String.format("Seat click latency grows with exponent %.3f, limit is %.3f", exponent, maxExponent));
+        Assert.assertTrue(worstMedian <= maxInputToNextPaint,
+            String.format("Seat click input-to-next-paint p50 %.1f ms exceeds %.1f ms", worstMedian, maxInputToNextPaint));
+        test.log(Status.PASS, "Seat click latency curve is within limits");
+    }
+}
@@ -0,0 +1,325 @@
+package com.cinemabook.tests;
+
+import com.aventstack.extentreports.Status;
+import com.cinemabook.base.BaseTest;
+import com.cinemabook.pages.SeatSelectionPage;
+import com.cinemabook.utils.SeatSelectionModel;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * SeatSelectionFuzzTest class checks the seat picker against a reference model
+ * Generates random click sequences mixing selections, deselections, booked seats
+ * and premium/regular seats, dispatches each sequence in one in-page batch and
+ * compares the booking summary after every click with SeatSelectionModel. A
+ * failing sequence is shrunk to a minimal repro before the test fails.
+ * Booked seats are random per page load, so the repro file records the seat layout
+ * next to the minimal sequence; fuzz.seats.replay runs that repro again
+ */
+public class SeatSelectionFuzzTest extends BaseTest {
+    
+    private static final String REPRO_REPORT = "test-output/reports/seat-fuzz-repro.txt";
+    
+    private SeatSelectionPage seatSelectionPage;
+    private SeatSelectionModel model;
+    private List<String> labels;
+    private int shrinkRuns;
+    
+    @BeforeMethod
+    public void setUpTest() {
+        seatSelectionPage = new SeatSelectionPage(driver);
+    }
+    
+    /**
+     * Fuzz: random seat click sequences checked step by step against the model
+     */
+    @Test(description = "Fuzz seat selection against the Java reference model")
+    public void testSeatSelectionMatchesModel() throws InterruptedException {
+        test = extent.createTest("Seat Selection Fuzzer");
+        if (!config.getBooleanProperty("fuzz.seats.enabled", false)) {
+            throw new SkipException("Seat selection fuzzer is disabled, set fuzz.seats.enabled=true");
+        }
+        
+        openSeatSelectionPage();
+        Assert.assertTrue(seatSelectionPage.isSeatSelectionPageDisplayed(), "Seat selection page should be displayed");
+        
+        // Booked seats are random per page load, so the model is built from this seat map
+        List<Map<String, Object>> inventory = seatSelectionPage.getSeatInventory();
+        boolean[] premium = new boolean[inventory.size()];
+        boolean[] booked = new boolean[inventory.size()];
+        labels = new ArrayList<>();
+        for (int seat = 0; seat < inventory.size(); seat++) {
+            premium[seat] = Boolean.TRUE.equals(inventory.get(seat).get("premium"));
+            booked[seat] = Boolean.TRUE.equals(inventory.get(seat).get("booked"));
+            labels.add(String.valueOf(inventory.get(seat).get("label")));
+        }
+        model = new SeatSelectionModel(premium, booked);
+        
+        String replayFile = config.getProperty("fuzz.seats.replay", "");
+        if (!replayFile.isEmpty()) {
+            replay(replayFile, premium, booked);
+            return;
+        }
+        
+        long seed = config.getLongProperty("fuzz.seats.seed", 0);
+        if (seed == 0) {
+            seed = System.nanoTime();
+        }
+        int sequences = (int) config.getLongProperty("fuzz.seats.sequences", 2000);
+        int maxLength = (int) config.getLongProperty("fuzz.seats.max.length", 30);
+        test.log(Status.INFO, "Running " + sequences + " sequences of up to " + maxLength + " clicks on "
+            + inventory.size() + " seats, seed " + seed);
+        
+        Random random = new Random(seed);
+        long clicks = 0;
+        long start = System.nanoTime();
+        for (int sequence = 0; sequence < sequences; sequence++) {
+            List<Integer> clicksToRun = generateSequence(random, premium, booked, 1 + random.nextInt(maxLength));
+            String divergence = run(clicksToRun);
+            clicks += clicksToRun.size();
+            if (divergence != null) {
+                List<Integer> minimal = shrink(clicksToRun);
+                String report = writeRepro(seed, sequence, clicksToRun, minimal, premium, booked);
+                test.log(Status.FAIL, "Sequence " + sequence + " diverged: " + divergence);
+                test.log(Status.INFO, "Minimal repro (" + minimal.size() + " clicks): " + describe(minimal));
+                Assert.fail("Seat selection diverged from the model, minimal repro " + describe(minimal)
+                    + ": " + run(minimal) + " (details in " + report + ")");
+            }
+        }
+        
+        double seconds = (System.nanoTime() - start) / 1e9;
+        test.log(Status.PASS, String.format("%d sequences, %d clicks matched the model (%.0f clicks/s)",
+            sequences, clicks, clicks / seconds));
+    }
+    
+    /**
+     * Replay a repro file on the current seat map
+     * Each recorded seat is clicked under its own label when it has the recorded booked and
+     * premium state on this page load, otherwise under the label of another seat with that state
+     * @param replayFile Repro file written by a failing run
+     * @param premium Premium flag per seat on this page load
+     * @param booked Booked flag per seat on this page load
+     */
+    private void replay(String replayFile, boolean[] premium, boolean[] booked) {
+        Properties repro = new Properties();
+        try (FileReader reader = new FileReader(replayFile)) {
+            repro.load(reader);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read seat fuzz repro: " + replayFile, e);
+        }
+        List<String> recordedSeats = splitLabels(repro.getProperty("minimal", ""));
+        Assert.assertFalse(recordedSeats.isEmpty(), "Repro file has no minimal sequence: " + replayFile);
+        Set<String> recordedBooked = new HashSet<>(splitLabels(repro.getProperty("booked", "")));
+        Set<String> recordedPremium = new HashSet<>(splitLabels(repro.getProperty("premium", "")));
+        
+        Map<String, Integer> assigned = new HashMap<>();
+        for (String label : recordedSeats) {
+            if (assigned.containsKey(label)) {
+                continue;
+            }
+            boolean wantBooked = recordedBooked.contains(label);
+            boolean wantPremium = recordedPremium.contains(label);
+            int seat = labels.indexOf(label);
+            if (seat < 0 || booked[seat] != wantBooked || premium[seat] != wantPremium
+                || assigned.containsValue(seat)) {
+                seat = -1;
+                for (int candidate = 0; candidate < labels.size() && seat < 0; candidate++) {
+                    if (booked[candidate] == wantBooked && premium[candidate] == wantPremium
+                        && !assigned.containsValue(candidate) && !recordedSeats.contains(labels.get(candidate))) {
+                        seat = candidate;
+                    }
+                }
+                if (seat < 0) {
+                    throw new SkipException("No seat on this page load is " + (wantBooked ? "booked" : "available")
+                        + " and " + (wantPremium ? "premium" : "regular") + " like " + label);
+                }
+                test.log(Status.INFO, "Seat " + label + " replayed as " + labels.get(seat));
+            }
+            assigned.put(label, seat);
+        }
+        
+        List<Integer> sequence = new ArrayList<>();
+        recordedSeats.forEach(label -> sequence.add(assigned.get(label)));
+        test.log(Status.INFO, "Replaying " + replayFile + " (" + sequence.size() + " clicks): " + describe(sequence));
+        String divergence = run(sequence);
+        if (divergence != null) {
+            Assert.fail("Seat selection still diverges from the model on " + describe(sequence) + ": " + divergence);
+        }
+        test.log(Status.PASS, "Repro " + replayFile + " matches the model");
+    }
+    
+    /**
+     * Generate a click sequence biased towards interesting cases
+     * Tracks the model state while generating so deselections hit selected seats
+     * @param random Random source
+     * @param premium Premium flag per seat
+     * @param booked Booked flag per seat
+     * @param length Number of clicks
+     * @return Seat indexes in click order
+     */
+    private List<Integer> generateSequence(Random random, boolean[] premium, boolean[] booked, int length) {
+        SeatSelectionModel shadow = new SeatSelectionModel(premium, booked);
+        List<Integer> bookedSeats = new ArrayList<>();
+        List<Integer> premiumSeats = new ArrayList<>();
+        List<Integer> regularSeats = new ArrayList<>();
+        for (int seat = 0; seat < premium.length; seat++) {
+            (booked[seat] ? bookedSeats : premium[seat] ? premiumSeats : regularSeats).add(seat);
+        }
+        
+        List<Integer> sequence = new ArrayList<>();
+        for (int click = 0; click < length; click++) {
+            double roll = random.nextDouble();
+            List<Integer> selected = new ArrayList<>(shadow.getSelectedSeats());
+            int seat;
+            if (roll < 0.1 && !bookedSeats.isEmpty()) {
+                seat = pick(random, bookedSeats);
+            } else if (roll < 0.35 && !selected.isEmpty()) {
+                seat = pick(random, selected);
+            } else if ((roll < 0.65 || regularSeats.isEmpty()) && !premiumSeats.isEmpty()) {
+                seat = pick(random, premiumSeats);
+            } else {
+                seat = pick(random, regularSeats.isEmpty() ? bookedSeats : regularSeats);
+            }
+            shadow.click(seat);
+            sequence.add(seat);
+        }
+        return sequence;
+    }
+    
+    /**
+     * Run a sequence from an empty selection and compare every step with the model
+     * @param sequence Seat indexes in click order
+     * @return Description of the first divergence, or null when the page matches the model
+     */
+    private String run(List<Integer> sequence) {
+        clearSelection();
+        model.reset();
+        List<int[]> observed = seatSelectionPage.dispatchSeatClicks(sequence);
+        for (int step = 0; step < sequence.size(); step++) {
+            model.click(sequence.get(step));
+            int[] actual = observed.get(step);
+            if (actual[0] != model.getSelectedCount() || actual[1] != model.getTotal()
+                || actual[2] != model.getRejectedClicks()) {
+                return String.format("after click %d (%s) page shows %d seats / total %d / %d limit alerts, "
+                    + "model expects %d / %d / %d", step + 1, labels.get(sequence.get(step)), actual[0], actual[1],
+                    actual[2], model.getSelectedCount(), model.getTotal(), model.getRejectedClicks());
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * Shrink a failing sequence by removing chunks of clicks while it still fails
+     * @param failing Failing sequence
+     * @return Smallest failing sequence found within the shrink run budget
+     */
+    private List<Integer> shrink(List<Integer> failing) {
+        int maxRuns = (int) config.getLongProperty("fuzz.seats.max.shrink.runs", 200);
+        List<Integer> current = new ArrayList<>(failing);
+        int chunk = Math.max(1, current.size() / 2);
+        shrinkRuns = 0;
+        while (shrinkRuns < maxRuns) {
+            boolean reduced = false;
+            for (int from = 0; from < current.size() && shrinkRuns < maxRuns; from += chunk) {
+                List<Integer> candidate = new ArrayList<>(current.subList(0, from));
+                candidate.addAll(current.subList(Math.min(current.size(), from + chunk), current.size()));
+                shrinkRuns++;
+                if (!candidate.isEmpty() && run(candidate) != null) {
+                    current = candidate;
+                    reduced = true;
+                    break;
+                }
+            }
+            if (!reduced) {
+                if (chunk == 1) {
+                    break;
+                }
+                chunk = Math.max(1, chunk / 2);
+            }
+        }
+        return current;
+    }
+    
+    /**
+     * Deselect whatever the page currently has selected
+     */
+    private void clearSelection() {
+        List<Integer> selected = seatSelectionPage.getSelectedSeatIndexes();
+        if (!selected.isEmpty()) {
+            seatSelectionPage.dispatchSeatClicks(selected);
+        }
+    }
+    
+    /**
+     * Write the failing and the minimal sequence for reproduction
+     * @param seed Random seed of the run
+     * @param sequence Index of the failing sequence
+     * @param failing Failing sequence as generated
+     * @param minimal Shrunk sequence
+     * @param premium Premium flag per seat
+     * @param booked Booked flag per seat
+     * @return Report path
+     */
+    private String writeRepro(long seed, int sequence, List<Integer> failing, List<Integer> minimal,
+                              boolean[] premium, boolean[] booked) {
+        new File(REPRO_REPORT).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(REPRO_REPORT)) {
+            writer.println("seed=" + seed);
+            writer.println("sequence=" + sequence);
+            writer.println("failing=" + describe(failing));
+            writer.println("minimal=" + describe(minimal));
+            writer.println("shrinkRuns=" + shrinkRuns);
+            // The seed only regenerates the sequences on this layout, which changes per page load
+            writer.println("booked=" + describeSeats(booked));
+            writer.println("premium=" + describeSeats(premium));
+        } catch (IOException e) {
+            System.err.println("Failed to write seat fuzz repro: " + e.getMessage());
+        }
+        return REPRO_REPORT;
+    }
+    
+    private String describe(List<Integer> sequence) {
+        List<String> seats = new ArrayList<>();
+        sequence.forEach(seat -> seats.add(labels.get(seat)));
+        return String.join(" ", seats);
+    }
+    
+    private String describeSeats(boolean[] flags) {
+        List<Integer> seats = new ArrayList<>();
+        for (int seat = 0; seat < flags.length; seat++) {
+            if (flags[seat]) {
+                seats.add(seat);
+            }
+        }
+        return describe(seats);
+    }
+    
+    private static List<String> splitLabels(String value) {
+        List<String> seats = new ArrayList<>();
+        for (String label : value.trim().split("\\s+")) {
+            if (!label.isEmpty()) {
+                seats.add(label);
+            }
+        }
+        return seats;
+    }
+    
+    private static int pick(Random random, List<Integer> seats) {
+        return seats.get(random.nextInt(seats.size()));
+    }
+}
@@ -2,9 +2,12 @@ package com.cinemabook.tests;
 
 import com.aventstack.extentreports.Status;
 import com.cinemabook.base.BaseTest;
+import com.cinemabook.base.FlowCheckpoint;
 import com.cinemabook.pages.HomePage;
-import com.cinemabook.pages.LoginPage;
 import com.cinemabook.pages.SeatSelectionPage;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
@@ -17,23 +20,34 @@ public class SeatSelectionTest extends BaseTest {
     
     private SeatSelectionPage seatSelectionPage;
     private HomePage homePage;
-    private LoginPage loginPage;
     
     @BeforeMethod
     public void setUpTest() {
         seatSelectionPage = new SeatSelectionPage(driver);
         homePage = new HomePage(driver);
-        loginPage = new LoginPage(driver);
     }
     
     /**
      * Helper method to navigate to seat selection page
+     * With session.checkpoint.enabled the path below runs once and later tests fork from its end state
      */
     private void navigateToSeatSelectionPage() throws InterruptedException {
+        if (config.isFlowCheckpointEnabled()) {
+            if (FlowCheckpoint.fork("seat-map", driver, config.getBaseUrl(), this::runSeatSelectionPrefix,
+                    this::rebuildSeatMap)) {
+                test.log(Status.INFO, "Forked from the seat map checkpoint");
+            }
+            return;
+        }
+        runSeatSelectionPrefix();
+    }
+    
+    /**
+     * Log in and click through the booking flow up to the seat map
+     */
+    private void runSeatSelectionPrefix() throws InterruptedException {
         // Login first
-        loginPage.navigateToLoginPage();
-        loginPage.performLogin(config.getValidEmail(), config.getValidPassword());
-        Thread.sleep(3000);
+        logInAsValidUser();
         
         // Navigate to homepage and select a movie
         homePage.navigateToHomePage();
@@ -59,6 +73,19 @@ public class SeatSelectionTest extends BaseTest {
         }
     }
     
+    /**
+     * Choose the movie and showtime again on top of a restored session
+     * The seat map reads them from React context, which a page load does not restore
+     * @param forkDriver WebDriver instance of the forked test
+     * @param url Seat selection URL of the checkpoint
+     */
+    private void rebuildSeatMap(WebDriver forkDriver, String url) {
+        forkDriver.get(url.substring(0, url.lastIndexOf("/seats")));
+        forkDriver.findElement(By.xpath("//button[contains(text(), 'Book Tickets')]")).click();
+        forkDriver.findElement(By.xpath("//button[contains(@class, 'flex items-center justify-center space-x-2')]")).click();
+        wait.until(ExpectedConditions.urlContains("/seats"));
+    }
+    
     /**
      * Test Case 1: Verify seat selection page elements are displayed
      */
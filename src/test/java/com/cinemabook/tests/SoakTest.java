@@ -0,0 +1,156 @@
+package com.cinemabook.tests;
+
+import com.aventstack.extentreports.Status;
+import com.cinemabook.base.BaseTest;
+import com.cinemabook.performance.BookingFlow;
+import com.cinemabook.performance.BrowserMetrics;
+import com.cinemabook.performance.Stats;
+import com.cinemabook.utils.CdpUtils;
+import com.cinemabook.utils.SessionSeeder;
+import org.openqa.selenium.WebDriverException;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * SoakTest class loops the booking and dashboard flows in one browser session
+ * Samples JS heap, DOM nodes, event listeners and documents every few iterations,
+ * fits a trend line per metric and fails when heap or node counts keep growing
+ */
+public class SoakTest extends BaseTest {
+    
+    private static final String SOAK_DIR = "test-output/soak/";
+    private static final String SAMPLES_REPORT = "test-output/reports/soak-samples.csv";
+    private static final String SUMMARY_REPORT = "test-output/reports/soak-summary.csv";
+    private static final String[] METRICS = {
+        BrowserMetrics.JS_HEAP_USED_SIZE, BrowserMetrics.NODES, BrowserMetrics.JS_EVENT_LISTENERS, BrowserMetrics.DOCUMENTS
+    };
+    
+    /**
+     * Soak: memory and DOM growth over many in-session bookings
+     */
+    @Test(description = "Detect JS heap and DOM node leaks over a long booking loop")
+    public void testSoakForLeaks() {
+        test = extent.createTest("Soak Leak Detection");
+        if (!config.getBooleanProperty("perf.soak.enabled", false)) {
+            throw new SkipException("Soak test is disabled, set perf.soak.enabled=true");
+        }
+        if (!CdpUtils.isCdpAvailable(driver)) {
+            throw new SkipException("Soak test needs CDP Performance.getMetrics, run it on Chrome");
+        }
+        
+        long deadline = System.currentTimeMillis() + config.getLongProperty("perf.soak.duration.min", 120) * 60000;
+        long maxIterations = config.getLongProperty("perf.soak.iterations", 0);
+        int sampleEvery = (int) config.getLongProperty("perf.soak.sample.every", 10);
+        int history = (int) config.getLongProperty("perf.soak.history", 20);
+        int maxResets = (int) config.getLongProperty("perf.soak.max.resets", 3);
+        
+        // Login and warm up so lazily created caches do not count as growth
+        BookingFlow flow = new BookingFlow(driver);
+        flow.run();
+        for (int warmup = 0; warmup < config.getLongProperty("perf.soak.warmup.iterations", 3); warmup++) {
+            flow.runInSession();
+        }
+        BrowserMetrics.collectGarbage(driver);
+        BrowserMetrics.takeHeapSnapshot(driver, SOAK_DIR + "heap-before.heapsnapshot");
+        
+        Map<String, List<Double>> samples = new LinkedHashMap<>();
+        List<Double> iterations = new ArrayList<>();
+        int resets = 0;
+        long iteration = 0;
+        new File(SAMPLES_REPORT).getParentFile().mkdirs();
+        try (PrintWriter writer = new PrintWriter(SAMPLES_REPORT)) {
+            writer.println("iteration,elapsedMin,flowMs," + String.join(",", METRICS));
+            long start = System.currentTimeMillis();
+            while (System.currentTimeMillis() < deadline && (maxIterations == 0 || iteration < maxIterations)) {
+                iteration++;
+                double flowMs;
+                try {
+                    flowMs = flow.runInSession().get("total");
+                    SessionSeeder.trimBookings(driver, history);
+                } catch (IllegalStateException | WebDriverException e) {
+                    // A reload frees everything, so the trend restarts from the new document
+                    resets++;
+                    test.log(Status.WARNING, "Iteration " + iteration + " failed, reloading session: " + e.getMessage());
+                    Assert.assertTrue(resets <= maxResets, "Soak run needed more than " + maxResets + " session resets");
+                    flow.run();
+                    samples.clear();
+                    iterations.clear();
+                    continue;
+                }
+                
+                if (iteration % sampleEvery == 0) {
+                    BrowserMetrics.collectGarbage(driver);
+                    Map<String, Double> metrics = BrowserMetrics.getMetrics(driver);
+                    iterations.add((double) iteration);
+                    StringBuilder row = new StringBuilder(String.format(Locale.ROOT, "%d,%.1f,%.0f",
+                        iteration, (System.currentTimeMillis() - start) / 60000.0, flowMs));
+                    for (String metric : METRICS) {
+                        double value = metrics.getOrDefault(metric, 0.0);
+                        samples.computeIfAbsent(metric, key -> new ArrayList<>()).add(value);
+                        row.append(String.format(Locale.ROOT, ",%.0f", value));
+                    }
+                    writer.println(row);
+                    writer.flush();
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to write soak samples: " + e.getMessage());
+        }
+        
+        BrowserMetrics.collectGarbage(driver);
+        BrowserMetrics.takeHeapSnapshot(driver, SOAK_DIR + "heap-after.heapsnapshot");
+        
+        Map<String, Double> slopes = new LinkedHashMap<>();
+        for (String metric : METRICS) {
+            slopes.put(metric, Stats.slope(iterations, samples.getOrDefault(metric, new ArrayList<>())));
+        }
+        writeSummary(iteration, iterations.size(), resets, slopes);
+        test.log(Status.INFO, String.format(Locale.ROOT,
+            "%d iterations, %d samples, %d resets; per iteration: heap %+.1f KB, nodes %+.2f, listeners %+.2f, documents %+.3f",
+            iteration, iterations.size(), resets, slopes.get(BrowserMetrics.JS_HEAP_USED_SIZE) / 1024,
+            slopes.get(BrowserMetrics.NODES), slopes.get(BrowserMetrics.JS_EVENT_LISTENERS), slopes.get(BrowserMetrics.DOCUMENTS)));
+        test.info("Heap snapshots: <a href='../soak/heap-before.heapsnapshot'>before</a>, "
+            + "<a href='../soak/heap-after.heapsnapshot'>after</a>");
+        
+        if (iterations.size() < 3) {
+            throw new SkipException("Soak run too short for a trend, only " + iterations.size() + " samples");
+        }
+        double maxHeapSlopeKb = Double.parseDouble(config.getProperty("perf.soak.max.heap.slope.kb", "50"));
+        double maxNodeSlope = Double.parseDouble(config.getProperty("perf.soak.max.nodes.slope", "5"));
+        Assert.assertTrue(slopes.get(BrowserMetrics.JS_HEAP_USED_SIZE) / 1024 <= maxHeapSlopeKb,
+            String.format(Locale.ROOT, "JS heap grows by %.1f KB per iteration, limit is %.1f KB",
+                slopes.get(BrowserMetrics.JS_HEAP_USED_SIZE) / 1024, maxHeapSlopeKb));
+        Assert.assertTrue(slopes.get(BrowserMetrics.NODES) <= maxNodeSlope,
+            String.format(Locale.ROOT, "DOM node count grows by %.2f per iteration, limit is %.2f",
+                slopes.get(BrowserMetrics.NODES), maxNodeSlope));
+        test.log(Status.PASS, "No heap or DOM node growth beyond the slope thresholds");
+    }
+    
+    /**
+     * Write the trend of every sampled metric
+     * @param iterations Iterations run
+     * @param sampleCount Samples in the final trend window
+     * @param resets Session resets during the run
+     * @param slopes Metric name to growth per iteration
+     */
+    private void writeSummary(long iterations, int sampleCount, int resets, Map<String, Double> slopes) {
+        try (PrintWriter writer = new PrintWriter(SUMMARY_REPORT)) {
+            writer.println("metric,slopePerIteration,iterations,samples,resets");
+            slopes.forEach((metric, slope) ->
+                writer.printf(Locale.ROOT, "%s,%.4f,%d,%d,%d%n", metric, slope, iterations, sampleCount, resets));
+            System.out.println("Soak summary written: " + SUMMARY_REPORT);
+        } catch (IOException e) {
+            System.err.println("Failed to write soak summary: " + e.getMessage());
+        }
+    }
+}